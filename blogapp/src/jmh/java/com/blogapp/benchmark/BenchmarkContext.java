@@ -0,0 +1,47 @@
+package com.blogapp.benchmark;
+
+import com.blogapp.BlogappApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/**
+ * The application context the service benchmarks run against: the real beans on an in-memory H2 database,
+ * without the web server. Test classes share the benchmark classpath, so their stub configurations are kept
+ * out of the component scan the way a test context would keep them out.
+ */
+final class BenchmarkContext {
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext run(String database, Class<?>... sources) {
+        Class<?>[] all = new Class<?>[sources.length + 1];
+        all[0] = BlogappApplication.class;
+        System.arraycopy(sources, 0, all, 1, sources.length);
+        return new SpringApplicationBuilder(all)
+                .web(WebApplicationType.NONE)
+                .initializers(context -> context.getBeanFactory()
+                        .registerSingleton("testConfigurationExcludeFilter", new TestConfigurationExcludeFilter()))
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:" + database + ";NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.com.blogapp=WARN",
+                        "logging.level.org.hibernate=WARN",
+                        "LOG_FILE_PATH=target/benchmark-logs/",
+                        // keep the outbox poller quiet during measurement
+                        "mail.outbox.poll-interval-ms=3600000")
+                .run();
+    }
+
+    private static class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+}
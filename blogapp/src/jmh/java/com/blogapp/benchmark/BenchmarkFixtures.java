@@ -0,0 +1,76 @@
+package com.blogapp.benchmark;
+
+import com.blogapp.entity.Address;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Detached entities shared by the benchmarks; ids are set so mappers see the same shape as a loaded row.
+ */
+final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    static Category category() {
+        Category category = new Category();
+        category.setId(1L);
+        category.setCategoryName("Technology");
+        category.setDescription("Posts about software and hardware");
+        category.setCreateAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        category.setUpdateAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        return category;
+    }
+
+    static User user() {
+        Address address = new Address();
+        address.setId(1L);
+        address.setAreaName("MG Road");
+        address.setCityName("Indore");
+        address.setPinCode(452001);
+        address.setStateName("Madhya Pradesh");
+        address.setCountryName("India");
+
+        User user = new User();
+        user.setId(1L);
+        user.setUserName("benchmark_user");
+        user.setEmail("benchmark@blogapp.com");
+        user.setMobile("9876543210");
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        user.setUpdateAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        user.setProfileImagePath("https://bucket/profile.jpg");
+        user.setAddress(address);
+        return user;
+    }
+
+    static Post post(User user, Category category) {
+        Post post = new Post();
+        post.setId(1L);
+        post.setTitle("Benchmark post title");
+        post.setDescription("A post description long enough to be realistic");
+        post.setCreateAt(LocalDateTime.of(2024, 1, 1, 10, 0));
+        post.setUpdateAt(LocalDateTime.of(2024, 1, 2, 10, 0));
+        post.setPostImagesPath(List.of("https://bucket/a.jpg", "https://bucket/b.jpg"));
+        post.setUser(user);
+        post.setCategory(category);
+        return post;
+    }
+
+    static Comment comment(Post post, User user) {
+        Comment comment = new Comment();
+        comment.setId(1L);
+        comment.setComment("A thoughtful comment on the post");
+        comment.setCreateAt(LocalDateTime.of(2024, 1, 3, 10, 0));
+        comment.setUpdateAt(LocalDateTime.of(2024, 1, 3, 10, 0));
+        comment.setPost(post);
+        comment.setUser(user);
+        return comment;
+    }
+}
@@ -0,0 +1,157 @@
+package com.blogapp.benchmark;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.blogapp.controller.PostController;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostDto;
+import com.blogapp.repository.CategoryRepository;
+import com.blogapp.repository.PostRepository;
+import com.blogapp.repository.UserRepository;
+import com.blogapp.service.CategoryCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Create-post latency through the real controller and service against an H2 table seeded with a small and a
+ * large number of posts. The two scores should be close: a create that touches the whole table, as the
+ * controller once did by listing every post after each insert, shows up as a gap that grows with the table.
+ * S3 is replaced by a bucket that accepts every upload, so only the database side is measured.
+ * <p>
+ * The table is filled with one insert-select from a template row, so the million-row case seeds in seconds and
+ * without holding the rows in the benchmark's heap. To run a single size:
+ * {@code mvn -Pbenchmark test-compile exec:exec -Djmh.args="CreatePostBenchmark -p postCount=1000000"}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+// the in-memory database holds the whole table, a million rows included
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class CreatePostBenchmark {
+
+    @Param({"1000", "50000", "1000000"})
+    private int postCount;
+
+    private ConfigurableApplicationContext context;
+    private PostController postController;
+    private PostDto postDto;
+    private List<MultipartFile> images;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.run("createpost" + postCount, NoUploadStorage.class);
+        postController = context.getBean(PostController.class);
+        seed();
+        images = List.of(new MockMultipartFile("file", "image.jpg", "image/jpeg", new byte[]{1, 2, 3}));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+
+        User user = BenchmarkFixtures.user();
+        user.setId(null);
+        user.getAddress().setId(null);
+        user = userRepository.save(user);
+
+        Category category = BenchmarkFixtures.category();
+        category.setId(null);
+        category = categoryRepository.save(category);
+        // the catalog was loaded at startup, before the category existed
+        context.getBean(CategoryCatalog.class).reload();
+
+        Post template = BenchmarkFixtures.post(user, category);
+        template.setId(null);
+        template.setTitle("Benchmark post 0");
+        template.setUpdateAt(LocalDateTime.of(2024, 1, 1, 0, 0));
+        template = postRepository.save(template);
+        // H2's system_range numbers the copies; each gets its own title and a later update_at
+        context.getBean(JdbcTemplate.class).update("insert into post (title, description, create_at, update_at, " +
+                "post_images_path, user_id, category_id, comment_count, view_count, like_count) " +
+                "select concat('Benchmark post ', r.x), p.description, p.create_at, dateadd(minute, r.x, p.update_at), " +
+                "p.post_images_path, p.user_id, p.category_id, 0, 0, 0 " +
+                "from post p cross join system_range(1, ?) r where p.id = ?", postCount - 1, template.getId());
+
+        postDto = new PostDto();
+        postDto.setTitle("Benchmark post");
+        postDto.setDescription("Benchmark post description");
+        postDto.setUserId(user.getId());
+        postDto.setCategoryId(category.getId());
+    }
+
+    @Benchmark
+    public ResponseEntity<PostDetailsDto> createPost() {
+        return postController.createPost(postDto, images);
+    }
+
+    // takes the place of the real client for every service that writes to the bucket
+    static class NoUploadStorage {
+        @Bean
+        @Primary
+        AmazonS3 noUploadS3() {
+            return new AbstractAmazonS3() {
+                @Override
+                public PutObjectResult putObject(PutObjectRequest request) {
+                    return new PutObjectResult();
+                }
+
+                @Override
+                public DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+                    return new DeleteObjectsResult(List.of());
+                }
+
+                @Override
+                public URL getUrl(String bucketName, String key) {
+                    try {
+                        return new URL("https://" + bucketName + ".s3.amazonaws.com/" + key);
+                    } catch (MalformedURLException e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                }
+
+                @Override
+                public void shutdown() {
+                }
+            };
+        }
+    }
+}
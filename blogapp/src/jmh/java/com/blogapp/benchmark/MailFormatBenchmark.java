@@ -0,0 +1,57 @@
+package com.blogapp.benchmark;
+
+import com.blogapp.service.PostServiceImpl;
+import com.blogapp.service.UserServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Body building for the post-created and verification mails; both go through String.format on
+ * the request thread before the outbox row is written.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MailFormatBenchmark {
+
+    // the formatting helpers touch no injected fields, so plain instances are enough
+    private final PostServiceImpl postService = new PostServiceImpl();
+    private final UserServiceImpl userService = new UserServiceImpl();
+
+    private String userName;
+    private String postTitle;
+    private LocalDateTime createTime;
+    private String verificationLink;
+
+    @Setup
+    public void setUp() {
+        userName = "benchmark_user";
+        postTitle = "Benchmark post title";
+        createTime = LocalDateTime.of(2024, 1, 1, 10, 0);
+        verificationLink = "http://localhost:8080/api/auth/user/verify?userEmailId=benchmark@blogapp.com";
+    }
+
+    @Benchmark
+    public String mailFormat() {
+        return postService.mailFormat(userName, postTitle, createTime);
+    }
+
+    @Benchmark
+    public String emailFormatting() {
+        return userService.emailFormatting(userName, verificationLink);
+    }
+}
@@ -0,0 +1,156 @@
+package com.blogapp.benchmark;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.mapper.CategoryMapper;
+import com.blogapp.mapper.CategoryMapperImpl;
+import com.blogapp.mapper.CommentMapper;
+import com.blogapp.mapper.CommentMapperImpl;
+import com.blogapp.mapper.PostMapper;
+import com.blogapp.mapper.PostMapperImpl;
+import com.blogapp.mapper.UserMapper;
+import com.blogapp.mapper.UserMapperImpl;
+import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.CommentDto;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostDto;
+import com.blogapp.payload.UserDetailsDto;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generated MapStruct mappers against the reflective ModelMapper path they replaced,
+ * for the same entity/DTO pairs the services convert on every request.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MappingBenchmark {
+
+    private ModelMapper modelMapper;
+    private final CategoryMapper categoryMapper = new CategoryMapperImpl();
+    private final CommentMapper commentMapper = new CommentMapperImpl();
+    private final PostMapper postMapper = new PostMapperImpl();
+    private final UserMapper userMapper = new UserMapperImpl();
+
+    private Category category;
+    private CategoryDto categoryDto;
+    private CommentDto commentDto;
+    private PostDto postDto;
+    private User user;
+    private Post post;
+    private Comment comment;
+
+    @Setup
+    public void setUp() {
+        modelMapper = new ModelMapper();
+        category = BenchmarkFixtures.category();
+        user = BenchmarkFixtures.user();
+        post = BenchmarkFixtures.post(user, category);
+        comment = BenchmarkFixtures.comment(post, user);
+
+        categoryDto = new CategoryDto();
+        categoryDto.setCategoryName(category.getCategoryName());
+        categoryDto.setDescription(category.getDescription());
+
+        commentDto = new CommentDto();
+        commentDto.setComment("A thoughtful comment on the post");
+        commentDto.setPostId(1L);
+        commentDto.setUserId(1L);
+
+        postDto = new PostDto();
+        postDto.setTitle("Benchmark post title");
+        postDto.setDescription("A post description long enough to be realistic");
+        postDto.setPostImagesPath(List.of("https://bucket/a.jpg", "https://bucket/b.jpg"));
+        postDto.setUserId(1L);
+        postDto.setCategoryId(1L);
+    }
+
+    @Benchmark
+    public CategoryDto categoryToDtoModelMapper() {
+        return modelMapper.map(category, CategoryDto.class);
+    }
+
+    @Benchmark
+    public CategoryDto categoryToDtoMapStruct() {
+        return categoryMapper.toDto(category);
+    }
+
+    @Benchmark
+    public Category categoryToEntityModelMapper() {
+        return modelMapper.map(categoryDto, Category.class);
+    }
+
+    @Benchmark
+    public Category categoryToEntityMapStruct() {
+        return categoryMapper.toEntity(categoryDto);
+    }
+
+    @Benchmark
+    public Comment commentToEntityModelMapper() {
+        return modelMapper.map(commentDto, Comment.class);
+    }
+
+    @Benchmark
+    public Comment commentToEntityMapStruct() {
+        return commentMapper.toEntity(commentDto);
+    }
+
+    @Benchmark
+    public Post postToEntityModelMapper() {
+        return modelMapper.map(postDto, Post.class);
+    }
+
+    @Benchmark
+    public Post postToEntityMapStruct() {
+        return postMapper.toEntity(postDto);
+    }
+
+    @Benchmark
+    public UserDetailsDto userToDtoModelMapper() {
+        return modelMapper.map(user, UserDetailsDto.class);
+    }
+
+    @Benchmark
+    public UserDetailsDto userToDtoMapStruct() {
+        return userMapper.toDetailsDto(user);
+    }
+
+    @Benchmark
+    public PostDetailsDto postToDetailsDtoModelMapper() {
+        return modelMapper.map(post, PostDetailsDto.class);
+    }
+
+    @Benchmark
+    public PostDetailsDto postToDetailsDtoMapStruct() {
+        return postMapper.toDetailsDto(post);
+    }
+
+    @Benchmark
+    public CommentDetailsDto commentToDetailsDtoModelMapper() {
+        return modelMapper.map(comment, CommentDetailsDto.class);
+    }
+
+    @Benchmark
+    public CommentDetailsDto commentToDetailsDtoMapStruct() {
+        return commentMapper.toDetailsDto(comment);
+    }
+}
@@ -0,0 +1,89 @@
+package com.blogapp.benchmark;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.mapper.CommentMapperImpl;
+import com.blogapp.mapper.PostMapperImpl;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the response bodies, with the ObjectMapper configured the way
+ * Spring Boot configures the one behind the REST controllers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SerializationBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ObjectWriter postPageWriter;
+
+    private PostDetailsDto postDetailsDto;
+    private CommentDetailsDto commentDetailsDto;
+    private CursorPage<PostSummaryDto> postPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        postPageWriter = objectMapper.writerFor(CursorPage.class);
+
+        Category category = BenchmarkFixtures.category();
+        User user = BenchmarkFixtures.user();
+        Post post = BenchmarkFixtures.post(user, category);
+        Comment comment = BenchmarkFixtures.comment(post, user);
+        postDetailsDto = new PostMapperImpl().toDetailsDto(post);
+        commentDetailsDto = new CommentMapperImpl().toDetailsDto(comment);
+
+        // a default-sized listing page
+        List<PostSummaryDto> items = new ArrayList<>();
+        for (long i = 1; i <= 20; i++) {
+            items.add(new PostSummaryDto(i, post.getTitle() + " " + i, post.getUpdateAt(),
+                    user.getId(), user.getUserName(), category.getId(), category.getCategoryName(), i % 7));
+        }
+        postPage = new CursorPage<>(items, "MjAyNC0wMS0wMlQxMDowMHwyMA", 20);
+    }
+
+    @Benchmark
+    public byte[] postDetailsDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(postDetailsDto);
+    }
+
+    @Benchmark
+    public byte[] commentDetailsDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(commentDetailsDto);
+    }
+
+    @Benchmark
+    public byte[] postSummaryPage() throws JsonProcessingException {
+        return postPageWriter.writeValueAsBytes(postPage);
+    }
+}
@@ -0,0 +1,154 @@
+package com.blogapp.benchmark;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.repository.CategoryRepository;
+import com.blogapp.repository.CommentRepository;
+import com.blogapp.repository.PostRepository;
+import com.blogapp.repository.UserRepository;
+import com.blogapp.service.CommentService;
+import com.blogapp.service.PostServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service read paths against an in-memory H2 database seeded once per trial, so a regression in a
+ * query or in the mapping behind it shows up as a number. Runs the real Spring context minus the
+ * web server; S3 and SMTP are never touched on these paths.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class ServiceBenchmark {
+
+    @Param({"2000"})
+    private int postCount;
+
+    private ConfigurableApplicationContext context;
+    private PostServiceImpl postService;
+    private CommentService commentService;
+
+    private Post detachedPost;
+    private Long postId;
+    private Long commentId;
+    private Long categoryId;
+    private String secondPageCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.run("benchmark");
+        postService = context.getBean(PostServiceImpl.class);
+        commentService = context.getBean(CommentService.class);
+        seed();
+
+        detachedPost = BenchmarkFixtures.post(BenchmarkFixtures.user(), BenchmarkFixtures.category());
+        CursorPage<PostSummaryDto> firstPage = postService.listOfPosts(null, null, null, null);
+        secondPageCursor = firstPage.getNextCursor();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    private void seed() {
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        PostRepository postRepository = context.getBean(PostRepository.class);
+        CommentRepository commentRepository = context.getBean(CommentRepository.class);
+
+        User user = BenchmarkFixtures.user();
+        user.setId(null);
+        user.getAddress().setId(null);
+        user = userRepository.save(user);
+
+        List<Category> categories = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Category category = BenchmarkFixtures.category();
+            category.setId(null);
+            category.setCategoryName("Category " + i);
+            categories.add(category);
+        }
+        categories = categoryRepository.saveAll(categories);
+        categoryId = categories.get(0).getId();
+
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        List<Post> posts = new ArrayList<>(postCount);
+        for (int i = 0; i < postCount; i++) {
+            Post post = BenchmarkFixtures.post(user, categories.get(i % categories.size()));
+            post.setId(null);
+            post.setTitle("Benchmark post " + i);
+            post.setUpdateAt(start.plusMinutes(i));
+            posts.add(post);
+        }
+        posts = postRepository.saveAll(posts);
+        postId = posts.get(posts.size() / 2).getId();
+
+        List<Comment> comments = new ArrayList<>();
+        for (Post post : posts.subList(0, Math.min(100, posts.size()))) {
+            for (int i = 0; i < 5; i++) {
+                Comment comment = BenchmarkFixtures.comment(post, user);
+                comment.setId(null);
+                comments.add(comment);
+            }
+        }
+        comments = commentRepository.saveAll(comments);
+        commentId = comments.get(comments.size() / 2).getId();
+    }
+
+    @Benchmark
+    public PostDetailsDto mapToDto() {
+        return postService.mapToDto(detachedPost);
+    }
+
+    @Benchmark
+    public PostDetailsDto findByPostId() {
+        return postService.findByPostId(postId);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryDto> listOfPostsFirstPage() {
+        return postService.listOfPosts(null, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryDto> listOfPostsNextPage() {
+        return postService.listOfPosts(secondPageCursor, null, null, null);
+    }
+
+    @Benchmark
+    public CursorPage<PostSummaryDto> listOfPostsByCategory() {
+        return postService.listOfPosts(null, null, categoryId, null);
+    }
+
+    @Benchmark
+    public CommentDetailsDto findByCommentId() {
+        return commentService.findByCommentId(commentId);
+    }
+}
@@ -0,0 +1,52 @@
+package com.blogapp.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String POSTS = "posts";
+    public static final String USERS = "users";
+
+    @Value("${cache.posts.max-size:10000}")
+    private long postsMaxSize;
+
+    @Value("${cache.posts.ttl-seconds:600}")
+    private long postsTtlSeconds;
+
+    @Value("${cache.users.max-size:5000}")
+    private long usersMaxSize;
+
+    @Value("${cache.users.ttl-seconds:600}")
+    private long usersTtlSeconds;
+
+    // caches are declared up front so actuator binds their hit/miss/eviction stats to /actuator/metrics/cache.*
+    @Bean
+    public CacheManager cacheManager(){
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(
+                caffeineCache(POSTS, postsMaxSize, postsTtlSeconds),
+                caffeineCache(USERS, usersMaxSize, usersTtlSeconds)
+        ));
+        return cacheManager;
+    }
+
+    private CaffeineCache caffeineCache(String name, long maxSize, long ttlSeconds){
+        return new CaffeineCache(name, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build());
+    }
+}
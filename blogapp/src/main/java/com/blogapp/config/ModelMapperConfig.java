@@ -1,13 +0,0 @@
-package com.blogapp.config;
-
-import org.modelmapper.ModelMapper;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-@Configuration
-public class ModelMapperConfig {
-    @Bean
-    public ModelMapper getMapper(){
-        return new ModelMapper();
-    }
-}
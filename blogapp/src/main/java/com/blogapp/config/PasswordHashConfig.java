@@ -0,0 +1,54 @@
+package com.blogapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class PasswordHashConfig {
+
+    // each step doubles the cost of a hash; stored hashes below this are upgraded on the next sign-in
+    @Value("${password.bcrypt.strength:10}")
+    private int strength;
+
+    // 0 means one thread per core
+    @Value("${password.hash.pool-size:0}")
+    private int poolSize;
+
+    @Value("${password.hash.queue-capacity:32}")
+    private int queueCapacity;
+
+    @Bean
+    public BCryptPasswordEncoder passwordEncoder(){
+        return new BCryptPasswordEncoder(strength);
+    }
+
+    // hashing is pure CPU: more threads than cores only adds latency, and a short queue turns a login burst
+    // into fast 429s instead of Tomcat threads all stuck behind BCrypt
+    @Bean(name = "passwordHashExecutor", destroyMethod = "shutdown")
+    public ExecutorService passwordHashExecutor(){
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+                threads,
+                threads,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+}
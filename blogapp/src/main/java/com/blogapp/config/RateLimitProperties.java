@@ -0,0 +1,162 @@
+package com.blogapp.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rate limits per endpoint, for example:
+ * <pre>
+ * rate-limit.routes[0].method=POST
+ * rate-limit.routes[0].path=/api/v1/s3/uploadFile
+ * rate-limit.routes[0].per-client.capacity=10
+ * rate-limit.routes[0].per-client.period=1m
+ * rate-limit.routes[0].total.capacity=200
+ * rate-limit.routes[0].total.period=1m
+ * </pre>
+ * Setting any route replaces the built-in list below.
+ */
+@Component
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // blank uses the socket address; set to X-Forwarded-For only when a trusted proxy sets it
+    private String clientIpHeader = "";
+
+    // proxies in front of the app that append to clientIpHeader; the client is the address the outermost one saw
+    private int trustedProxies = 1;
+
+    // buckets that have been full this long are dropped; they would behave exactly like a new one
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private List<Route> routes = new ArrayList<>(List.of(
+            new Route("POST", "/api/v1/s3/uploadFile", new Limit(10, Duration.ofMinutes(1)), new Limit(200, Duration.ofMinutes(1))),
+            new Route("POST", "/api/v1/post/addPost", new Limit(20, Duration.ofMinutes(1)), new Limit(500, Duration.ofMinutes(1))),
+            new Route("POST", "/api/auth/user/sign-up", new Limit(5, Duration.ofMinutes(10)), new Limit(100, Duration.ofMinutes(1)))
+    ));
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getClientIpHeader() {
+        return clientIpHeader;
+    }
+
+    public void setClientIpHeader(String clientIpHeader) {
+        this.clientIpHeader = clientIpHeader;
+    }
+
+    public int getTrustedProxies() {
+        return trustedProxies;
+    }
+
+    public void setTrustedProxies(int trustedProxies) {
+        this.trustedProxies = trustedProxies;
+    }
+
+    public Duration getIdleTimeout() {
+        return idleTimeout;
+    }
+
+    public void setIdleTimeout(Duration idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public List<Route> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(List<Route> routes) {
+        this.routes = routes;
+    }
+
+    public static class Route {
+        private String method;
+        private String path;
+        // either limit may be left out
+        private Limit perClient;
+        private Limit total;
+
+        public Route() {
+        }
+
+        public Route(String method, String path, Limit perClient, Limit total) {
+            this.method = method;
+            this.path = path;
+            this.perClient = perClient;
+            this.total = total;
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public void setMethod(String method) {
+            this.method = method;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public Limit getPerClient() {
+            return perClient;
+        }
+
+        public void setPerClient(Limit perClient) {
+            this.perClient = perClient;
+        }
+
+        public Limit getTotal() {
+            return total;
+        }
+
+        public void setTotal(Limit total) {
+            this.total = total;
+        }
+    }
+
+    // a burst of up to capacity requests, refilled at capacity per period
+    public static class Limit {
+        private long capacity;
+        private Duration period;
+
+        public Limit() {
+        }
+
+        public Limit(long capacity, Duration period) {
+            this.capacity = capacity;
+            this.period = period;
+        }
+
+        public long getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(long capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getPeriod() {
+            return period;
+        }
+
+        public void setPeriod(Duration period) {
+            this.period = period;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.blogapp.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class UploadExecutorConfig {
+
+    @Value("${upload.pool-size:8}")
+    private int poolSize;
+
+    @Value("${upload.queue-capacity:64}")
+    private int queueCapacity;
+
+    @Value("${import.images.pool-size:8}")
+    private int importPoolSize;
+
+    @Value("${import.images.queue-capacity:256}")
+    private int importQueueCapacity;
+
+    // bounded on both threads and queue: when S3 is slow we reject new uploads instead of piling them up
+    @Bean(name = "imageUploadExecutor", destroyMethod = "shutdown")
+    public ExecutorService imageUploadExecutor(){
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "image-upload-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+                poolSize,
+                poolSize,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    // separate from the request-facing pool so an import never starves user uploads; when it falls behind, the
+    // importing thread runs the copy itself, which slows the row stage down instead of queueing without bound
+    @Bean(name = "importImageExecutor", destroyMethod = "shutdown")
+    public ExecutorService importImageExecutor(){
+        AtomicInteger counter = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "import-image-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        return new ThreadPoolExecutor(
+                importPoolSize,
+                importPoolSize,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(importQueueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+}
@@ -0,0 +1,53 @@
+package com.blogapp.controller;
+
+import com.blogapp.payload.SuggestionDto;
+import com.blogapp.service.AutocompleteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("api/v1/autocomplete")
+public class AutocompleteController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteController.class);
+
+    private final AutocompleteService autocompleteService;
+    public AutocompleteController(AutocompleteService autocompleteService){
+        this.autocompleteService = autocompleteService;
+    }
+
+    //http://localhost:8080/api/v1/autocomplete/users?prefix={prefix}&limit={limit}
+    @GetMapping("/users")
+    public ResponseEntity<List<SuggestionDto>> suggestUsers(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ){
+        if(prefix == null || prefix.isBlank()){
+            logger.warn("User name prefix is empty!");
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        List<SuggestionDto> users = autocompleteService.suggestUsers(prefix, limit);
+        logger.debug("Getting user name suggestions: {} : {}", prefix, users.size());
+        return new ResponseEntity<>(users, HttpStatus.OK);
+    }
+
+    //http://localhost:8080/api/v1/autocomplete/categories?prefix={prefix}&limit={limit}
+    @GetMapping("/categories")
+    public ResponseEntity<List<SuggestionDto>> suggestCategories(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", required = false) Integer limit
+    ){
+        if(prefix == null || prefix.isBlank()){
+            logger.warn("Category name prefix is empty!");
+            return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
+        }
+        List<SuggestionDto> categories = autocompleteService.suggestCategories(prefix, limit);
+        logger.debug("Getting category name suggestions: {} : {}", prefix, categories.size());
+        return new ResponseEntity<>(categories, HttpStatus.OK);
+    }
+}
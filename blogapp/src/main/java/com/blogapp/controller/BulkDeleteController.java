@@ -0,0 +1,118 @@
+package com.blogapp.controller;
+
+import com.blogapp.payload.BulkDeleteResultDto;
+import com.blogapp.payload.OrphanImageReportDto;
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.security.TokenAuthenticationFilter;
+import com.blogapp.service.BulkDeleteService;
+import com.blogapp.service.OrphanImageReconciler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Admin deletes of many rows at once; the body is a JSON array of ids. Ids that do not exist are ignored.
+ * Also runs the orphan image sweep on demand.
+ */
+@RestController
+@RequestMapping("api/v1/bulk")
+public class BulkDeleteController {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeleteController.class);
+
+    private final BulkDeleteService bulkDeleteService;
+    private final OrphanImageReconciler orphanImageReconciler;
+    private final int maxIds;
+    public BulkDeleteController(
+            BulkDeleteService bulkDeleteService,
+            OrphanImageReconciler orphanImageReconciler,
+            @Value("${bulk-delete.max-ids:10000}") int maxIds
+    ){
+        this.bulkDeleteService = bulkDeleteService;
+        this.orphanImageReconciler = orphanImageReconciler;
+        this.maxIds = maxIds;
+    }
+
+    //http://localhost:8080/api/v1/bulk/posts
+    @DeleteMapping("/posts")
+    public ResponseEntity<BulkDeleteResultDto> deletePosts(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            @RequestBody List<Long> postIds
+    ){
+        return delete(user, "posts", postIds, bulkDeleteService::deletePosts);
+    }
+
+    //http://localhost:8080/api/v1/bulk/comments
+    @DeleteMapping("/comments")
+    public ResponseEntity<BulkDeleteResultDto> deleteComments(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            @RequestBody List<Long> commentIds
+    ){
+        return delete(user, "comments", commentIds, bulkDeleteService::deleteComments);
+    }
+
+    //http://localhost:8080/api/v1/bulk/users
+    @DeleteMapping("/users")
+    public ResponseEntity<BulkDeleteResultDto> deleteUsers(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            @RequestBody List<Long> userIds
+    ){
+        return delete(user, "users", userIds, bulkDeleteService::deleteUsers);
+    }
+
+    // images in the bucket that no post or user refers to; dry run by default, so a first call only reports
+    //http://localhost:8080/api/v1/bulk/orphan-images?dryRun={dryRun}
+    @DeleteMapping("/orphan-images")
+    public ResponseEntity<OrphanImageReportDto> deleteOrphanImages(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            @RequestParam(value = "dryRun", defaultValue = "true") boolean dryRun
+    ){
+        if (!user.isAdmin()) {
+            logger.warn("Rejected orphan image sweep by {}: not an admin", user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        try {
+            OrphanImageReportDto report = orphanImageReconciler.reconcile(dryRun);
+            if (report == null) {
+                return new ResponseEntity<>(HttpStatus.CONFLICT);
+            }
+            return new ResponseEntity<>(report, HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Failed! Orphan image sweep : {}", e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    private ResponseEntity<BulkDeleteResultDto> delete(AuthenticatedUser user, String what, List<Long> ids,
+                                                       Function<Set<Long>, BulkDeleteResultDto> delete) {
+        if (!user.isAdmin()) {
+            logger.warn("Rejected bulk delete of {} by {}: not an admin", what, user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        Set<Long> unique = new LinkedHashSet<>(ids);
+        unique.remove(null);
+        if (unique.isEmpty() || unique.size() > maxIds) {
+            logger.warn("Rejected bulk delete of {} {}: between 1 and {} ids are accepted", unique.size(), what, maxIds);
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            return new ResponseEntity<>(delete.apply(unique), HttpStatus.OK);
+        } catch (Exception e) {
+            logger.error("Failed! Bulk delete of {} : {}", what, e.getMessage());
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.blogapp.controller;
 
 import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.security.TokenAuthenticationFilter;
 import com.blogapp.service.CategoryService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -9,6 +12,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -24,8 +28,13 @@ public class CategoryController {
     //http://localhost:8080/api/v1/category/addCategory
     @PostMapping("/addCategory")
     public ResponseEntity<CategoryDto> addCategory(
-            @Valid @RequestBody CategoryDto categoryDto
+            @Valid @RequestBody CategoryDto categoryDto,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
+        if (!user.isAdmin()) {
+            logger.warn("Rejected category create by {}: not an admin", user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
         logger.info("Success! Entering Category object: {}", categoryDto.getCategoryName());
         CategoryDto category = null;
         try{
@@ -42,8 +51,13 @@ public class CategoryController {
     //http://localhost:8080/api/v1/category/deleteCategory/{categoryId}
     @DeleteMapping("/deleteCategory/{categoryId}")
     public ResponseEntity<String> deleteCategory(
-            @PathVariable Long categoryId
+            @PathVariable Long categoryId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
+        if (!user.isAdmin()) {
+            logger.warn("Rejected category delete by {}: not an admin", user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
         if(categoryId != null){
             logger.info("Successfully getting category id: {}",categoryId);
             String category = categoryService.deleteCategory(categoryId);
@@ -58,8 +72,13 @@ public class CategoryController {
     @PutMapping("/updateCategory/{categoryId}")
     public ResponseEntity<CategoryDto> updateCategory(
             @PathVariable Long categoryId,
-            @RequestBody CategoryDto categoryDto
+            @RequestBody CategoryDto categoryDto,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
+        if (!user.isAdmin()) {
+            logger.warn("Rejected category update by {}: not an admin", user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
         logger.info("Update category details: {}", categoryDto.getCategoryName());
         CategoryDto category = null;
         if(categoryId != null && categoryId > 0){
@@ -78,7 +97,12 @@ public class CategoryController {
 
     //http://localhost:8080/api/v1/category
     @GetMapping
-    public ResponseEntity<List<CategoryDto>> getCategorys(){
+    public ResponseEntity<List<CategoryDto>> getCategorys(WebRequest webRequest){
+        ResourceVersion version = categoryService.findCategorysVersion();
+        if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+            logger.info("Success! Categories not modified");
+            return null;
+        }
         List<CategoryDto> categorys = categoryService.listOfCategorys();
         logger.info("Getting all the category's objects: {}",categorys.size());
         return new ResponseEntity<>(categorys, HttpStatus.OK);
@@ -87,11 +111,17 @@ public class CategoryController {
     //http://localhost:8080/api/v1/category/{categoryId}
     @GetMapping("/{categoryId}")
     public ResponseEntity<CategoryDto> findByCategoryId(
-            @PathVariable Long categoryId
+            @PathVariable Long categoryId,
+            WebRequest webRequest
     ){
         CategoryDto categorys = null;
         if(categoryId != null && categoryId > 0){
             logger.info("Success! Get the category id is: {}",categoryId);
+            ResourceVersion version = categoryService.findCategoryVersion(categoryId);
+            if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+                logger.info("Success! Category not modified: {}",categoryId);
+                return null;
+            }
             categorys = categoryService.findCategorys(categoryId);
             if(categorys != null){
                 return new ResponseEntity<>(categorys, HttpStatus.OK);
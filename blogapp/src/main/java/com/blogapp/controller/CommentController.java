@@ -2,13 +2,19 @@ package com.blogapp.controller;
 
 import com.blogapp.payload.CommentDetailsDto;
 import com.blogapp.payload.CommentDto;
+import com.blogapp.payload.LikeDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.security.TokenAuthenticationFilter;
 import com.blogapp.service.CommentService;
+import com.blogapp.service.LikeService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,17 +25,25 @@ public class CommentController {
     private static final Logger logger = LoggerFactory.getLogger(CommentController.class);
 
     private CommentService commentService;
-    public CommentController(CommentService commentService){
+    private LikeService likeService;
+    public CommentController(CommentService commentService, LikeService likeService){
         this.commentService = commentService;
+        this.likeService = likeService;
     }
 
     //http://localhost:8080/api/v1/comment/addComment
     @PostMapping("/addComment")
     public ResponseEntity<CommentDetailsDto> addComment(
-            @Valid @RequestBody CommentDto commentDto
+            @Valid @RequestBody CommentDto commentDto,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
         logger.info("Success! Entering Comment object: {}", commentDto.getComment());
         CommentDetailsDto comment = null;
+        if (commentDto.getUserId() != null && !commentDto.getUserId().equals(user.getUserId())) {
+            logger.warn("Rejected comment by {} on behalf of user id: {}", user.getUserName(), commentDto.getUserId());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        commentDto.setUserId(user.getUserId());
         try {
             comment = commentService.addComment(commentDto);
             if (comment != null){
@@ -44,10 +58,16 @@ public class CommentController {
     //http://localhost:8080/api/v1/comment/deleteComment/{commentId}
     @DeleteMapping("/deleteComment/{commentId}")
     public ResponseEntity<String> deleteComment(
-            @PathVariable Long commentId
+            @PathVariable Long commentId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
         if(commentId != null){
             logger.info("Successfully getting comment id: {}",commentId);
+            Long authorId = commentService.findCommentAuthorId(commentId);
+            if(authorId != null && !user.mayChange(authorId)){
+                logger.warn("Rejected delete of comment id: {} by {}: not the author", commentId, user.getUserName());
+                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+            }
             String deleteComment = commentService.deleteComment(commentId);
             return new ResponseEntity<>(deleteComment, HttpStatus.OK);
         }else {
@@ -61,12 +81,18 @@ public class CommentController {
     @PutMapping("/updateComment/{commentId}")
     public ResponseEntity<CommentDetailsDto> updateComment(
             @PathVariable Long commentId,
-            @RequestBody CommentDto commentDto
+            @RequestBody CommentDto commentDto,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
         logger.info("Update Comment details: {}", commentDto.getId());
         CommentDetailsDto updateComment = null;
         if(commentId != null){
             logger.info("Success! Updated Category id is: {}",commentId);
+            Long authorId = commentService.findCommentAuthorId(commentId);
+            if(authorId != null && !user.mayChange(authorId)){
+                logger.warn("Rejected update of comment id: {} by {}: not the author", commentId, user.getUserName());
+                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+            }
             updateComment = commentService.updateComment(commentId,commentDto);
             if(updateComment != null){
                 return new ResponseEntity<>(updateComment, HttpStatus.OK);
@@ -81,11 +107,17 @@ public class CommentController {
     //http://localhost:8080/api/v1/comment/{commentId}
     @GetMapping("/{commentId}")
     public ResponseEntity<CommentDetailsDto> findByCommentId(
-            @PathVariable Long commentId
+            @PathVariable Long commentId,
+            WebRequest webRequest
     ){
         CommentDetailsDto comment = null;
         if(commentId != null) {
             logger.info("Success! Get the comment id is: {}", commentId);
+            ResourceVersion version = commentService.findCommentVersion(commentId);
+            if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+                logger.info("Success! Comment not modified: {}", commentId);
+                return null;
+            }
             comment = commentService.findByCommentId(commentId);
             if(comment != null){
                 return new ResponseEntity<>(comment, HttpStatus.OK);
@@ -98,11 +130,61 @@ public class CommentController {
         }
     }
 
+    //http://localhost:8080/api/v1/comment/{commentId}/thread?depth={depth}
+    @GetMapping("/{commentId}/thread")
+    public ResponseEntity<CommentDetailsDto> findThread(
+            @PathVariable Long commentId,
+            @RequestParam(value = "depth", required = false) Integer depth
+    ){
+        CommentDetailsDto thread = commentService.findThread(commentId, depth);
+        if(thread != null){
+            logger.info("Success! Get the thread of comment id: {}", commentId);
+            return new ResponseEntity<>(thread, HttpStatus.OK);
+        }
+        logger.warn("Comment thread not found! By Id: {}", commentId);
+        return new ResponseEntity<>(thread, HttpStatus.BAD_REQUEST);
+    }
+
+    //http://localhost:8080/api/v1/comment/{commentId}/like
+    @PostMapping("/{commentId}/like")
+    public ResponseEntity<LikeDto> likeComment(
+            @PathVariable Long commentId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
+    ){
+        LikeDto like = likeService.likeComment(commentId, user.getUserId());
+        if(like != null){
+            logger.info("Success! Comment liked: {} : {}", commentId, like.getLikes());
+            return new ResponseEntity<>(like, HttpStatus.OK);
+        }
+        logger.warn("Comment was not liked! By Id: {}", commentId);
+        return new ResponseEntity<>(like, HttpStatus.BAD_REQUEST);
+    }
+
+    //http://localhost:8080/api/v1/comment/{commentId}/like
+    @DeleteMapping("/{commentId}/like")
+    public ResponseEntity<LikeDto> unlikeComment(
+            @PathVariable Long commentId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
+    ){
+        LikeDto like = likeService.unlikeComment(commentId, user.getUserId());
+        if(like != null){
+            logger.info("Success! Comment unliked: {} : {}", commentId, like.getLikes());
+            return new ResponseEntity<>(like, HttpStatus.OK);
+        }
+        logger.warn("Comment was not unliked! By Id: {}", commentId);
+        return new ResponseEntity<>(like, HttpStatus.BAD_REQUEST);
+    }
+
     //http://localhost:8080/api/v1/comment
     @GetMapping
-    public ResponseEntity<List<CommentDetailsDto>> getComments(){
+    public ResponseEntity<List<CommentDetailsDto>> getComments(WebRequest webRequest){
         List<CommentDetailsDto> comments = null;
         try {
+            ResourceVersion version = commentService.findCommentsVersion();
+            if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+                logger.info("Success! Comments not modified");
+                return null;
+            }
             comments = commentService.listOfComments();
             if (!comments.isEmpty()){
                 logger.info("Getting all the comments objects: {}",comments);
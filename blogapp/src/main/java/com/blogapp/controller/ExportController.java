@@ -0,0 +1,94 @@
+package com.blogapp.controller;
+
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.security.TokenAuthenticationFilter;
+import com.blogapp.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Full-table NDJSON exports for the nightly analytics job, which signs in as an admin. The body is written on the request thread as rows
+ * come off the cursor, so there is no async timeout to outlast and nothing is buffered beyond the socket.
+ */
+@RestController
+@RequestMapping("api/v1/export")
+public class ExportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportController.class);
+
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final ExportService exportService;
+    public ExportController(ExportService exportService){
+        this.exportService = exportService;
+    }
+
+    //http://localhost:8080/api/v1/export/posts?gzip={gzip}
+    @GetMapping("/posts")
+    public void exportPosts(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!user.isAdmin()) {
+            logger.warn("Rejected posts export by {}: not an admin", user.getUserName());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        logger.info("Starting posts export, gzip: {}", gzip);
+        OutputStream out = open(response, "posts", gzip);
+        exportService.exportPosts(out);
+        finish(out);
+    }
+
+    //http://localhost:8080/api/v1/export/comments?gzip={gzip}
+    @GetMapping("/comments")
+    public void exportComments(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip,
+            HttpServletResponse response
+    ) throws IOException {
+        if (!user.isAdmin()) {
+            logger.warn("Rejected comments export by {}: not an admin", user.getUserName());
+            response.setStatus(HttpStatus.FORBIDDEN.value());
+            return;
+        }
+        logger.info("Starting comments export, gzip: {}", gzip);
+        OutputStream out = open(response, "comments", gzip);
+        exportService.exportComments(out);
+        finish(out);
+    }
+
+    // gzip is a file to download rather than a Content-Encoding, so clients that do not decompress still get it intact
+    private static OutputStream open(HttpServletResponse response, String name, boolean gzip) throws IOException {
+        if (gzip) {
+            response.setContentType("application/gzip");
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".ndjson.gz\"");
+            return new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER);
+        }
+        response.setContentType(NDJSON);
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + ".ndjson\"");
+        return response.getOutputStream();
+    }
+
+    private static void finish(OutputStream out) throws IOException {
+        if (out instanceof GZIPOutputStream gzip) {
+            gzip.finish();
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,48 @@
+package com.blogapp.controller;
+
+import com.blogapp.payload.ImportResultDto;
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.security.TokenAuthenticationFilter;
+import com.blogapp.service.PostImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+/**
+ * Bulk post import for admins. The body is read as a stream straight off the request, so a file of any size
+ * can be sent without being buffered; large migrations can also use {@code --import-posts} on startup.
+ */
+@RestController
+@RequestMapping("api/v1/import")
+public class ImportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImportController.class);
+
+    private final PostImportService postImportService;
+    public ImportController(PostImportService postImportService){
+        this.postImportService = postImportService;
+    }
+
+    //http://localhost:8080/api/v1/import/posts
+    @PostMapping(value = "/posts", consumes = {"application/x-ndjson", "text/csv"})
+    public ResponseEntity<ImportResultDto> importPosts(
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user,
+            HttpServletRequest request
+    ) throws IOException {
+        if (!user.isAdmin()) {
+            logger.warn("Rejected post import by {}: not an admin", user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        String format = request.getContentType().startsWith("text/csv") ? PostImportService.CSV : PostImportService.NDJSON;
+        ImportResultDto result = postImportService.importPosts(request.getInputStream(), format);
+        return new ResponseEntity<>(result, HttpStatus.OK);
+    }
+}
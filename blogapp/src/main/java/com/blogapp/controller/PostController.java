@@ -1,8 +1,20 @@
 package com.blogapp.controller;
 
 import com.blogapp.exception.ImagesLimitExceedException;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.LikeDto;
 import com.blogapp.payload.PostDetailsDto;
 import com.blogapp.payload.PostDto;
+import com.blogapp.payload.PostSearchResultDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.payload.PostViewsDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TrendingPostDto;
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.security.TokenAuthenticationFilter;
+import com.blogapp.service.CommentService;
+import com.blogapp.service.LikeService;
 import com.blogapp.service.PostService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
@@ -10,6 +22,7 @@ import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -21,22 +34,32 @@ public class PostController {
     private static final Logger logger = LoggerFactory.getLogger(PostController.class);
 
     private final PostService postService;
-    public PostController(PostService postService){
+    private final CommentService commentService;
+    private final LikeService likeService;
+    public PostController(PostService postService, CommentService commentService, LikeService likeService){
         this.postService = postService;
+        this.commentService = commentService;
+        this.likeService = likeService;
     }
 
     //http://localhost:8080/api/v1/post/addPost
     @PostMapping("/addPost")
     public ResponseEntity<PostDetailsDto> createPost(
             @Valid @RequestPart("postDto") PostDto postDto,
-            @RequestPart("file") List<MultipartFile> postImages
+            @RequestPart("file") List<MultipartFile> postImages,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
         logger.info("Entering post object: {}", postDto.getId());
         PostDetailsDto post = null;
+        if (postDto.getUserId() != null && !postDto.getUserId().equals(user.getUserId())) {
+            logger.warn("Rejected post by {} on behalf of user id: {}", user.getUserName(), postDto.getUserId());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        postDto.setUserId(user.getUserId());
         if(!postImages.isEmpty() && !postImages.get(0).getOriginalFilename().isBlank()) {
-            logger.info("Success! images is coming on the URL! {}",getPosts());
+            logger.info("Success! images is coming on the URL! {}",postImages.size());
             if (!postImages.isEmpty() && postImages.size() <= 3) {
-                logger.info("Successfully retrieved post images: {}",postImages);
+                logger.info("Successfully retrieved post images: {}",postImages.size());
                 post = postService.addPost(postDto, postImages);
                 if (post != null){
                     return new ResponseEntity<>(post, HttpStatus.CREATED);
@@ -56,10 +79,16 @@ public class PostController {
     //http://localhost:8080/api/v1/post/deletePost/{postId}
     @DeleteMapping("/deletePost/{postId}")
     public ResponseEntity<String> deletePost(
-            @PathVariable Long postId
+            @PathVariable Long postId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
         if(postId != null){
             logger.info("Successfully getting post id: {}",postId);
+            Long authorId = postService.findPostAuthorId(postId);
+            if(authorId != null && !user.mayChange(authorId)){
+                logger.warn("Rejected delete of post id: {} by {}: not the author", postId, user.getUserName());
+                return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+            }
             String deletePost = postService.deletePostDetails(postId);
             return new ResponseEntity<>(deletePost, HttpStatus.OK);
         }else{
@@ -73,10 +102,18 @@ public class PostController {
     public ResponseEntity<PostDetailsDto> updatePost(
             @PathVariable Long postId,
             @RequestPart("postDto") PostDto postDto,
-            @RequestPart("file") List<MultipartFile> postImages
+            @RequestPart("file") List<MultipartFile> postImages,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
     ){
         logger.info("Update post object: {}", postDto.getId());
         PostDetailsDto updatePost = null;
+        Long authorId = postService.findPostAuthorId(postId);
+        if(authorId != null && !user.mayChange(authorId)){
+            logger.warn("Rejected update of post id: {} by {}: not the author", postId, user.getUserName());
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        // an edit, an admin's included, keeps the post's author
+        postDto.setUserId(authorId);
 
         if(!postImages.isEmpty() && !postImages.get(0).getOriginalFilename().isBlank()) {
             logger.info("Success! images is coming on this URL!");
@@ -102,11 +139,20 @@ public class PostController {
     //http://localhost:8080/api/v1/post/{postId}
     @GetMapping("/{postId}")
     public ResponseEntity<PostDetailsDto> findByPostId(
-            @PathVariable Long postId
+            @PathVariable Long postId,
+            WebRequest webRequest
     ){
         PostDetailsDto post = null;
         if(postId != null){
             logger.info("Success! Get the post id is: {}",postId);
+            // version first: if the post changes in between, the body is newer than its ETag and the next
+            // revalidation just gets a fresh copy, never the other way round
+            ResourceVersion version = postService.findPostVersion(postId);
+            if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+                logger.info("Success! Post not modified: {}", postId);
+                postService.recordView(postId);
+                return null;
+            }
             post = postService.findByPostId(postId);
             if(post != null){
                 return new ResponseEntity<>(post, HttpStatus.OK);
@@ -119,21 +165,135 @@ public class PostController {
         }
     }
 
-    //http://localhost:8080/api/v1/post
+    //http://localhost:8080/api/v1/post/{postId}/views
+    @GetMapping("/{postId}/views")
+    public ResponseEntity<PostViewsDto> getPostViews(
+            @PathVariable Long postId
+    ){
+        PostViewsDto views = postService.getPostViews(postId);
+        if(views != null){
+            logger.info("Success! Get the views of post id: {}", postId);
+            return new ResponseEntity<>(views, HttpStatus.OK);
+        }
+        logger.warn("Post views not found! By Id: {}", postId);
+        return new ResponseEntity<>(views, HttpStatus.BAD_REQUEST);
+    }
+
+    //http://localhost:8080/api/v1/post/{postId}/like
+    @PostMapping("/{postId}/like")
+    public ResponseEntity<LikeDto> likePost(
+            @PathVariable Long postId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
+    ){
+        LikeDto like = likeService.likePost(postId, user.getUserId());
+        if(like != null){
+            logger.info("Success! Post liked: {} : {}", postId, like.getLikes());
+            return new ResponseEntity<>(like, HttpStatus.OK);
+        }
+        logger.warn("Post was not liked! By Id: {}", postId);
+        return new ResponseEntity<>(like, HttpStatus.BAD_REQUEST);
+    }
+
+    //http://localhost:8080/api/v1/post/{postId}/like
+    @DeleteMapping("/{postId}/like")
+    public ResponseEntity<LikeDto> unlikePost(
+            @PathVariable Long postId,
+            @RequestAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER) AuthenticatedUser user
+    ){
+        LikeDto like = likeService.unlikePost(postId, user.getUserId());
+        if(like != null){
+            logger.info("Success! Post unliked: {} : {}", postId, like.getLikes());
+            return new ResponseEntity<>(like, HttpStatus.OK);
+        }
+        logger.warn("Post was not unliked! By Id: {}", postId);
+        return new ResponseEntity<>(like, HttpStatus.BAD_REQUEST);
+    }
+
+    //http://localhost:8080/api/v1/post/trending?size={size}
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingPostDto>> getTrendingPosts(
+            @RequestParam(value = "size", required = false) Integer size
+    ){
+        List<TrendingPostDto> posts = postService.listOfTrendingPosts(size);
+        logger.info("Getting trending posts: {}", posts.size());
+        return new ResponseEntity<>(posts, HttpStatus.OK);
+    }
+
+    //http://localhost:8080/api/v1/post/search?q={query}&page={page}&size={size}
+    @GetMapping("/search")
+    public ResponseEntity<PostSearchResultDto> searchPosts(
+            @RequestParam("q") String query,
+            @RequestParam(value = "page", required = false) Integer page,
+            @RequestParam(value = "size", required = false) Integer size
+    ){
+        PostSearchResultDto result = postService.searchPosts(query, page, size);
+        if(result != null){
+            logger.info("Getting search results for query: {} : {}", query, result.getItems().size());
+            return new ResponseEntity<>(result, HttpStatus.OK);
+        }
+        logger.warn("Posts search failed! For query: {}", query);
+        return new ResponseEntity<>(result, HttpStatus.BAD_REQUEST);
+    }
+
+    //http://localhost:8080/api/v1/post?cursor={cursor}&size={size}&categoryId={categoryId}&userId={userId}
     @GetMapping
-    public ResponseEntity<List<PostDetailsDto>> getPosts(){
-        List<PostDetailsDto> posts = null;
-        try{
-            posts = postService.listOfPosts();
-            if(posts!=null){
-                logger.info("Getting all the posts object: {}",posts.size());
-                return new ResponseEntity<>(posts, HttpStatus.OK);
+    public ResponseEntity<CursorPage<PostSummaryDto>> getPosts(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "categoryId", required = false) Long categoryId,
+            @RequestParam(value = "userId", required = false) Long userId,
+            WebRequest webRequest
+    ){
+        CursorPage<PostSummaryDto> posts = postService.listOfPosts(cursor, size, categoryId, userId);
+        if(posts != null){
+            if(webRequest.checkNotModified(postsVersion(posts).getETag())){
+                logger.info("Success! Page of posts not modified");
+                return null;
             }
-            logger.warn("Posts not found!");
-        }catch (Exception e){
-            logger.error("Post's was not founded! : {} : {}",e.getMessage(),e.getStackTrace());
+            logger.info("Getting page of posts object: {}", posts.getItems().size());
+            return new ResponseEntity<>(posts, HttpStatus.OK);
         }
+        logger.warn("Posts not found!");
         return new ResponseEntity<>(posts, HttpStatus.BAD_REQUEST);
     }
 
+    //http://localhost:8080/api/v1/post/{postId}/comments?cursor={cursor}&size={size}
+    @GetMapping("/{postId}/comments")
+    public ResponseEntity<CursorPage<CommentDetailsDto>> getPostComments(
+            @PathVariable Long postId,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size,
+            WebRequest webRequest
+    ){
+        CursorPage<CommentDetailsDto> comments = commentService.listOfCommentsByPost(postId, cursor, size);
+        if(comments != null){
+            if(webRequest.checkNotModified(commentsVersion(comments).getETag())){
+                logger.info("Success! Page of comments not modified for post: {}", postId);
+                return null;
+            }
+            logger.info("Getting page of comments for post: {} : {}", postId, comments.getItems().size());
+            return new ResponseEntity<>(comments, HttpStatus.OK);
+        }
+        logger.warn("Comments not found! By post Id: {}", postId);
+        return new ResponseEntity<>(comments, HttpStatus.BAD_REQUEST);
+    }
+
+    // a page is already one bounded projection query, so its validator is folded from the rows it returned;
+    // a match saves serializing and sending the page, not the query
+    private static ResourceVersion postsVersion(CursorPage<PostSummaryDto> page) {
+        ResourceVersion.Builder version = ResourceVersion.weak().add(page.getNextCursor());
+        for (PostSummaryDto post : page.getItems()) {
+            version.add(post.getId()).add(post.getTitle()).add(post.getUserName()).add(post.getCategoryName())
+                    .add(post.getCommentCount()).touch(post.getUpdateAt());
+        }
+        return version.build();
+    }
+
+    private static ResourceVersion commentsVersion(CursorPage<CommentDetailsDto> page) {
+        ResourceVersion.Builder version = ResourceVersion.weak().add(page.getNextCursor());
+        for (CommentDetailsDto comment : page.getItems()) {
+            version.add(comment.getId()).add(comment.getComment()).add(comment.getUserName()).touch(comment.getUpdateAt());
+        }
+        return version.build();
+    }
 }
@@ -1,12 +1,12 @@
 package com.blogapp.controller;
 
+import com.blogapp.payload.CursorPage;
 import com.blogapp.service.ImageUploader;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
-import java.util.List;
 
 import java.awt.*;
 
@@ -27,10 +27,13 @@ public class S3Controller {
         return new ResponseEntity<>(fileName, HttpStatus.OK);
     }
 
-    //http://localhost:8080/api/v1/s3
+    //http://localhost:8080/api/v1/s3?cursor={cursor}&size={size}
     @GetMapping
-    public ResponseEntity<List<String>> getListOfFiles(){
-        List<String> allFiles = imageUploader.allFiles();
+    public ResponseEntity<CursorPage<String>> getListOfFiles(
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", required = false) Integer size
+    ){
+        CursorPage<String> allFiles = imageUploader.allFiles(cursor, size);
         return new ResponseEntity<>(allFiles, HttpStatus.OK);
     }
 
@@ -2,15 +2,20 @@ package com.blogapp.controller;
 
 import com.blogapp.exception.ImageUploadException;
 import com.blogapp.payload.LoginDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TokenDto;
 import com.blogapp.payload.UserDetailsDto;
 import com.blogapp.payload.UserDto;
+import com.blogapp.security.TokenAuthenticationFilter;
 import com.blogapp.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
@@ -71,11 +76,23 @@ public class UserController {
 
     //http://localhost:8080/api/auth/user/sign-in
     @PostMapping("/sign-in")
-    public ResponseEntity<String> userAuthentication(
+    public ResponseEntity<TokenDto> userAuthentication(
             @RequestBody LoginDto LoginDto
     ){
-        String userVerify = userService.userAuthentication(LoginDto);
-        return new ResponseEntity<>(userVerify, HttpStatus.OK);
+        TokenDto token = userService.userAuthentication(LoginDto);
+        if(token != null){
+            return new ResponseEntity<>(token, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(token, HttpStatus.UNAUTHORIZED);
+    }
+
+    //http://localhost:8080/api/auth/user/sign-out
+    @PostMapping("/sign-out")
+    public ResponseEntity<String> signOut(
+            HttpServletRequest request
+    ){
+        String signOut = userService.signOut(TokenAuthenticationFilter.bearerToken(request));
+        return new ResponseEntity<>(signOut, HttpStatus.OK);
     }
 
     //http://localhost:8080/api/auth/user/deleteUser/{userId}
@@ -122,11 +139,17 @@ public class UserController {
     //http://localhost:8080/api/auth/user/{userId}
     @GetMapping("/{userId}")
     public ResponseEntity<UserDetailsDto> getUserById(
-            @PathVariable Long userId
+            @PathVariable Long userId,
+            WebRequest webRequest
     ){
         UserDetailsDto user = null;
         if(userId != null){
             logger.info("Success! Get the user id is: {}",userId);
+            ResourceVersion version = userService.findUserVersion(userId);
+            if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+                logger.info("Success! User not modified: {}",userId);
+                return null;
+            }
             user = userService.getUserById(userId);
             if (user != null){
                 return new ResponseEntity<>(user,HttpStatus.OK);
@@ -141,9 +164,14 @@ public class UserController {
 
     //http://localhost:8080/api/auth/user
     @GetMapping
-    public ResponseEntity<List<UserDetailsDto>> getUsers(){
+    public ResponseEntity<List<UserDetailsDto>> getUsers(WebRequest webRequest){
         List<UserDetailsDto> listOfUsers = null;
         try{
+            ResourceVersion version = userService.findUsersVersion();
+            if(version != null && webRequest.checkNotModified(version.getETag(), version.getLastModifiedMillis())){
+                logger.info("Success! Users not modified");
+                return null;
+            }
             listOfUsers = userService.listOfUsers();
             if(listOfUsers != null){
                 logger.info("Getting all the users object: {}",listOfUsers.size());
@@ -1,9 +1,11 @@
 package com.blogapp.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 @Entity
 @Table(name = "address")
+@BatchSize(size = 50)
 public class Address {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,11 +1,13 @@
 package com.blogapp.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
 
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "category")
+@BatchSize(size = 50)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,11 +1,17 @@
 package com.blogapp.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "comment")
+@Table(name = "comment", indexes = {
+        @Index(name = "idx_comment_post_create_at_id", columnList = "post_id, create_at, id"),
+        @Index(name = "idx_comment_path", columnList = "path")
+})
+@BatchSize(size = 50)
 public class Comment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,14 +27,31 @@ public class Comment {
     @Column(name = "update_at", nullable = false)
     private LocalDateTime updateAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "post_id")
     private Post post;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
+    // null for a top-level comment; a plain column, the tree itself lives in path
+    @Column(name = "parent_id")
+    private Long parentId;
+
+    // materialized path of zero-padded ids from the thread root down to this comment, e.g. 000000000007/000000000042/
+    @Column(name = "path", length = 760)
+    private String path;
+
+    @ColumnDefault("0")
+    @Column(name = "depth", nullable = false)
+    private int depth;
+
+    // advanced in batches by LikeCounter, never by an entity save
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount;
+
     public Long getId() {
         return id;
     }
@@ -76,4 +99,36 @@ public class Comment {
     public void setUser(User user) {
         this.user = user;
     }
-}
\ No newline at end of file
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
+}
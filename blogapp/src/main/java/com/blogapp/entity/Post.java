@@ -5,6 +5,8 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.persistence.*;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
@@ -13,7 +15,12 @@ import java.util.List;
 
 
 @Entity
-@Table(name = "post")
+@Table(name = "post", indexes = {
+        @Index(name = "idx_post_update_at_id", columnList = "update_at, id"),
+        @Index(name = "idx_post_category_update_at_id", columnList = "category_id, update_at, id"),
+        @Index(name = "idx_post_user_update_at_id", columnList = "user_id, update_at, id")
+})
+@BatchSize(size = 50)
 public class Post {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -35,11 +42,26 @@ public class Post {
     @Column(name = "post_images_path",length = 4000, nullable = false)
     private List<String> postImagesPath;
 
-    @ManyToOne
+    // maintained only by the increment/decrement queries in PostRepository, never by an entity save
+    @ColumnDefault("0")
+    @Column(name = "comment_count", nullable = false, updatable = false)
+    private long commentCount;
+
+    // advanced in batches by PostViewCounter, never by an entity save
+    @ColumnDefault("0")
+    @Column(name = "view_count", nullable = false, updatable = false)
+    private long viewCount;
+
+    // advanced in batches by LikeCounter, never by an entity save
+    @ColumnDefault("0")
+    @Column(name = "like_count", nullable = false, updatable = false)
+    private long likeCount;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id")
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id")
     private Category category;
 
@@ -106,4 +128,28 @@ public class Post {
     public void setPostImagesPath(List<String> postImagesPath) {
         this.postImagesPath = postImagesPath;
     }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public long getViewCount() {
+        return viewCount;
+    }
+
+    public void setViewCount(long viewCount) {
+        this.viewCount = viewCount;
+    }
+
+    public long getLikeCount() {
+        return likeCount;
+    }
+
+    public void setLikeCount(long likeCount) {
+        this.likeCount = likeCount;
+    }
 }
\ No newline at end of file
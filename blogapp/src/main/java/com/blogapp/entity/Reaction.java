@@ -0,0 +1,81 @@
+package com.blogapp.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One like by one user on one post or comment. The unique key makes like/unlike idempotent: a second
+ * like fails the insert, a second unlike deletes nothing. Rows are written through JDBC by LikeServiceImpl.
+ */
+@Entity
+@Table(name = "reaction", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_reaction_user_target", columnNames = {"user_id", "target_type", "target_id"})
+}, indexes = {
+        @Index(name = "idx_reaction_target", columnList = "target_type, target_id")
+})
+public class Reaction {
+
+    public enum TargetType {
+        POST,
+        COMMENT
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "id", nullable = false)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "target_type", nullable = false, length = 20)
+    private TargetType targetType;
+
+    @Column(name = "target_id", nullable = false)
+    private Long targetId;
+
+    @Column(name = "create_at", nullable = false)
+    private LocalDateTime createAt;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public TargetType getTargetType() {
+        return targetType;
+    }
+
+    public void setTargetType(TargetType targetType) {
+        this.targetType = targetType;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public LocalDateTime getCreateAt() {
+        return createAt;
+    }
+
+    public void setCreateAt(LocalDateTime createAt) {
+        this.createAt = createAt;
+    }
+}
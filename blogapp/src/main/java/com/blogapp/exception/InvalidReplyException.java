@@ -0,0 +1,7 @@
+package com.blogapp.exception;
+
+public class InvalidReplyException extends RuntimeException {
+    public InvalidReplyException(String message) {
+        super(message);
+    }
+}
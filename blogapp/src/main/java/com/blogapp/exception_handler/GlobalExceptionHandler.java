@@ -4,6 +4,7 @@ import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import com.blogapp.payload.ErrorDetails;
 import com.blogapp.payload.ValidationError;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -134,6 +135,61 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(getDetails, HttpStatus.INTERNAL_SERVER_ERROR);
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidCursorException(
+            InvalidCursorException e,
+            WebRequest request
+    ){
+        ErrorDetails getDetails = new ErrorDetails(
+                new Date(),
+                e.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(getDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidReplyException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidReplyException(
+            InvalidReplyException e,
+            WebRequest request
+    ){
+        ErrorDetails getDetails = new ErrorDetails(
+                new Date(),
+                e.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(getDetails, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidTokenException.class)
+    public ResponseEntity<ErrorDetails> handleInvalidTokenException(
+            InvalidTokenException e,
+            WebRequest request
+    ){
+        ErrorDetails getDetails = new ErrorDetails(
+                new Date(),
+                e.getMessage(),
+                request.getDescription(false)
+        );
+        return new ResponseEntity<>(getDetails, HttpStatus.UNAUTHORIZED);
+    }
+
+    // the work is short-lived CPU load, so a retry a second later usually gets through
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorDetails> handleTooManyRequestsException(
+            TooManyRequestsException e,
+            WebRequest request
+    ){
+        ErrorDetails getDetails = new ErrorDetails(
+                new Date(),
+                e.getMessage(),
+                request.getDescription(false)
+        );
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(getDetails);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorDetails> handleGlobalException(
             Exception e,
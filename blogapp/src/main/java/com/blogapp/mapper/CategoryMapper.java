@@ -0,0 +1,15 @@
+package com.blogapp.mapper;
+
+import com.blogapp.entity.Category;
+import com.blogapp.payload.CategoryDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface CategoryMapper {
+
+    CategoryDto toDto(Category category);
+
+    @Mapping(target = "id", ignore = true)
+    Category toEntity(CategoryDto categoryDto);
+}
@@ -0,0 +1,32 @@
+package com.blogapp.mapper;
+
+import com.blogapp.entity.Comment;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.CommentDto;
+import com.blogapp.payload.CommentExportDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface CommentMapper {
+
+    @Mapping(target = "postId", source = "post.id")
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "userName", source = "user.userName")
+    @Mapping(target = "replies", ignore = true)
+    CommentDetailsDto toDetailsDto(Comment comment);
+
+    @Mapping(target = "postId", source = "post.id")
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "userName", source = "user.userName")
+    CommentExportDto toExportDto(Comment comment);
+
+    // post and user are resolved by the service from postId/userId
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "post", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "path", ignore = true)
+    @Mapping(target = "depth", ignore = true)
+    @Mapping(target = "likeCount", ignore = true)
+    Comment toEntity(CommentDto commentDto);
+}
@@ -0,0 +1,33 @@
+package com.blogapp.mapper;
+
+import com.blogapp.entity.Post;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostDto;
+import com.blogapp.payload.PostExportDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface PostMapper {
+
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "userName", source = "user.userName")
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.categoryName")
+    PostDetailsDto toDetailsDto(Post post);
+
+    @Mapping(target = "userId", source = "user.id")
+    @Mapping(target = "userName", source = "user.userName")
+    @Mapping(target = "categoryId", source = "category.id")
+    @Mapping(target = "categoryName", source = "category.categoryName")
+    PostExportDto toExportDto(Post post);
+
+    // user and category are resolved by the service from userId/categoryId
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "user", ignore = true)
+    @Mapping(target = "category", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
+    @Mapping(target = "viewCount", ignore = true)
+    @Mapping(target = "likeCount", ignore = true)
+    Post toEntity(PostDto postDto);
+}
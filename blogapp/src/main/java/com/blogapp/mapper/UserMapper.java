@@ -0,0 +1,28 @@
+package com.blogapp.mapper;
+
+import com.blogapp.entity.Address;
+import com.blogapp.entity.User;
+import com.blogapp.payload.AddressDto;
+import com.blogapp.payload.UserDetailsDto;
+import com.blogapp.payload.UserDto;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+
+@Mapper(componentModel = "spring")
+public interface UserMapper {
+
+    UserDetailsDto toDetailsDto(User user);
+
+    // the address is copied separately so a new row is always written
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "address", ignore = true)
+    User toEntity(UserDto userDto);
+
+    @Mapping(target = "id", ignore = true)
+    Address copyAddress(Address address);
+
+    @Mapping(target = "id", ignore = true)
+    Address toEntity(AddressDto addressDto);
+
+    AddressDto toDto(Address address);
+}
@@ -0,0 +1,61 @@
+package com.blogapp.payload;
+
+// rows removed by one bulk delete, including the comments and posts that went with their user or post
+public class BulkDeleteResultDto {
+
+    private long users;
+    private long posts;
+    private long comments;
+    private long reactions;
+    private long images;
+    private boolean imagesDeleted = true;
+
+    public long getUsers() {
+        return users;
+    }
+
+    public void setUsers(long users) {
+        this.users = users;
+    }
+
+    public long getPosts() {
+        return posts;
+    }
+
+    public void setPosts(long posts) {
+        this.posts = posts;
+    }
+
+    public long getComments() {
+        return comments;
+    }
+
+    public void setComments(long comments) {
+        this.comments = comments;
+    }
+
+    public long getReactions() {
+        return reactions;
+    }
+
+    public void setReactions(long reactions) {
+        this.reactions = reactions;
+    }
+
+    public long getImages() {
+        return images;
+    }
+
+    public void setImages(long images) {
+        this.images = images;
+    }
+
+    // false when some image could not be removed from the bucket; the rows are gone either way
+    public boolean isImagesDeleted() {
+        return imagesDeleted;
+    }
+
+    public void setImagesDeleted(boolean imagesDeleted) {
+        this.imagesDeleted = imagesDeleted;
+    }
+}
@@ -1,9 +1,9 @@
 package com.blogapp.payload;
 
-import com.blogapp.entity.Post;
-import com.blogapp.entity.User;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class CommentDetailsDto {
     private Long id;
@@ -11,8 +11,33 @@ public class CommentDetailsDto {
     private LocalDateTime createAt;
     private LocalDateTime updateAt;
 
-    private Post post;
-    private User user;
+    private Long postId;
+    private Long userId;
+    private String userName;
+
+    private Long parentId;
+    private int depth;
+
+    // filled only when a thread is loaded
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<CommentDetailsDto> replies;
+
+    public CommentDetailsDto() {
+    }
+
+    // used by the JPQL constructor projection in CommentRepository
+    public CommentDetailsDto(Long id, String comment, LocalDateTime createAt, LocalDateTime updateAt,
+                             Long postId, Long userId, String userName, Long parentId, int depth) {
+        this.id = id;
+        this.comment = comment;
+        this.createAt = createAt;
+        this.updateAt = updateAt;
+        this.postId = postId;
+        this.userId = userId;
+        this.userName = userName;
+        this.parentId = parentId;
+        this.depth = depth;
+    }
 
     public Long getId() {
         return id;
@@ -46,19 +71,51 @@ public class CommentDetailsDto {
         this.updateAt = updateAt;
     }
 
-    public Post getPost() {
-        return post;
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
+
+    public int getDepth() {
+        return depth;
     }
 
-    public void setPost(Post post) {
-        this.post = post;
+    public void setDepth(int depth) {
+        this.depth = depth;
     }
 
-    public User getUser() {
-        return user;
+    public List<CommentDetailsDto> getReplies() {
+        return replies;
     }
 
-    public void setUser(User user) {
-        this.user = user;
+    public void setReplies(List<CommentDetailsDto> replies) {
+        this.replies = replies;
     }
 }
@@ -18,9 +18,12 @@ public class CommentDto {
     @NotNull(message = "Post ID is required")
     private Long postId;
 
-    @NotNull(message = "User ID is required")
+    // the author is the caller named by the token; a value sent here has to be that same user
     private Long userId;
 
+    // set when this comment is a reply
+    private Long parentId;
+
     public Long getId() {
         return id;
     }
@@ -68,4 +71,12 @@ public class CommentDto {
     public void setUserId(Long userId) {
         this.userId = userId;
     }
+
+    public Long getParentId() {
+        return parentId;
+    }
+
+    public void setParentId(Long parentId) {
+        this.parentId = parentId;
+    }
 }
@@ -0,0 +1,54 @@
+package com.blogapp.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// images are copied after the rows are in, so only the number handed to that stage is known here
+public class ImportResultDto {
+
+    private long read;
+    private long imported;
+    private long failed;
+    private long imagesQueued;
+    private List<String> errors = new ArrayList<>();
+
+    public long getRead() {
+        return read;
+    }
+
+    public void setRead(long read) {
+        this.read = read;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getImagesQueued() {
+        return imagesQueued;
+    }
+
+    public void setImagesQueued(long imagesQueued) {
+        this.imagesQueued = imagesQueued;
+    }
+
+    public List<String> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,60 @@
+package com.blogapp.payload;
+
+public class LikeDto {
+    private String targetType;
+    private Long targetId;
+    private Long userId;
+    private boolean liked;
+    private long likes;
+
+    public LikeDto() {
+    }
+
+    public LikeDto(String targetType, Long targetId, Long userId, boolean liked, long likes) {
+        this.targetType = targetType;
+        this.targetId = targetId;
+        this.userId = userId;
+        this.liked = liked;
+        this.likes = likes;
+    }
+
+    public String getTargetType() {
+        return targetType;
+    }
+
+    public void setTargetType(String targetType) {
+        this.targetType = targetType;
+    }
+
+    public Long getTargetId() {
+        return targetId;
+    }
+
+    public void setTargetId(Long targetId) {
+        this.targetId = targetId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public boolean isLiked() {
+        return liked;
+    }
+
+    public void setLiked(boolean liked) {
+        this.liked = liked;
+    }
+
+    public long getLikes() {
+        return likes;
+    }
+
+    public void setLikes(long likes) {
+        this.likes = likes;
+    }
+}
@@ -0,0 +1,90 @@
+package com.blogapp.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// one pass of the orphan image sweep; sample holds the first few orphan keys so a dry run can be checked by hand
+public class OrphanImageReportDto {
+
+    private boolean dryRun;
+    private long referenced;
+    private long listed;
+    private long recent;
+    private long excluded;
+    private long orphans;
+    private long orphanBytes;
+    private long deleted;
+    private List<String> sample = new ArrayList<>();
+
+    public boolean isDryRun() {
+        return dryRun;
+    }
+
+    public void setDryRun(boolean dryRun) {
+        this.dryRun = dryRun;
+    }
+
+    public long getReferenced() {
+        return referenced;
+    }
+
+    public void setReferenced(long referenced) {
+        this.referenced = referenced;
+    }
+
+    public long getListed() {
+        return listed;
+    }
+
+    public void setListed(long listed) {
+        this.listed = listed;
+    }
+
+    public long getRecent() {
+        return recent;
+    }
+
+    public void setRecent(long recent) {
+        this.recent = recent;
+    }
+
+    public long getExcluded() {
+        return excluded;
+    }
+
+    public void setExcluded(long excluded) {
+        this.excluded = excluded;
+    }
+
+    public long getOrphans() {
+        return orphans;
+    }
+
+    public void setOrphans(long orphans) {
+        this.orphans = orphans;
+    }
+
+    public long getOrphanBytes() {
+        return orphanBytes;
+    }
+
+    public void setOrphanBytes(long orphanBytes) {
+        this.orphanBytes = orphanBytes;
+    }
+
+    public long getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(long deleted) {
+        this.deleted = deleted;
+    }
+
+    public List<String> getSample() {
+        return sample;
+    }
+
+    public void setSample(List<String> sample) {
+        this.sample = sample;
+    }
+}
@@ -1,19 +1,44 @@
 package com.blogapp.payload;
 
-import com.blogapp.entity.Category;
-import com.blogapp.entity.User;
-
 import java.time.LocalDateTime;
 import java.util.List;
 
 public class PostDetailsDto {
 
+    private Long id;
     private String title;
     private String description;
     private LocalDateTime updateAt;
     private List<String> postImagesPath;
-    private User user;
-    private Category category;
+    private Long userId;
+    private String userName;
+    private Long categoryId;
+    private String categoryName;
+
+    public PostDetailsDto() {
+    }
+
+    // used by the JPQL constructor projection in PostRepository
+    public PostDetailsDto(Long id, String title, String description, LocalDateTime updateAt, List<String> postImagesPath,
+                          Long userId, String userName, Long categoryId, String categoryName) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.updateAt = updateAt;
+        this.postImagesPath = postImagesPath;
+        this.userId = userId;
+        this.userName = userName;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
 
     public String getTitle() {
         return title;
@@ -39,10 +64,6 @@ public class PostDetailsDto {
         this.updateAt = updateAt;
     }
 
-    public User getUser() {
-        return user;
-    }
-
     public List<String> getPostImagesPath() {
         return postImagesPath;
     }
@@ -51,15 +72,35 @@ public class PostDetailsDto {
         this.postImagesPath = postImagesPath;
     }
 
-    public void setUser(User user) {
-        this.user = user;
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
     }
 
-    public Category getCategory() {
-        return category;
+    public String getCategoryName() {
+        return categoryName;
     }
 
-    public void setCategory(Category category) {
-        this.category = category;
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
     }
 }
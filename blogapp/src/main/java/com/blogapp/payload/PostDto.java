@@ -22,7 +22,7 @@ public class PostDto {
 
     private List<String> postImagesPath;
 
-    @NotNull(message = "User ID is required")
+    // the author is the caller named by the token; a value sent here has to be that same user
     private Long userId;
 
     @NotNull(message = "Category ID is required")
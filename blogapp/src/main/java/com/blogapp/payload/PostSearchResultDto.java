@@ -0,0 +1,62 @@
+package com.blogapp.payload;
+
+import java.util.List;
+
+public class PostSearchResultDto {
+    private String query;
+    private int page;
+    private int size;
+    private long totalHits;
+    private List<PostSummaryDto> items;
+
+    public PostSearchResultDto() {
+    }
+
+    public PostSearchResultDto(String query, int page, int size, long totalHits, List<PostSummaryDto> items) {
+        this.query = query;
+        this.page = page;
+        this.size = size;
+        this.totalHits = totalHits;
+        this.items = items;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public long getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(long totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public List<PostSummaryDto> getItems() {
+        return items;
+    }
+
+    public void setItems(List<PostSummaryDto> items) {
+        this.items = items;
+    }
+}
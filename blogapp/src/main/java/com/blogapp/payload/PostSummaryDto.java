@@ -0,0 +1,95 @@
+package com.blogapp.payload;
+
+import java.time.LocalDateTime;
+
+public class PostSummaryDto {
+
+    private Long id;
+    private String title;
+    private LocalDateTime updateAt;
+    private Long userId;
+    private String userName;
+    private Long categoryId;
+    private String categoryName;
+    private long commentCount;
+
+    public PostSummaryDto() {
+    }
+
+    // used by the JPQL constructor projection in PostRepository
+    public PostSummaryDto(Long id, String title, LocalDateTime updateAt,
+                          Long userId, String userName, Long categoryId, String categoryName, long commentCount) {
+        this.id = id;
+        this.title = title;
+        this.updateAt = updateAt;
+        this.userId = userId;
+        this.userName = userName;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.commentCount = commentCount;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public LocalDateTime getUpdateAt() {
+        return updateAt;
+    }
+
+    public void setUpdateAt(LocalDateTime updateAt) {
+        this.updateAt = updateAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public void setUserName(String userName) {
+        this.userName = userName;
+    }
+
+    public Long getCategoryId() {
+        return categoryId;
+    }
+
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+
+    public void setCategoryName(String categoryName) {
+        this.categoryName = categoryName;
+    }
+
+    public long getCommentCount() {
+        return commentCount;
+    }
+
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+}
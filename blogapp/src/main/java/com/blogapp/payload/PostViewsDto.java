@@ -0,0 +1,30 @@
+package com.blogapp.payload;
+
+public class PostViewsDto {
+    private Long postId;
+    private long views;
+
+    public PostViewsDto() {
+    }
+
+    public PostViewsDto(Long postId, long views) {
+        this.postId = postId;
+        this.views = views;
+    }
+
+    public Long getPostId() {
+        return postId;
+    }
+
+    public void setPostId(Long postId) {
+        this.postId = postId;
+    }
+
+    public long getViews() {
+        return views;
+    }
+
+    public void setViews(long views) {
+        this.views = views;
+    }
+}
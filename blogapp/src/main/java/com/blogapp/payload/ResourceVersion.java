@@ -0,0 +1,104 @@
+package com.blogapp.payload;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+/**
+ * What a conditional GET is answered from instead of the response body: a fingerprint of the rows the body is
+ * built from and the newest {@code update_at} among them. Filled by narrow JPQL projections (ids and
+ * timestamps only) or folded from values already in memory with {@link Builder}.
+ * <p>
+ * A single row gets a strong ETag. Aggregates and pages get a weak one, since they only summarise the rows.
+ * {@code update_at} is stored to the second, so two edits of one row within the same second share a version.
+ */
+public class ResourceVersion {
+
+    private final long fingerprint;
+    private final LocalDateTime lastModified;
+    private final boolean weak;
+
+    // one row; the extra timestamps are of the rows whose names are copied into its response
+    public ResourceVersion(Long id, LocalDateTime updateAt) {
+        this(strong().add(id).touch(updateAt));
+    }
+
+    public ResourceVersion(Long id, LocalDateTime updateAt, LocalDateTime relatedUpdateAt) {
+        this(strong().add(id).touch(updateAt).touch(relatedUpdateAt));
+    }
+
+    public ResourceVersion(Long id, LocalDateTime updateAt, LocalDateTime relatedUpdateAt, LocalDateTime otherUpdateAt) {
+        this(strong().add(id).touch(updateAt).touch(relatedUpdateAt).touch(otherUpdateAt));
+    }
+
+    // a whole table: count and sum(id) change on insert and delete, max(update_at) on every edit
+    public ResourceVersion(Long count, Long idSum, LocalDateTime maxUpdateAt) {
+        this(weak().add(count).add(idSum).touch(maxUpdateAt));
+    }
+
+    public ResourceVersion(Long count, Long idSum, LocalDateTime maxUpdateAt, LocalDateTime maxRelatedUpdateAt) {
+        this(weak().add(count).add(idSum).touch(maxUpdateAt).touch(maxRelatedUpdateAt));
+    }
+
+    private ResourceVersion(Builder builder) {
+        this.fingerprint = builder.hash;
+        this.lastModified = builder.lastModified;
+        this.weak = builder.weak;
+    }
+
+    public static Builder strong() {
+        return new Builder(false);
+    }
+
+    public static Builder weak() {
+        return new Builder(true);
+    }
+
+    public String getETag() {
+        return (weak ? "W/\"" : "\"") + Long.toHexString(fingerprint) + "\"";
+    }
+
+    // -1 tells WebRequest.checkNotModified there is no Last-Modified
+    public long getLastModifiedMillis() {
+        return lastModified == null ? -1 : lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    public LocalDateTime getLastModified() {
+        return lastModified;
+    }
+
+    public boolean isWeak() {
+        return weak;
+    }
+
+    public static final class Builder {
+        private final boolean weak;
+        private long hash = 0x9e3779b97f4a7c15L;
+        private LocalDateTime lastModified;
+
+        private Builder(boolean weak) {
+            this.weak = weak;
+        }
+
+        // String, Long and LocalDateTime hash their value alone, so every instance computes the same ETag
+        // for the same data
+        public Builder add(Object value) {
+            long z = hash * 31 + (value == null ? 0 : value.hashCode());
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            hash = z ^ (z >>> 31);
+            return this;
+        }
+
+        public Builder touch(LocalDateTime updateAt) {
+            add(updateAt);
+            if (updateAt != null && (lastModified == null || updateAt.isAfter(lastModified))) {
+                lastModified = updateAt;
+            }
+            return this;
+        }
+
+        public ResourceVersion build() {
+            return new ResourceVersion(this);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.blogapp.payload;
+
+public class TrendingPostDto {
+    private int rank;
+    private double score;
+    private PostSummaryDto post;
+
+    public TrendingPostDto() {
+    }
+
+    public TrendingPostDto(int rank, double score, PostSummaryDto post) {
+        this.rank = rank;
+        this.score = score;
+        this.post = post;
+    }
+
+    public int getRank() {
+        return rank;
+    }
+
+    public void setRank(int rank) {
+        this.rank = rank;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+
+    public PostSummaryDto getPost() {
+        return post;
+    }
+
+    public void setPost(PostSummaryDto post) {
+        this.post = post;
+    }
+}
@@ -2,6 +2,15 @@ package com.blogapp.repository;
 
 import com.blogapp.entity.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 
 public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    @Modifying
+    @Query("delete from Address a where a.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -1,7 +1,100 @@
 package com.blogapp.repository;
 
 import com.blogapp.entity.Comment;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-}
\ No newline at end of file
+
+    @Query("select new com.blogapp.payload.CommentDetailsDto(" +
+            "c.id, c.comment, c.createAt, c.updateAt, c.post.id, u.id, u.userName, c.parentId, c.depth) " +
+            "from Comment c join c.user u " +
+            "where c.id = :id")
+    Optional<CommentDetailsDto> findDetailsById(@Param("id") Long id);
+
+    @Query("select new com.blogapp.payload.ResourceVersion(c.id, c.updateAt, u.updateAt) " +
+            "from Comment c join c.user u " +
+            "where c.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    // the author's id is a column of the comment row, so no join
+    @Query("select c.user.id from Comment c where c.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    // one aggregate row instead of every comment and its author
+    @Query("select new com.blogapp.payload.ResourceVersion(count(c), sum(c.id), max(c.updateAt), max(u.updateAt)) " +
+            "from Comment c join c.user u")
+    ResourceVersion findAllVersion();
+
+    // the author is fetch-joined, with the address User maps eagerly, see PostRepository.streamAll;
+    // the post is only read through its foreign key, so it is never loaded
+    @EntityGraph(attributePaths = {"user", "user.address"})
+    @Query("select c from Comment c order by c.id")
+    List<Comment> findAllWithUser();
+
+    @EntityGraph(attributePaths = {"user", "user.address"})
+    Optional<Comment> findWithUserById(Long id);
+
+    // forward-only cursor for the export, see PostRepository.streamAll; the post is read through its foreign key only
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select c from Comment c join fetch c.user u left join fetch u.address order by c.id")
+    Stream<Comment> streamAll();
+
+    // top-level comments only, keyset pagination on (create_at, id), oldest first; backed by idx_comment_post_create_at_id
+    @Query("select new com.blogapp.payload.CommentDetailsDto(" +
+            "c.id, c.comment, c.createAt, c.updateAt, c.post.id, u.id, u.userName, c.parentId, c.depth) " +
+            "from Comment c join c.user u " +
+            "where c.post.id = :postId and c.parentId is null " +
+            "order by c.createAt asc, c.id asc")
+    List<CommentDetailsDto> findFirstPageByPostId(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("select new com.blogapp.payload.CommentDetailsDto(" +
+            "c.id, c.comment, c.createAt, c.updateAt, c.post.id, u.id, u.userName, c.parentId, c.depth) " +
+            "from Comment c join c.user u " +
+            "where c.post.id = :postId and c.parentId is null " +
+            "and (c.createAt > :createAt or (c.createAt = :createAt and c.id > :id)) " +
+            "order by c.createAt asc, c.id asc")
+    List<CommentDetailsDto> findPageByPostIdAfter(
+            @Param("postId") Long postId,
+            @Param("createAt") LocalDateTime createAt,
+            @Param("id") Long id,
+            Pageable pageable
+    );
+
+    // whole subtree in one range scan on idx_comment_path; path order is depth-first, parents before replies
+    @Query("select new com.blogapp.payload.CommentDetailsDto(" +
+            "c.id, c.comment, c.createAt, c.updateAt, c.post.id, u.id, u.userName, c.parentId, c.depth) " +
+            "from Comment c join c.user u " +
+            "where c.path like concat(:path, '%') and c.depth <= :maxDepth " +
+            "order by c.path")
+    List<CommentDetailsDto> findSubtree(@Param("path") String path, @Param("maxDepth") int maxDepth);
+
+    @Modifying
+    @Query("delete from Comment c where c.id = :id or c.path like concat(:path, '%')")
+    int deleteSubtree(@Param("id") Long id, @Param("path") String path);
+
+    @Query("select c from Comment c where c.user.id in :userIds")
+    List<Comment> findAllByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("delete from Comment c where c.post.id in :postIds")
+    int deleteAllByPostIds(@Param("postIds") Collection<Long> postIds);
+}
@@ -0,0 +1,30 @@
+package com.blogapp.repository;
+
+import com.blogapp.entity.EmailOutbox;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutbox, Long> {
+
+    // FOR UPDATE SKIP LOCKED (lock timeout -2): several app instances can drain the outbox without sending twice
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("select e from EmailOutbox e " +
+            "where e.status in :statuses and e.nextAttemptAt <= :now " +
+            "order by e.id")
+    List<EmailOutbox> findDue(
+            @Param("statuses") Collection<EmailOutbox.Status> statuses,
+            @Param("now") LocalDateTime now,
+            Pageable pageable
+    );
+}
@@ -0,0 +1,15 @@
+package com.blogapp.repository;
+
+import com.blogapp.payload.PostSummaryDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface PostPageQueries {
+
+    /**
+     * One page of post summaries, newest first, keyset-paginated on (update_at, id). Pass a null position for
+     * the first page; null filters are left out of the statement altogether rather than compared with null.
+     */
+    List<PostSummaryDto> findPage(LocalDateTime updateAt, Long id, Long categoryId, Long userId, int limit);
+}
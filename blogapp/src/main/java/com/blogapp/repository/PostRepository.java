@@ -1,7 +1,88 @@
 package com.blogapp.repository;
 
 import com.blogapp.entity.Post;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.payload.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface PostRepository extends JpaRepository<Post, Long> {
-}
\ No newline at end of file
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface PostRepository extends JpaRepository<Post, Long>, PostPageQueries {
+
+    @Query("select new com.blogapp.payload.PostDetailsDto(" +
+            "p.id, p.title, p.description, p.updateAt, p.postImagesPath, u.id, u.userName, c.id, c.categoryName) " +
+            "from Post p join p.user u join p.category c " +
+            "where p.id = :id")
+    Optional<PostDetailsDto> findDetailsById(@Param("id") Long id);
+
+    // primary-key reads of three timestamps; the author and category names are part of the post response
+    @Query("select new com.blogapp.payload.ResourceVersion(p.id, p.updateAt, u.updateAt, c.updateAt) " +
+            "from Post p join p.user u join p.category c " +
+            "where p.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    // the author's id is a column of the post row, so no join
+    @Query("select p.user.id from Post p where p.id = :id")
+    Optional<Long> findAuthorIdById(@Param("id") Long id);
+
+    // primary-key lookups for the handful of posts on the trending list
+    @Query("select new com.blogapp.payload.PostSummaryDto(" +
+            "p.id, p.title, p.updateAt, u.id, u.userName, c.id, c.categoryName, p.commentCount) " +
+            "from Post p join p.user u join p.category c " +
+            "where p.id in :ids")
+    List<PostSummaryDto> findSummariesByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Every post, read forward-only through a JDBC cursor. Needs a surrounding transaction and the caller
+     * detaches rows as it goes. On MySQL the fetch size is only honoured with {@code useCursorFetch=true} on the
+     * connection URL; without it Connector/J reads the whole result into memory first.
+     */
+    // the address is fetched only because User maps it eagerly; joining it saves one select per author
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p from Post p join fetch p.user u left join fetch u.address join fetch p.category order by p.id")
+    Stream<Post> streamAll();
+
+    // comment_count is only ever moved by these two statements, so concurrent comments cannot lose updates
+    @Modifying
+    @Query("update Post p set p.commentCount = p.commentCount + 1 where p.id = :id")
+    int incrementCommentCount(@Param("id") Long id);
+
+    @Modifying
+    @Query("update Post p set p.commentCount = case when p.commentCount > :by then p.commentCount - :by else 0 end " +
+            "where p.id = :id")
+    int decrementCommentCount(@Param("id") Long id, @Param("by") long by);
+
+    // set-based statements for bulk deletes; they bypass the persistence context, so run them in a fresh transaction
+    @Query("select p from Post p where p.user.id in :userIds")
+    List<Post> findAllByUserIds(@Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("delete from Post p where p.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    // for posts that lost comments to a bulk delete, where counting what went is more work than counting what is left
+    @Modifying
+    @Query("update Post p set p.commentCount = (select count(c) from Comment c where c.post.id = p.id) where p.id in :ids")
+    int recountComments(@Param("ids") Collection<Long> ids);
+
+    // image URLs only, read forward-only for the orphan image sweep; scalar rows never enter the persistence context
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select p.postImagesPath from Post p")
+    Stream<List<String>> streamImagePaths();
+}
@@ -1,11 +1,56 @@
 package com.blogapp.repository;
 
 import com.blogapp.entity.User;
+import com.blogapp.payload.ResourceVersion;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUserName(String userName);
     Optional<User> findByEmail(String email);
-}
\ No newline at end of file
+
+    @Query("select u.id from User u where u.userName = :userName")
+    Optional<Long> findIdByUserName(@Param("userName") String userName);
+
+    @EntityGraph(attributePaths = {"address"})
+    @Query("select u from User u")
+    List<User> findAllWithAddress();
+
+    // address edits go through the user update, which also moves the user's update_at
+    @Query("select new com.blogapp.payload.ResourceVersion(u.id, u.updateAt) from User u where u.id = :id")
+    Optional<ResourceVersion> findVersionById(@Param("id") Long id);
+
+    @Query("select new com.blogapp.payload.ResourceVersion(count(u), sum(u.id), max(u.updateAt)) from User u")
+    ResourceVersion findAllVersion();
+
+    // only replaces the value that was verified, so a concurrent password change is never overwritten
+    @Modifying
+    @Query("update User u set u.password = :password where u.id = :id and u.password = :previous")
+    int updatePassword(@Param("id") Long id, @Param("previous") String previous, @Param("password") String password);
+
+    @EntityGraph(attributePaths = {"address"})
+    @Query("select u from User u where u.id in :ids")
+    List<User> findAllWithAddressByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("delete from User u where u.id in :ids")
+    int deleteAllByIds(@Param("ids") Collection<Long> ids);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.profileImagePath from User u")
+    Stream<String> streamProfileImagePaths();
+}
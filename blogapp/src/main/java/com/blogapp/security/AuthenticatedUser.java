@@ -0,0 +1,52 @@
+package com.blogapp.security;
+
+/**
+ * The caller of a request as stated by a verified token; no database row is read to build it.
+ */
+public class AuthenticatedUser {
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    private final Long userId;
+    private final String userName;
+    private final String role;
+    private final String tokenId;
+    private final long expiresAt;
+
+    public AuthenticatedUser(Long userId, String userName, String role, String tokenId, long expiresAt) {
+        this.userId = userId;
+        this.userName = userName;
+        this.role = role;
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUserName() {
+        return userName;
+    }
+
+    public String getRole() {
+        return role;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    // epoch seconds
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isAdmin() {
+        return ADMIN_ROLE.equals(role);
+    }
+
+    // what a user wrote may be changed or deleted by that user or by an admin
+    public boolean mayChange(Long authorId) {
+        return isAdmin() || userId.equals(authorId);
+    }
+}
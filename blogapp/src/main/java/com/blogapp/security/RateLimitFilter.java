@@ -0,0 +1,98 @@
+package com.blogapp.security;
+
+import com.blogapp.config.RateLimitProperties;
+import com.blogapp.payload.ErrorDetails;
+import com.blogapp.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies {@link RateLimiter} to the configured routes, ahead of authentication so unauthenticated
+ * endpoints like sign-up are covered too. Over the limit the request ends with 429 and Retry-After.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    private final String clientIpHeader;
+    private final int trustedProxies;
+
+    public RateLimitFilter(RateLimiter rateLimiter, RateLimitProperties properties, ObjectMapper objectMapper) {
+        this.rateLimiter = rateLimiter;
+        this.objectMapper = objectMapper;
+        this.clientIpHeader = properties.getClientIpHeader();
+        this.trustedProxies = Math.max(1, properties.getTrustedProxies());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimiter.isLimited(request.getMethod(), path(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String client = client(request);
+        long waitNanos = rateLimiter.acquire(request.getMethod(), path(request), client);
+        if (waitNanos > 0) {
+            long retryAfter = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+            logger.warn("Rate limit hit: {} {} by {}, retry after {}s", request.getMethod(), request.getRequestURI(), client, retryAfter);
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            ErrorDetails details = new ErrorDetails(new Date(), "Too many requests, retry after " + retryAfter + " seconds.",
+                    "uri=" + request.getRequestURI());
+            objectMapper.writeValue(response.getOutputStream(), details);
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private String client(HttpServletRequest request) {
+        if (clientIpHeader != null && !clientIpHeader.isBlank()) {
+            // the client can send the header itself, so only the entries our own proxies appended are trusted:
+            // counted from the right, the one added by the outermost proxy is the address that connected to it
+            List<String> hops = new ArrayList<>();
+            for (String header : Collections.list(request.getHeaders(clientIpHeader))) {
+                for (String hop : header.split(",")) {
+                    if (!hop.isBlank()) {
+                        hops.add(hop.trim());
+                    }
+                }
+            }
+            if (!hops.isEmpty()) {
+                return hops.get(Math.max(0, hops.size() - trustedProxies));
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    // the same path the authentication filter and the handler mapping go by, so it cannot be dressed up to skip a limit
+    private static String path(HttpServletRequest request) {
+        String path = TokenAuthenticationFilter.requestPath(request);
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+}
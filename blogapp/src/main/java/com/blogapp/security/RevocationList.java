@@ -0,0 +1,67 @@
+package com.blogapp.security;
+
+import com.blogapp.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of tokens signed out before they expired. Almost every request carries a token that was never revoked,
+ * and for those the Bloom filter answers "no" without touching the map; only a filter hit is confirmed
+ * against the exact set, so a false positive never locks anyone out.
+ * <p>
+ * Entries are kept until the token would have expired anyway; the scheduled purge drops them and rebuilds
+ * the filter, which cannot forget values on its own.
+ */
+@Component
+public class RevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(RevocationList.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final int expectedRevocations;
+
+    // token id -> expiry in epoch seconds
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    private volatile BloomFilter filter;
+
+    public RevocationList(@Value("${token.revocation.expected:100000}") int expectedRevocations) {
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    public synchronized void revoke(String tokenId, long expiresAt) {
+        revoked.put(tokenId, expiresAt);
+        filter.put(tokenId);
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return filter.mightContain(tokenId) && revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+
+    @Scheduled(fixedDelayString = "${token.revocation.purge-ms:600000}")
+    public synchronized void purge() {
+        long now = Instant.now().getEpochSecond();
+        int before = revoked.size();
+        revoked.values().removeIf(expiresAt -> expiresAt <= now);
+        // sized for twice the current content so a burst of sign-outs does not push the error rate up right away
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revoked.size() * 2), FALSE_POSITIVE_RATE);
+        revoked.keySet().forEach(rebuilt::put);
+        filter = rebuilt;
+        if (before != revoked.size()) {
+            logger.info("Success! Revocation list purged: {} expired, {} kept", before - revoked.size(), revoked.size());
+        }
+    }
+}
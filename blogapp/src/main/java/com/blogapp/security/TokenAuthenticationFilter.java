@@ -0,0 +1,110 @@
+package com.blogapp.security;
+
+import com.blogapp.exception.InvalidTokenException;
+import com.blogapp.payload.ErrorDetails;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Requires a valid bearer token on every write to posts, comments and categories, and on every request to the
+ * exports. Other reads stay open.
+ * The caller is stored under {@link #AUTHENTICATED_USER} for the handler.
+ */
+@Component
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenAuthenticationFilter.class);
+
+    public static final String AUTHENTICATED_USER = "authenticatedUser";
+
+    private static final List<String> PROTECTED_PATHS = List.of(
+            "/api/v1/post", "/api/v1/comment", "/api/v1/category", "/api/v1/import", "/api/v1/bulk");
+    // whole-table reads: a token is needed for every method, not just writes
+    private static final List<String> PRIVATE_PATHS = List.of("/api/v1/export");
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+    private static final String BEARER_PREFIX = TokenService.TOKEN_TYPE + " ";
+
+    private final TokenService tokenService;
+    private final ObjectMapper objectMapper;
+
+    public TokenAuthenticationFilter(TokenService tokenService, ObjectMapper objectMapper) {
+        this.tokenService = tokenService;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String path = requestPath(request);
+        if (matches(path, PRIVATE_PATHS)) {
+            return false;
+        }
+        return READ_METHODS.contains(request.getMethod()) || !matches(path, PROTECTED_PATHS);
+    }
+
+    private static boolean matches(String path, List<String> prefixes) {
+        for (String prefix : prefixes) {
+            if (path.equals(prefix) || path.startsWith(prefix + "/")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        AuthenticatedUser user;
+        try {
+            user = tokenService.verify(bearerToken(request));
+        } catch (InvalidTokenException e) {
+            logger.warn("Rejected {} {}: {}", request.getMethod(), request.getRequestURI(), e.getMessage());
+            unauthorized(request, response, e.getMessage());
+            return;
+        }
+        request.setAttribute(AUTHENTICATED_USER, user);
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * The path the request is dispatched on, below the context path: decoded, with {@code ;} path parameters
+     * removed and {@code //} and {@code ..} resolved. The raw request URI keeps all of these, so a check made
+     * against it can be walked around by a path the handler mapping still routes to the same endpoint.
+     */
+    public static String requestPath(HttpServletRequest request) {
+        return StringUtils.cleanPath(UrlPathHelper.defaultInstance.getPathWithinApplication(request));
+    }
+
+    public static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header == null || !header.regionMatches(true, 0, BEARER_PREFIX, 0, BEARER_PREFIX.length())) {
+            return null;
+        }
+        return header.substring(BEARER_PREFIX.length()).trim();
+    }
+
+    // filters run outside the controller advice, so the error body is written here in the same shape
+    private void unauthorized(HttpServletRequest request, HttpServletResponse response, String message) throws IOException {
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer error=\"invalid_token\"");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        ErrorDetails details = new ErrorDetails(new Date(), message, "uri=" + request.getRequestURI());
+        objectMapper.writeValue(response.getOutputStream(), details);
+    }
+}
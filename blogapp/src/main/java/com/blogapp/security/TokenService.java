@@ -0,0 +1,192 @@
+package com.blogapp.security;
+
+import com.blogapp.exception.InvalidTokenException;
+import com.blogapp.payload.TokenDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and checks HS256-signed JWTs. A token carries the user id, name and role, so checking one is an HMAC
+ * and a JSON parse with no database read; recently verified tokens are cached so repeat requests skip even that.
+ * <p>
+ * Set {@code token.secret} (at least 32 bytes) to share tokens across restarts and instances; without it a
+ * random key is generated at startup and every restart signs everyone out.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenService.class);
+
+    public static final String TOKEN_TYPE = "Bearer";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    // the only header we issue; anything else, "alg":"none" included, is refused before the signature is checked
+    private static final String HEADER = ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final RevocationList revocationList;
+    private final long ttlSeconds;
+    private final Clock clock;
+    private final ThreadLocal<Mac> mac;
+    private final Cache<String, AuthenticatedUser> verified;
+
+    @Autowired
+    public TokenService(
+            ObjectMapper objectMapper,
+            RevocationList revocationList,
+            @Value("${token.secret:}") String secret,
+            @Value("${token.ttl-seconds:3600}") long ttlSeconds,
+            @Value("${token.cache.max-size:10000}") long cacheSize
+    ){
+        this(objectMapper, revocationList, secret, ttlSeconds, cacheSize, Clock.systemUTC());
+    }
+
+    TokenService(ObjectMapper objectMapper, RevocationList revocationList, String secret, long ttlSeconds,
+                 long cacheSize, Clock clock) {
+        this.objectMapper = objectMapper;
+        this.revocationList = revocationList;
+        this.ttlSeconds = ttlSeconds;
+        this.clock = clock;
+        SecretKeySpec key = new SecretKeySpec(keyBytes(secret), ALGORITHM);
+        // Mac instances are not thread-safe; one per thread avoids both locking and a provider lookup per request
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+        // a cached entry never outlives its token
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(new Expiry<String, AuthenticatedUser>() {
+                    @Override
+                    public long expireAfterCreate(String token, AuthenticatedUser user, long currentTime) {
+                        return TimeUnit.SECONDS.toNanos(Math.max(0, user.getExpiresAt() - clock.instant().getEpochSecond()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, AuthenticatedUser user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, AuthenticatedUser user, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    public TokenDto issue(Long userId, String userName, String role) {
+        long now = clock.instant().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", String.valueOf(userId));
+        claims.put("name", userName);
+        claims.put("role", role);
+        claims.put("iat", now);
+        claims.put("exp", now + ttlSeconds);
+        claims.put("jti", UUID.randomUUID().toString());
+        try {
+            String unsigned = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String token = unsigned + "." + ENCODER.encodeToString(sign(unsigned));
+            return new TokenDto(token, TOKEN_TYPE, ttlSeconds, userId, userName);
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not issue token", e);
+        }
+    }
+
+    public AuthenticatedUser verify(String token) {
+        if (token == null || token.isEmpty()) {
+            throw new InvalidTokenException("Missing token");
+        }
+        AuthenticatedUser user = verified.getIfPresent(token);
+        if (user == null) {
+            user = parse(token);
+            verified.put(token, user);
+        }
+        if (user.getExpiresAt() <= clock.instant().getEpochSecond()) {
+            throw new InvalidTokenException("Token has expired");
+        }
+        if (revocationList.isRevoked(user.getTokenId())) {
+            throw new InvalidTokenException("Token has been revoked");
+        }
+        return user;
+    }
+
+    public void revoke(String token) {
+        AuthenticatedUser user = verify(token);
+        revocationList.revoke(user.getTokenId(), user.getExpiresAt());
+        verified.invalidate(token);
+        logger.info("Success! Token revoked for user: {}", user.getUserId());
+    }
+
+    private AuthenticatedUser parse(String token) {
+        int headerEnd = token.indexOf('.');
+        int payloadEnd = token.indexOf('.', headerEnd + 1);
+        if (headerEnd != HEADER.length() || payloadEnd < 0 || token.indexOf('.', payloadEnd + 1) >= 0
+                || !token.startsWith(HEADER)) {
+            throw new InvalidTokenException("Malformed token");
+        }
+        try {
+            byte[] signature = DECODER.decode(token.substring(payloadEnd + 1));
+            if (!MessageDigest.isEqual(signature, sign(token.substring(0, payloadEnd)))) {
+                throw new InvalidTokenException("Invalid token signature");
+            }
+            Map<?, ?> claims = objectMapper.readValue(DECODER.decode(token.substring(headerEnd + 1, payloadEnd)), Map.class);
+            return new AuthenticatedUser(
+                    Long.valueOf((String) claims.get("sub")),
+                    (String) claims.get("name"),
+                    (String) claims.get("role"),
+                    (String) claims.get("jti"),
+                    ((Number) claims.get("exp")).longValue()
+            );
+        } catch (InvalidTokenException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new InvalidTokenException("Malformed token");
+        }
+    }
+
+    private byte[] sign(String unsigned) {
+        return mac.get().doFinal(unsigned.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static byte[] keyBytes(String secret) {
+        if (secret == null || secret.isBlank()) {
+            logger.warn("token.secret is not set; using a random key, tokens will not survive a restart");
+            byte[] random = new byte[32];
+            new SecureRandom().nextBytes(random);
+            return random;
+        }
+        byte[] key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32) {
+            throw new IllegalStateException("token.secret must be at least 32 bytes for HS256");
+        }
+        return key;
+    }
+}
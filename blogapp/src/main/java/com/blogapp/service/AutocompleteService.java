@@ -0,0 +1,150 @@
+package com.blogapp.service;
+
+import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.SuggestionDto;
+import com.blogapp.util.PrefixIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Type-ahead over user names and category names, answered from in-memory {@link PrefixIndex}es. The user index
+ * is loaded from the database and kept current by the user service; the category index is derived from the
+ * {@link CategoryCatalog} whenever its version changes.
+ */
+@Service
+public class AutocompleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AutocompleteService.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Value("${autocomplete.default-limit:10}")
+    private int defaultLimit;
+
+    @Value("${autocomplete.max-limit:50}")
+    private int maxLimit;
+
+    private final AtomicReference<PrefixIndex> users = new AtomicReference<>();
+
+    // changes made while a reload scans the table, replayed onto the fresh index before it is published
+    private List<UnaryOperator<PrefixIndex>> replay;
+
+    private volatile CategoryNames categoryNames;
+
+    public List<SuggestionDto> suggestUsers(String prefix, Integer limit) {
+        return suggest(userIndex(), prefix, limit);
+    }
+
+    public List<SuggestionDto> suggestCategories(String prefix, Integer limit) {
+        return suggest(categoryIndex(), prefix, limit);
+    }
+
+    // called after a user row is saved
+    public synchronized void putUser(Long userId, String userName) {
+        if (userId == null || userName == null) {
+            return;
+        }
+        change(index -> index.with(userId, userName));
+    }
+
+    // called after a user row is deleted
+    public synchronized void removeUser(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        change(index -> index.without(userId));
+    }
+
+    // also picks up users changed by other instances or directly in the database
+    @Scheduled(fixedDelayString = "${autocomplete.users.refresh-ms:300000}")
+    public void reloadUsers() {
+        synchronized (this) {
+            replay = new ArrayList<>();
+        }
+        Map<Long, String> names = new HashMap<>();
+        try {
+            // the scan runs outside the lock so sign-ups do not wait for it
+            jdbcTemplate.query("select id, user_name from user", rs -> {
+                names.put(rs.getLong(1), rs.getString(2));
+            });
+        } catch (Exception e) {
+            synchronized (this) {
+                replay = null;
+            }
+            logger.error("Failed to load user names for autocomplete: {}", e.getMessage());
+            return;
+        }
+        synchronized (this) {
+            PrefixIndex index = PrefixIndex.of(names);
+            for (UnaryOperator<PrefixIndex> change : replay) {
+                index = change.apply(index);
+            }
+            users.set(index);
+            replay = null;
+        }
+        logger.info("Success! Autocomplete loaded {} user names", names.size());
+    }
+
+    private void change(UnaryOperator<PrefixIndex> change) {
+        users.set(change.apply(userIndex()));
+        if (replay != null) {
+            replay.add(change);
+        }
+    }
+
+    private PrefixIndex userIndex() {
+        PrefixIndex index = users.get();
+        if (index == null) {
+            reloadUsers();
+            index = users.get();
+        }
+        return index == null ? PrefixIndex.empty() : index;
+    }
+
+    // the catalog is tiny and rarely changes; rebuilding on a new version keeps the two from drifting apart
+    private PrefixIndex categoryIndex() {
+        long version = categoryCatalog.version();
+        CategoryNames names = categoryNames;
+        if (names == null || names.version != version) {
+            Map<Long, String> byId = categoryCatalog.findAll().stream()
+                    .collect(Collectors.toMap(CategoryDto::getId, CategoryDto::getCategoryName));
+            names = new CategoryNames(version, PrefixIndex.of(byId));
+            categoryNames = names;
+        }
+        return names.index;
+    }
+
+    private List<SuggestionDto> suggest(PrefixIndex index, String prefix, Integer limit) {
+        int size = (limit == null || limit <= 0) ? defaultLimit : Math.min(limit, maxLimit);
+        return index.complete(prefix, size).stream()
+                .map(match -> new SuggestionDto(match.getId(), match.getName()))
+                .collect(Collectors.toList());
+    }
+
+    private static final class CategoryNames {
+        private final long version;
+        private final PrefixIndex index;
+
+        private CategoryNames(long version, PrefixIndex index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+}
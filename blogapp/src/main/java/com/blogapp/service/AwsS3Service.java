@@ -2,6 +2,8 @@ package com.blogapp.service;
 
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.blogapp.exception.ImageUploadException;
 import org.slf4j.Logger;
@@ -13,6 +15,11 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -20,6 +27,9 @@ public class AwsS3Service {
 
     private static final Logger logger = LoggerFactory.getLogger(AwsS3Service.class);
 
+    // the most keys S3 accepts in one DeleteObjects request
+    public static final int MAX_KEYS_PER_DELETE = 1000;
+
     @Autowired
     private AmazonS3 amazonS3;
 
@@ -79,4 +89,51 @@ public class AwsS3Service {
         return status;
     }
 
+    /**
+     * Deletes many images with one DeleteObjects request per {@value #MAX_KEYS_PER_DELETE} keys instead of one
+     * request per image. URLs outside the bucket are skipped. Returns false if any key could not be deleted.
+     */
+    public boolean deleteImages(Collection<String> fileUrls){
+        String bucketUrl = amazonS3.getUrl(bucketName, "").toString();
+        Set<String> keys = new LinkedHashSet<>();
+        for (String fileUrl : fileUrls) {
+            if (fileUrl != null && fileUrl.startsWith(bucketUrl)) {
+                keys.add(fileUrl.substring(fileUrl.lastIndexOf("/") + 1));
+            }
+        }
+        List<String> chunk = new ArrayList<>(Math.min(keys.size(), MAX_KEYS_PER_DELETE));
+        int deleted = 0;
+        for (String key : keys) {
+            chunk.add(key);
+            if (chunk.size() == MAX_KEYS_PER_DELETE) {
+                deleted += deleteKeys(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            deleted += deleteKeys(chunk);
+        }
+        if (deleted < keys.size()) {
+            return false;
+        }
+        logger.info("Success! {} images deleted in cloud", deleted);
+        return true;
+    }
+
+    // at most MAX_KEYS_PER_DELETE keys; quiet mode: the response lists only the keys that failed
+    int deleteKeys(List<String> keys){
+        try {
+            amazonS3.deleteObjects(new DeleteObjectsRequest(bucketName)
+                    .withKeys(keys.toArray(new String[0]))
+                    .withQuiet(true));
+            return keys.size();
+        } catch (MultiObjectDeleteException e) {
+            logger.error("Failed! to delete {} of {} images in cloud: {}", e.getErrors().size(), keys.size(), e.getErrors().get(0).getMessage());
+            return keys.size() - e.getErrors().size();
+        } catch (Exception e) {
+            logger.error("Failed! to delete {} images in cloud: {}", keys.size(), e.getMessage());
+            return 0;
+        }
+    }
+
 }
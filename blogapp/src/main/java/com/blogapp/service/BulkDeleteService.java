@@ -0,0 +1,249 @@
+package com.blogapp.service;
+
+import com.blogapp.config.CacheConfig;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.payload.BulkDeleteResultDto;
+import com.blogapp.repository.AddressRepository;
+import com.blogapp.repository.CommentRepository;
+import com.blogapp.repository.PostRepository;
+import com.blogapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Deletes many users, posts or comments at once. Rows go with set-based statements over chunks of ids, one
+ * transaction per chunk, and every image of the deleted rows is removed afterwards with batched DeleteObjects
+ * requests. Posts take their comments with them; users take their posts, their comments (replies included)
+ * and their address. Likes go with the rows in the same transaction through {@link ReactionCleaner}: those on a
+ * deleted post or comment, and those a deleted user gave, which are taken off the like_count of what remains.
+ * <p>
+ * Images are removed only once the rows are committed: a failed S3 call leaves an unreferenced object behind
+ * rather than a post pointing at a missing image.
+ */
+@Service
+public class BulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BulkDeleteService.class);
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AwsS3Service awsS3Service;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private ReactionCleaner reactionCleaner;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // ids per statement and per transaction, well under the IN-list and packet limits of the database
+    @Value("${bulk-delete.chunk-size:500}")
+    private int chunkSize;
+
+    @CacheEvict(cacheNames = CacheConfig.POSTS, allEntries = true)
+    public BulkDeleteResultDto deletePosts(Collection<Long> postIds) {
+        logger.info("Starting bulk delete of {} posts", postIds.size());
+        BulkDeleteResultDto result = new BulkDeleteResultDto();
+        List<String> images = new ArrayList<>();
+        List<Long> deletedPosts = new ArrayList<>();
+        for (List<Long> chunk : chunks(postIds)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Post> posts = postRepository.findAllById(chunk);
+                deletePosts(posts, result, images, deletedPosts);
+            });
+        }
+        afterDelete(result, images, deletedPosts);
+        logger.info("Success! Bulk deleted {} posts and {} comments", result.getPosts(), result.getComments());
+        return result;
+    }
+
+    public BulkDeleteResultDto deleteComments(Collection<Long> commentIds) {
+        logger.info("Starting bulk delete of {} comments", commentIds.size());
+        BulkDeleteResultDto result = new BulkDeleteResultDto();
+        for (List<Long> chunk : chunks(commentIds)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Comment> comments = commentRepository.findAllById(chunk);
+                Set<Long> postIds = new LinkedHashSet<>();
+                deleteThreads(comments, result, postIds::add);
+                if (!postIds.isEmpty()) {
+                    postRepository.recountComments(postIds);
+                }
+            });
+        }
+        logger.info("Success! Bulk deleted {} comments", result.getComments());
+        return result;
+    }
+
+    // cached posts carry the author name, so they go too
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.POSTS, allEntries = true)
+    })
+    public BulkDeleteResultDto deleteUsers(Collection<Long> userIds) {
+        logger.info("Starting bulk delete of {} users", userIds.size());
+        BulkDeleteResultDto result = new BulkDeleteResultDto();
+        List<String> images = new ArrayList<>();
+        List<Long> deletedPosts = new ArrayList<>();
+        List<Long> deletedUsers = new ArrayList<>();
+        for (List<Long> chunk : chunks(userIds)) {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<User> users = userRepository.findAllWithAddressByIds(chunk);
+                if (users.isEmpty()) {
+                    return;
+                }
+                List<Long> ids = new ArrayList<>(users.size());
+                List<Long> addressIds = new ArrayList<>();
+                for (User user : users) {
+                    ids.add(user.getId());
+                    images.add(user.getProfileImagePath());
+                    if (user.getAddress() != null) {
+                        addressIds.add(user.getAddress().getId());
+                    }
+                }
+                result.setReactions(result.getReactions() + reactionCleaner.deleteBy(ids));
+                // the users' comments and every reply to them, on anyone's post
+                Set<Long> touchedPosts = new LinkedHashSet<>();
+                List<Comment> comments = commentRepository.findAllByUserIds(ids);
+                for (List<Comment> roots : chunks(comments)) {
+                    deleteThreads(roots, result, touchedPosts::add);
+                }
+                List<Post> posts = postRepository.findAllByUserIds(ids);
+                for (List<Post> chunkOfPosts : chunks(posts)) {
+                    deletePosts(chunkOfPosts, result, images, deletedPosts);
+                }
+                posts.forEach(post -> touchedPosts.remove(post.getId()));
+                for (List<Long> postIds : chunks(touchedPosts)) {
+                    postRepository.recountComments(postIds);
+                }
+                result.setUsers(result.getUsers() + userRepository.deleteAllByIds(ids));
+                if (!addressIds.isEmpty()) {
+                    addressRepository.deleteAllByIds(addressIds);
+                }
+                deletedUsers.addAll(ids);
+            });
+        }
+        afterDelete(result, images, deletedPosts);
+        deletedUsers.forEach(autocompleteService::removeUser);
+        logger.info("Success! Bulk deleted {} users, {} posts and {} comments",
+                result.getUsers(), result.getPosts(), result.getComments());
+        return result;
+    }
+
+    private void deletePosts(List<Post> posts, BulkDeleteResultDto result, List<String> images, List<Long> deletedPosts) {
+        if (posts.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(posts.size());
+        for (Post post : posts) {
+            ids.add(post.getId());
+            images.addAll(post.getPostImagesPath());
+        }
+        result.setReactions(result.getReactions() + reactionCleaner.deleteOnPosts(ids));
+        result.setComments(result.getComments() + commentRepository.deleteAllByPostIds(ids));
+        result.setPosts(result.getPosts() + postRepository.deleteAllByIds(ids));
+        deletedPosts.addAll(ids);
+    }
+
+    /**
+     * Deletes the given comments with all their replies in one statement: a reply's path starts with the path
+     * of the comment it answers, the same prefix match {@link CommentRepository#deleteSubtree} uses for one thread.
+     */
+    private void deleteThreads(List<Comment> roots, BulkDeleteResultDto result, Consumer<Long> touchedPost) {
+        if (roots.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(roots.size());
+        List<String> paths = new ArrayList<>(roots.size());
+        for (Comment root : roots) {
+            ids.add(root.getId());
+            // the post is a lazy proxy here; reading its id does not load it
+            if (root.getPost() != null) {
+                touchedPost.accept(root.getPost().getId());
+            }
+            // comments written before threading have no path and no replies
+            if (root.getPath() != null) {
+                paths.add(root.getPath());
+            }
+        }
+        int reactions = reactionCleaner.deleteOnThreads(ids, paths);
+        StringBuilder where = new StringBuilder("id in (" + inList(ids.size()) + ")");
+        List<Object> args = new ArrayList<>(ids);
+        for (String path : paths) {
+            where.append(" or path like ?");
+            args.add(path + "%");
+        }
+        int deleted = jdbcTemplate.update("delete from comment where " + where, args.toArray());
+        result.setReactions(result.getReactions() + reactions);
+        result.setComments(result.getComments() + deleted);
+    }
+
+    private static String inList(int size) {
+        return String.join(", ", Collections.nCopies(size, "?"));
+    }
+
+    private void afterDelete(BulkDeleteResultDto result, List<String> images, List<Long> deletedPosts) {
+        for (Long postId : deletedPosts) {
+            trendingService.removePost(postId);
+            postSearchIndex.delete(postId);
+        }
+        result.setImages(images.size());
+        if (!images.isEmpty()) {
+            result.setImagesDeleted(awsS3Service.deleteImages(images));
+        }
+    }
+
+    private <T> List<List<T>> chunks(Collection<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        List<T> chunk = new ArrayList<>(Math.min(items.size(), chunkSize));
+        for (T item : items) {
+            chunk.add(item);
+            if (chunk.size() == chunkSize) {
+                chunks.add(chunk);
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,158 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Category;
+import com.blogapp.mapper.CategoryMapper;
+import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.repository.CategoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+/**
+ * The whole category table held in memory as an immutable snapshot indexed by id and by name.
+ * Reads are a volatile load plus a map lookup; writers copy the current snapshot, apply their
+ * change and publish the new one, so a reader always sees one consistent version.
+ */
+@Service
+public class CategoryCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(CategoryCatalog.class);
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CategoryMapper categoryMapper;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    public Optional<CategoryDto> findById(Long categoryId) {
+        Category category = snapshot().byId.get(categoryId);
+        return category == null ? Optional.empty() : Optional.of(categoryMapper.toDto(category));
+    }
+
+    public Optional<CategoryDto> findByName(String categoryName) {
+        Category category = snapshot().byName.get(nameKey(categoryName));
+        return category == null ? Optional.empty() : Optional.of(categoryMapper.toDto(category));
+    }
+
+    public List<CategoryDto> findAll() {
+        return snapshot().byId.values().stream().map(categoryMapper::toDto).collect(Collectors.toList());
+    }
+
+    /**
+     * A detached copy to hang on a post: it carries the id for the foreign key and the name for the
+     * response, without a select and without sharing the snapshot's own instance.
+     */
+    public Optional<Category> reference(Long categoryId) {
+        Category category = snapshot().byId.get(categoryId);
+        return category == null ? Optional.empty() : Optional.of(copy(category));
+    }
+
+    public long version() {
+        return snapshot().version;
+    }
+
+    // derived from the rows rather than the version counter, so it is the same on every instance and after a restart
+    public ResourceVersion listVersion() {
+        return snapshot().listVersion;
+    }
+
+    // called after a category row is saved
+    public synchronized void put(Category saved) {
+        Snapshot snapshot = snapshot();
+        Map<Long, Category> byId = new TreeMap<>(snapshot.byId);
+        byId.put(saved.getId(), copy(saved));
+        publish(snapshot.version + 1, byId.values());
+    }
+
+    // called after a category row is deleted
+    public synchronized void remove(Long categoryId) {
+        Snapshot snapshot = snapshot();
+        if (!snapshot.byId.containsKey(categoryId)) {
+            return;
+        }
+        Map<Long, Category> byId = new TreeMap<>(snapshot.byId);
+        byId.remove(categoryId);
+        publish(snapshot.version + 1, byId.values());
+    }
+
+    // also picks up changes made by other instances or directly in the database
+    @Scheduled(fixedDelayString = "${category.catalog.refresh-ms:60000}")
+    public synchronized void reload() {
+        Snapshot snapshot = current.get();
+        List<Category> categories = categoryRepository.findAll(Sort.by("id"));
+        publish(snapshot == null ? 1 : snapshot.version + 1, categories);
+        logger.info("Success! Category catalog loaded: {} categories, version {}", categories.size(), version());
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current.get();
+        if (snapshot == null) {
+            reload();
+            snapshot = current.get();
+        }
+        return snapshot;
+    }
+
+    private void publish(long version, Collection<Category> categories) {
+        Map<Long, Category> byId = new TreeMap<>();
+        Map<String, Category> byName = new HashMap<>();
+        for (Category category : categories) {
+            Category copy = copy(category);
+            byId.put(copy.getId(), copy);
+            byName.put(nameKey(copy.getCategoryName()), copy);
+        }
+        ResourceVersion.Builder listVersion = ResourceVersion.weak();
+        for (Category category : byId.values()) {
+            listVersion.add(category.getId()).touch(category.getUpdateAt());
+        }
+        current.set(new Snapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(byName),
+                listVersion.build()));
+    }
+
+    // MySQL's default collation compares category names case-insensitively; keep the same semantics
+    private static String nameKey(String categoryName) {
+        return categoryName == null ? null : categoryName.toLowerCase(Locale.ROOT);
+    }
+
+    private static Category copy(Category category) {
+        Category copy = new Category();
+        copy.setId(category.getId());
+        copy.setCategoryName(category.getCategoryName());
+        copy.setDescription(category.getDescription());
+        copy.setCreateAt(category.getCreateAt());
+        copy.setUpdateAt(category.getUpdateAt());
+        return copy;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Map<Long, Category> byId;
+        private final Map<String, Category> byName;
+        private final ResourceVersion listVersion;
+
+        private Snapshot(long version, Map<Long, Category> byId, Map<String, Category> byName,
+                         ResourceVersion listVersion) {
+            this.version = version;
+            this.byId = byId;
+            this.byName = byName;
+            this.listVersion = listVersion;
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.blogapp.service;
 
 import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.ResourceVersion;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -12,4 +13,6 @@ public interface CategoryService {
     CategoryDto updateCategory(Long categoryId,CategoryDto categoryDto);
     List<CategoryDto> listOfCategorys();
     CategoryDto findCategorys(Long categoryId);
+    ResourceVersion findCategoryVersion(Long categoryId);
+    ResourceVersion findCategorysVersion();
 }
@@ -1,20 +1,23 @@
 package com.blogapp.service;
 
+import com.blogapp.config.CacheConfig;
 import com.blogapp.entity.Category;
 import com.blogapp.exception.CategoryAlreadyExistsException;
 import com.blogapp.exception.CategoryNotFoundException;
+import com.blogapp.mapper.CategoryMapper;
 import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.ResourceVersion;
 import com.blogapp.repository.CategoryRepository;
-import org.modelmapper.ModelMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 public class CategoryServiceImpl implements CategoryService {
@@ -25,24 +28,31 @@ public class CategoryServiceImpl implements CategoryService {
     private CategoryRepository categoryRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CategoryMapper categoryMapper;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
 
     public CategoryDto mapToDto(Category category) {
-        return modelMapper.map(category, CategoryDto.class);
+        return categoryMapper.toDto(category);
     }
 
     public Category mapToEntity(CategoryDto categoryDto) {
-        return modelMapper.map(categoryDto, Category.class);
+        return categoryMapper.toEntity(categoryDto);
     }
 
     @Override
     public CategoryDto createCategory(CategoryDto categoryDto) {
         logger.info("Attempting to create category with name: {}", categoryDto.getCategoryName());
-        Optional<Category> opCategory;
+        Optional<CategoryDto> opCategory;
         Category category = null;
         Category saved = null;
         try {
-            opCategory = categoryRepository.findByCategoryName(categoryDto.getCategoryName());
+            // duplicate check against the in-memory catalog instead of a query
+            opCategory = categoryCatalog.findByName(categoryDto.getCategoryName());
             if (opCategory.isPresent()) {
                 logger.warn("Category creation failed: Category '{}' already exists.", categoryDto.getCategoryName());
                 throw new CategoryAlreadyExistsException("Category " + categoryDto.getCategoryName() + " already exists.");
@@ -51,6 +61,7 @@ public class CategoryServiceImpl implements CategoryService {
             category.setCreateAt(LocalDateTime.now().withNano(0));
             category.setUpdateAt(LocalDateTime.now().withNano(0));
             saved = categoryRepository.save(category);
+            categoryCatalog.put(saved);
             logger.info("Category '{}' created successfully with ID: {}", categoryDto.getCategoryName(), saved.getId());
             return mapToDto(saved);
         } catch (Exception e) {
@@ -66,13 +77,14 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public String deleteCategory(Long categoryId) {
         logger.info("Attempting to delete category with ID: {}", categoryId);
-        Category category;
+        CategoryDto category;
         try {
-            category = categoryRepository.findById(categoryId).orElseThrow(
+            category = categoryCatalog.findById(categoryId).orElseThrow(
                     ()-> new CategoryNotFoundException("Category not found! By Id: " + categoryId)
             );
             if(category != null){
                 categoryRepository.deleteById(categoryId);
+                categoryCatalog.remove(categoryId);
                 logger.info("Category with ID: {} was deleted successfully.", categoryId);
                 return "Category is deleted by category id: " + categoryId;
             }
@@ -86,16 +98,18 @@ public class CategoryServiceImpl implements CategoryService {
         return "Category is not found!";
     }
 
+    // cached posts carry the category name, so they go too
     @Override
+    @CacheEvict(cacheNames = CacheConfig.POSTS, allEntries = true)
     public CategoryDto updateCategory(Long categoryId, CategoryDto categoryDto) {
         logger.info("Attempting to update category with ID: {}", categoryId);
         Optional<Category> opCategory;
-        Category categoryObj = null;
+        CategoryDto categoryObj = null;
         Category category = null;
         Category saved = null;
         try {
 
-            categoryObj = categoryRepository.findById(categoryId).orElseThrow(
+            categoryObj = categoryCatalog.findById(categoryId).orElseThrow(
                     ()-> new CategoryNotFoundException("Category not found! By Id: "+categoryId)
             );
             if(categoryObj != null){
@@ -105,6 +119,11 @@ public class CategoryServiceImpl implements CategoryService {
                 category.setCreateAt(categoryObj.getCreateAt());
                 category.setUpdateAt(LocalDateTime.now().withNano(0));
                 saved = categoryRepository.save(category);
+                categoryCatalog.put(saved);
+                // every post document carries the category name it is searched by
+                if (!Objects.equals(saved.getCategoryName(), categoryObj.getCategoryName())) {
+                    postSearchIndex.reindexCategory(categoryId, saved.getCategoryName());
+                }
                 logger.info("Category with ID: {} updated successfully.", categoryId);
                 return mapToDto(saved);
             }
@@ -123,20 +142,17 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public List<CategoryDto> listOfCategorys() {
         logger.info("Fetching list of all categories.");
-        List<Category> categoryList = null;
         List<CategoryDto> categoryDtoList = null;
         try {
-            categoryList = categoryRepository.findAll();
-            if(!categoryList.isEmpty()){
-                logger.info("Fetched {} categories!", categoryList.size());
-                categoryDtoList = categoryList.stream().map(this::mapToDto).collect(Collectors.toList());
+            categoryDtoList = categoryCatalog.findAll();
+            if(!categoryDtoList.isEmpty()){
+                logger.info("Fetched {} categories!", categoryDtoList.size());
                 return categoryDtoList;
             }
             logger.warn("Category's not found!");
         } catch (Exception e) {
             logger.error("Failed to fetch categories: {}", e.getMessage());
         } finally {
-            categoryList = null;
             categoryDtoList = null;
         }
         return null;
@@ -145,14 +161,14 @@ public class CategoryServiceImpl implements CategoryService {
     @Override
     public CategoryDto findCategorys(Long categoryId) {
         logger.info("Fetching category with ID: {}", categoryId);
-        Category category = null;
+        CategoryDto category = null;
         try {
-            category = categoryRepository.findById(categoryId).orElseThrow(
+            category = categoryCatalog.findById(categoryId).orElseThrow(
                     () -> new CategoryNotFoundException("Category not found! By Id: " + categoryId)
             );
             if (category != null){
                 logger.info("Category with ID: {} found.", categoryId);
-                return mapToDto(category);
+                return category;
             }
             logger.warn("Category with ID: {} not found.", categoryId);
         } catch (Exception e) {
@@ -162,4 +178,17 @@ public class CategoryServiceImpl implements CategoryService {
         }
         return null;
     }
+
+    // both answered from the in-memory catalog, no query at all
+    @Override
+    public ResourceVersion findCategoryVersion(Long categoryId) {
+        return categoryCatalog.findById(categoryId)
+                .map(category -> new ResourceVersion(category.getId(), category.getUpdateAt()))
+                .orElse(null);
+    }
+
+    @Override
+    public ResourceVersion findCategorysVersion() {
+        return categoryCatalog.listVersion();
+    }
 }
@@ -2,6 +2,8 @@ package com.blogapp.service;
 
 import com.blogapp.payload.CommentDetailsDto;
 import com.blogapp.payload.CommentDto;
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.ResourceVersion;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -17,4 +19,14 @@ public interface CommentService {
     CommentDetailsDto findByCommentId(Long commentId);
 
     List<CommentDetailsDto> listOfComments();
+
+    ResourceVersion findCommentVersion(Long commentId);
+
+    Long findCommentAuthorId(Long commentId);
+
+    ResourceVersion findCommentsVersion();
+
+    CursorPage<CommentDetailsDto> listOfCommentsByPost(Long postId, String cursor, Integer size);
+
+    CommentDetailsDto findThread(Long commentId, Integer depth);
 }
@@ -4,21 +4,31 @@ import com.blogapp.entity.Comment;
 import com.blogapp.entity.Post;
 import com.blogapp.entity.User;
 import com.blogapp.exception.CommentNotFountException;
+import com.blogapp.exception.InvalidReplyException;
 import com.blogapp.exception.PostNotFoundException;
 import com.blogapp.exception.UserNotFoundException;
+import com.blogapp.mapper.CommentMapper;
 import com.blogapp.payload.CommentDetailsDto;
 import com.blogapp.payload.CommentDto;
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.ResourceVersion;
 import com.blogapp.repository.CommentRepository;
 import com.blogapp.repository.PostRepository;
 import com.blogapp.repository.UserRepository;
-import org.modelmapper.ModelMapper;
+import com.blogapp.util.CursorCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -27,6 +37,10 @@ public class CommentServiceImpl implements CommentService {
 
     private static final Logger logger = LoggerFactory.getLogger(CommentServiceImpl.class);
 
+    // 12 digits plus the separator per level; 760 characters keeps the path index under InnoDB's 3072-byte key limit
+    private static final int PATH_SEGMENT_LENGTH = 13;
+    private static final int MAX_DEPTH = 760 / PATH_SEGMENT_LENGTH - 1;
+
     @Autowired
     private CommentRepository commentRepository;
 
@@ -37,14 +51,29 @@ public class CommentServiceImpl implements CommentService {
     private UserRepository userRepository;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Autowired
+    private ReactionCleaner reactionCleaner;
+
+    @Value("${comment.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${comment.page.max-size:100}")
+    private int maxPageSize;
 
     public CommentDetailsDto mapToDto(Comment comment) {
-        return modelMapper.map(comment, CommentDetailsDto.class);
+        return commentMapper.toDetailsDto(comment);
     }
 
     public Comment mapToEntity(CommentDto commentDto) {
-        return modelMapper.map(commentDto, Comment.class);
+        return commentMapper.toEntity(commentDto);
     }
 
     @Override
@@ -53,6 +82,7 @@ public class CommentServiceImpl implements CommentService {
         Comment comment = null;
         Post post;
         User user;
+        Comment parent = null;
         Comment saved = null;
         try {
             comment = mapToEntity(commentDto);
@@ -73,10 +103,35 @@ public class CommentServiceImpl implements CommentService {
                comment.setUser(user);
             }
 
+            if (commentDto.getParentId() != null) {
+                parent = commentRepository.findById(commentDto.getParentId()).orElseThrow(
+                        () -> new CommentNotFountException("Parent comment not exist! by id: " + commentDto.getParentId())
+                );
+                if (!parent.getPost().getId().equals(commentDto.getPostId())) {
+                    throw new InvalidReplyException("Parent comment " + parent.getId() + " is not on post " + commentDto.getPostId());
+                }
+                if (parent.getDepth() >= MAX_DEPTH) {
+                    throw new InvalidReplyException("Reply thread is too deep! max depth: " + MAX_DEPTH);
+                }
+                logger.info("Success! parent comment was founded! by id: {}", parent.getId());
+            }
+
             comment.setCreateAt(LocalDateTime.now().withNano(0));
             comment.setUpdateAt(LocalDateTime.now().withNano(0));
-            saved = commentRepository.save(comment);
+            // comment row, its path and post.comment_count move together
+            Comment toSave = comment;
+            String parentPath = parent != null ? pathOf(parent) : "";
+            int depth = parent != null ? parent.getDepth() + 1 : 0;
+            saved = transactionTemplate.execute(status -> {
+                Comment savedComment = commentRepository.save(toSave);
+                // the path ends with the comment's own id, which only exists after the insert
+                savedComment.setPath(parentPath + pathSegment(savedComment.getId()));
+                savedComment.setDepth(depth);
+                postRepository.incrementCommentCount(commentDto.getPostId());
+                return savedComment;
+            });
 
+            trendingService.recordComment(commentDto.getPostId());
             logger.info("Comment added successfully with ID: {}", saved.getId());
             return mapToDto(saved);
         } catch (Exception e) {
@@ -85,6 +140,7 @@ public class CommentServiceImpl implements CommentService {
             comment = null;
             post = null;
             user = null;
+            parent = null;
             saved = null;
         }
         return null;
@@ -99,8 +155,19 @@ public class CommentServiceImpl implements CommentService {
                     () -> new CommentNotFountException("Comment not found! by id: " + commentId)
             );
             if(comment != null){
-                commentRepository.deleteById(commentId);
-                logger.info("Comment with ID: {} deleted successfully.", commentId);
+                // the post is a lazy proxy here; reading its id does not load it
+                Long postId = comment.getPost() != null ? comment.getPost().getId() : null;
+                String path = pathOf(comment);
+                // replies go with the comment they answer, in one statement over the path index
+                Integer deleted = transactionTemplate.execute(status -> {
+                    reactionCleaner.deleteOnThreads(List.of(commentId), List.of(path));
+                    int rows = commentRepository.deleteSubtree(commentId, path);
+                    if (postId != null) {
+                        postRepository.decrementCommentCount(postId, rows);
+                    }
+                    return rows;
+                });
+                logger.info("Comment with ID: {} deleted successfully with {} rows in its thread.", commentId, deleted);
                 return "Comment is deleted by comment id: " + commentId;
             }
             logger.warn("Comment with ID: {} not found.", commentId);
@@ -119,7 +186,7 @@ public class CommentServiceImpl implements CommentService {
         Comment comment = null;
         Comment saved = null;
         try {
-            comment = commentRepository.findById(commentId).orElseThrow(
+            comment = commentRepository.findWithUserById(commentId).orElseThrow(
                     () -> new CommentNotFountException("Comment not found! By id: " + commentId)
             );
             if(comment != null){
@@ -146,20 +213,17 @@ public class CommentServiceImpl implements CommentService {
     @Override
     public CommentDetailsDto findByCommentId(Long commentId) {
         logger.info("Fetching comment with ID: {}", commentId);
-        Optional<Comment> opComment;
         try {
-            Comment comment = commentRepository.findById(commentId).orElseThrow(
+            CommentDetailsDto comment = commentRepository.findDetailsById(commentId).orElseThrow(
                     () -> new CommentNotFountException("Comment not found! By Id: " + commentId)
             );
             if (comment != null){
                 logger.info("Comment with ID: {} found.", commentId);
-                return mapToDto(comment);
+                return comment;
             }
             logger.warn("Comment with ID: {} not found.", commentId);
         } catch (Exception e) {
             logger.error("Failed to fetch comment: {}", e.getMessage());
-        } finally {
-            opComment = Optional.empty();
         }
         return null;
     }
@@ -170,7 +234,7 @@ public class CommentServiceImpl implements CommentService {
         List<Comment> commentList = null;
         List<CommentDetailsDto> commentDtoList = null;
         try {
-            commentList = commentRepository.findAll();
+            commentList = commentRepository.findAllWithUser();
             if(!commentList.isEmpty()){
                 logger.info("Fetched List Comments {} Data", commentList.size());
                 commentDtoList = commentList.stream().map(this::mapToDto).collect(Collectors.toList());
@@ -185,4 +249,132 @@ public class CommentServiceImpl implements CommentService {
         }
         return null;
     }
+
+    @Override
+    public ResourceVersion findCommentVersion(Long commentId) {
+        try {
+            ResourceVersion version = commentRepository.findVersionById(commentId).orElse(null);
+            if (version != null) {
+                return version;
+            }
+            logger.warn("Comment version with ID: {} not found.", commentId);
+        } catch (Exception e) {
+            logger.error("Failed to fetch comment version: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public Long findCommentAuthorId(Long commentId) {
+        try {
+            Long authorId = commentRepository.findAuthorIdById(commentId).orElse(null);
+            if (authorId != null) {
+                return authorId;
+            }
+            logger.warn("Comment author with ID: {} not found.", commentId);
+        } catch (Exception e) {
+            logger.error("Failed to fetch comment author: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public ResourceVersion findCommentsVersion() {
+        try {
+            return commentRepository.findAllVersion();
+        } catch (Exception e) {
+            logger.error("Failed to fetch comments version: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public CursorPage<CommentDetailsDto> listOfCommentsByPost(Long postId, String cursor, Integer size) {
+        List<CommentDetailsDto> commentList = null;
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        // decoded outside the try block so a bad cursor surfaces as a 400 instead of an empty result
+        CursorCodec.Position position = cursor == null || cursor.isBlank() ? null : CursorCodec.decode(cursor);
+        try {
+            logger.info("Fetching comments of post ID: {} with page size: {}", postId, pageSize);
+            if (!postRepository.existsById(postId)) {
+                throw new PostNotFoundException("Post not exist! by id: " + postId);
+            }
+            // one extra row tells us whether another page exists without a COUNT(*)
+            PageRequest limit = PageRequest.of(0, pageSize + 1);
+            if (position == null) {
+                commentList = commentRepository.findFirstPageByPostId(postId, limit);
+            } else {
+                commentList = commentRepository.findPageByPostIdAfter(postId, position.getTime(), position.getId(), limit);
+            }
+
+            String nextCursor = null;
+            if (commentList.size() > pageSize) {
+                commentList = commentList.subList(0, pageSize);
+                CommentDetailsDto last = commentList.get(pageSize - 1);
+                nextCursor = CursorCodec.encode(last.getCreateAt(), last.getId());
+            }
+            logger.info("Fetched {} comments of post ID: {}", commentList.size(), postId);
+            return new CursorPage<>(commentList, nextCursor, pageSize);
+        } catch (Exception e) {
+            logger.error("Failed to fetch comments of post: {}", e.getMessage());
+        } finally {
+            commentList = null;
+        }
+        return null;
+    }
+
+    @Override
+    public CommentDetailsDto findThread(Long commentId, Integer depth) {
+        logger.info("Fetching thread of comment ID: {} with depth: {}", commentId, depth);
+        Comment root = null;
+        List<CommentDetailsDto> subtree = null;
+        try {
+            root = commentRepository.findById(commentId).orElseThrow(
+                    () -> new CommentNotFountException("Comment not found! By Id: " + commentId)
+            );
+            int maxDepth = (depth == null || depth < 0) ? MAX_DEPTH : root.getDepth() + depth;
+            subtree = commentRepository.findSubtree(pathOf(root), maxDepth);
+            logger.info("Fetched thread of comment ID: {} with {} comments", commentId, subtree.size());
+            return assembleThread(root, subtree);
+        } catch (Exception e) {
+            logger.error("Failed to fetch comment thread: {}", e.getMessage());
+        } finally {
+            root = null;
+            subtree = null;
+        }
+        return null;
+    }
+
+    // rows arrive in path order, so every parent is indexed before its replies: one pass, no recursion
+    private CommentDetailsDto assembleThread(Comment root, List<CommentDetailsDto> subtree) {
+        // a comment written before threading has no path of its own, so the subtree query never returns it;
+        // its replies still carry its id as their first path segment and hang off it below
+        CommentDetailsDto thread = !subtree.isEmpty() && subtree.get(0).getId().equals(root.getId())
+                ? subtree.get(0)
+                : mapToDto(root);
+        thread.setReplies(new ArrayList<>());
+        Map<Long, CommentDetailsDto> byId = new HashMap<>(subtree.size() * 2);
+        byId.put(thread.getId(), thread);
+        for (CommentDetailsDto comment : subtree) {
+            if (comment == thread) {
+                continue;
+            }
+            comment.setReplies(new ArrayList<>());
+            byId.put(comment.getId(), comment);
+            CommentDetailsDto parent = byId.get(comment.getParentId());
+            if (parent != null) {
+                parent.getReplies().add(comment);
+            }
+        }
+        return thread;
+    }
+
+    private static String pathSegment(Long commentId) {
+        return String.format("%012d/", commentId);
+    }
+
+    // comments written before threading have no path; replies to them start from their id alone
+    private static String pathOf(Comment comment) {
+        return comment.getPath() != null ? comment.getPath() : pathSegment(comment.getId());
+    }
 }
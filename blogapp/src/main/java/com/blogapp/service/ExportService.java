@@ -0,0 +1,114 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.mapper.CommentMapper;
+import com.blogapp.mapper.PostMapper;
+import com.blogapp.payload.CommentExportDto;
+import com.blogapp.payload.PostExportDto;
+import com.blogapp.repository.CommentRepository;
+import com.blogapp.repository.PostRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Writes every post or comment as newline-delimited JSON, one object per line, straight from a forward-only
+ * cursor. Each row is mapped, written and detached before the next is read, so heap use does not grow with
+ * the table.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // rows between flushes of the output and of the persistence context
+    @Value("${export.flush-every:500}")
+    private int flushEvery;
+
+    @Transactional(readOnly = true)
+    public long exportPosts(OutputStream out) throws IOException {
+        try (Stream<Post> posts = postRepository.streamAll()) {
+            long written = write(posts, out, PostExportDto.class, postMapper::toExportDto, post -> {
+                entityManager.detach(post);
+                entityManager.detach(post.getUser());
+                entityManager.detach(post.getCategory());
+            });
+            logger.info("Success! Exported {} posts", written);
+            return written;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long exportComments(OutputStream out) throws IOException {
+        try (Stream<Comment> comments = commentRepository.streamAll()) {
+            long written = write(comments, out, CommentExportDto.class, commentMapper::toExportDto, comment -> {
+                entityManager.detach(comment);
+                entityManager.detach(comment.getUser());
+            });
+            logger.info("Success! Exported {} comments", written);
+            return written;
+        }
+    }
+
+    private <E, D> long write(Stream<E> rows, OutputStream out, Class<D> type, Function<E, D> mapper,
+                              Consumer<E> detach) throws IOException {
+        // the caller owns the stream; flushing per row would turn every line into its own network write
+        SequenceWriter writer = objectMapper.writerFor(type)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out);
+        long written = 0;
+        Iterator<E> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            E row = iterator.next();
+            writer.write(mapper.apply(row));
+            detach.accept(row);
+            if (++written % flushEvery == 0) {
+                writer.flush();
+                // also drops the uninitialised proxies detach leaves behind, such as the post of each comment
+                entityManager.clear();
+            }
+        }
+        if (written > 0) {
+            writer.flush();
+            out.write('\n');
+        }
+        out.flush();
+        return written;
+    }
+}
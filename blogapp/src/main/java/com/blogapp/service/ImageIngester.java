@@ -0,0 +1,234 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import jakarta.annotation.PreDestroy;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.DnsResolver;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.SystemDefaultDnsResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Copies the images of imported posts from their old location into the bucket, one post per task on the
+ * import image pool. A post's images are copied all or nothing; URLs already in the bucket are kept as they are.
+ */
+@Service
+public class ImageIngester {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageIngester.class);
+
+    private final AmazonS3 amazonS3;
+    private final ExecutorService importExecutor;
+    private final String bucketName;
+    private final Duration timeout;
+    private final int maxBytes;
+    private final CloseableHttpClient httpClient;
+    private final String bucketUrl;
+
+    @Autowired
+    public ImageIngester(
+            AmazonS3 amazonS3,
+            @Qualifier("importImageExecutor") ExecutorService importExecutor,
+            @Value("${aws.s3.bucket}") String bucketName,
+            @Value("${import.images.timeout-ms:10000}") long timeoutMs,
+            @Value("${import.images.max-bytes:10485760}") int maxBytes,
+            @Value("${import.images.pool-size:8}") int poolSize
+    ){
+        this(amazonS3, importExecutor, bucketName, timeoutMs, maxBytes, poolSize, SystemDefaultDnsResolver.INSTANCE);
+    }
+
+    ImageIngester(AmazonS3 amazonS3, ExecutorService importExecutor, String bucketName, long timeoutMs, int maxBytes,
+                  int poolSize, DnsResolver dnsResolver) {
+        this.amazonS3 = amazonS3;
+        this.importExecutor = importExecutor;
+        this.bucketName = bucketName;
+        this.timeout = Duration.ofMillis(timeoutMs);
+        this.maxBytes = maxBytes;
+        int timeoutMillis = (int) timeout.toMillis();
+        this.httpClient = HttpClients.custom()
+                // the connection goes to the addresses the check let through, never to a second lookup of the name
+                .setDnsResolver(host -> publicAddresses(host, dnsResolver))
+                // a redirect could point anywhere, including where the address check would not let us go
+                .disableRedirectHandling()
+                // a failed download fails its post's import, as with any other copy error
+                .disableAutomaticRetries()
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout(timeoutMillis)
+                        .setSocketTimeout(timeoutMillis)
+                        .setConnectionRequestTimeout(timeoutMillis)
+                        .build())
+                // one connection per import thread, all of which may be fetching from the same old host
+                .setMaxConnPerRoute(poolSize)
+                .setMaxConnTotal(poolSize)
+                .build();
+        this.bucketUrl = amazonS3.getUrl(bucketName, "").toString();
+    }
+
+    public boolean isStored(String imageUrl) {
+        return imageUrl.startsWith(bucketUrl);
+    }
+
+    /**
+     * Completes with the bucket URLs in input order, or exceptionally with nothing left behind in the bucket.
+     */
+    public CompletableFuture<List<String>> ingest(List<String> imageUrls) {
+        return CompletableFuture.supplyAsync(() -> copyAll(imageUrls), importExecutor);
+    }
+
+    private List<String> copyAll(List<String> imageUrls) {
+        List<String> urls = new ArrayList<>(imageUrls.size());
+        List<String> copied = new ArrayList<>();
+        try {
+            for (String imageUrl : imageUrls) {
+                if (isStored(imageUrl)) {
+                    urls.add(imageUrl);
+                    continue;
+                }
+                String key = copy(imageUrl);
+                copied.add(key);
+                urls.add(amazonS3.getUrl(bucketName, key).toString());
+            }
+            return urls;
+        } catch (RuntimeException e) {
+            delete(copied);
+            throw e;
+        }
+    }
+
+    private String copy(String imageUrl) {
+        URI uri = URI.create(imageUrl);
+        if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme())) {
+            throw new IllegalArgumentException("Only http and https image URLs can be imported: " + imageUrl);
+        }
+        if (uri.getHost() == null) {
+            throw new IllegalArgumentException("Image URL has no host: " + uri);
+        }
+        try {
+            byte[] body;
+            String contentType;
+            try (CloseableHttpResponse response = httpClient.execute(new HttpGet(uri))) {
+                int status = response.getStatusLine().getStatusCode();
+                if (status != 200) {
+                    throw new IllegalStateException("Image download failed with status " + status + ": " + imageUrl);
+                }
+                HttpEntity entity = response.getEntity();
+                try (InputStream in = entity != null ? entity.getContent() : InputStream.nullInputStream()) {
+                    body = in.readNBytes(maxBytes + 1);
+                }
+                Header header = response.getFirstHeader("Content-Type");
+                contentType = header != null ? header.getValue() : null;
+            }
+            if (body.length > maxBytes) {
+                throw new IllegalStateException("Image is larger than " + maxBytes + " bytes: " + imageUrl);
+            }
+            ObjectMetadata metadata = new ObjectMetadata();
+            metadata.setContentLength(body.length);
+            if (contentType != null) {
+                metadata.setContentType(contentType);
+            }
+            String key = UUID.randomUUID() + extension(uri.getPath());
+            PutObjectRequest request = new PutObjectRequest(bucketName, key, new ByteArrayInputStream(body), metadata);
+            request.setSdkClientExecutionTimeout((int) timeout.toMillis());
+            amazonS3.putObject(request);
+            return key;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Removes copies made by {@link #ingest} that did not end up on a post. URLs outside the bucket are ignored.
+     */
+    public void discard(List<String> imageUrls) {
+        delete(imageUrls.stream().filter(this::isStored).map(url -> url.substring(bucketUrl.length())).toList());
+    }
+
+    // import files come from outside, so their URLs must not reach the host itself, the internal network or the
+    // cloud metadata endpoint; every address the name resolves to has to be a public one. This is the client's
+    // only lookup, so a name that answers differently the next time it is asked cannot get past the check
+    private static InetAddress[] publicAddresses(String host, DnsResolver dnsResolver) {
+        InetAddress[] addresses;
+        try {
+            addresses = dnsResolver.resolve(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Unknown image host: " + host);
+        }
+        for (InetAddress address : addresses) {
+            if (!isPublic(address)) {
+                throw new IllegalArgumentException("Image host is not a public address: " + host);
+            }
+        }
+        return addresses;
+    }
+
+    private static boolean isPublic(InetAddress address) {
+        if (address.isAnyLocalAddress() || address.isLoopbackAddress() || address.isLinkLocalAddress()
+                || address.isSiteLocalAddress() || address.isMulticastAddress()) {
+            return false;
+        }
+        byte[] bytes = address.getAddress();
+        if (address instanceof Inet6Address) {
+            // unique local fc00::/7, which includes the fd00:ec2::254 metadata address
+            return (bytes[0] & 0xfe) != 0xfc;
+        }
+        // carrier-grade NAT 100.64.0.0/10 and the 0.0.0.0/8 block are not reachable public hosts either
+        int first = bytes[0] & 0xff;
+        return first != 0 && !(first == 100 && (bytes[1] & 0xc0) == 64);
+    }
+
+    private void delete(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            amazonS3.deleteObjects(new DeleteObjectsRequest(bucketName)
+                    .withKeys(keys.toArray(new String[0]))
+                    .withQuiet(true));
+        } catch (Exception e) {
+            logger.error("Failed! to remove copied images {} : {}", keys, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    // same naming as uploads: a random name that keeps the original extension, or none if there is no short one
+    static String extension(String path) {
+        if (path == null) {
+            return "";
+        }
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        return dot > slash && path.length() - dot <= 6 ? path.substring(dot) : "";
+    }
+}
@@ -1,15 +1,14 @@
 package com.blogapp.service;
 
+import com.blogapp.payload.CursorPage;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.util.List;
-
 @Service
 public interface ImageUploader {
     String uploadImage(MultipartFile image);
 
-    List<String> allFiles();
+    CursorPage<String> allFiles(String cursor, Integer size);
 
     String preSignedUrl(String fileName);
 
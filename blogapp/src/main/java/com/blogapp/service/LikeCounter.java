@@ -0,0 +1,188 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Reaction;
+import com.blogapp.util.DeltaAccumulator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Aggregates like/unlike deltas in memory and applies them as batched {@code like_count = like_count + ?}
+ * updates every {@code like.flush-interval-ms}, so a viral post costs one row update per flush instead of
+ * one contended row lock per click. An hourly recount from the {@code reaction} table repairs counters whose
+ * deltas were lost with the process that held them.
+ */
+@Service
+public class LikeCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeCounter.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${like.reconcile.chunk-size:1000}")
+    private int reconcileChunkSize;
+
+    private final Map<Reaction.TargetType, DeltaAccumulator<Long>> pending = new EnumMap<>(Reaction.TargetType.class);
+
+    // shared by row writes and flushes, taken exclusively by the recount while it reads a range
+    private final Map<Reaction.TargetType, ReadWriteLock> locks = new EnumMap<>(Reaction.TargetType.class);
+
+    public LikeCounter() {
+        for (Reaction.TargetType targetType : Reaction.TargetType.values()) {
+            pending.put(targetType, new DeltaAccumulator<>());
+            locks.put(targetType, new ReentrantReadWriteLock());
+        }
+    }
+
+    public void add(Reaction.TargetType targetType, Long targetId, long delta) {
+        pending.get(targetType).add(targetId, delta);
+    }
+
+    /**
+     * Runs a write to the {@code reaction} table and adds the change it reports to the pending delta, as one
+     * step: the recount sees either both or neither, never a row without its delta or the other way round.
+     * Writes to different targets still run side by side; only a recount in progress holds them back.
+     */
+    public long apply(Reaction.TargetType targetType, Long targetId, LongSupplier rowChange) {
+        Lock lock = locks.get(targetType).readLock();
+        lock.lock();
+        try {
+            long delta = rowChange.getAsLong();
+            if (delta != 0) {
+                add(targetType, targetId, delta);
+            }
+            return delta;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long pending(Reaction.TargetType targetType, Long targetId) {
+        return pending.get(targetType).pending(targetId);
+    }
+
+    // null when the target row does not exist
+    public Long persisted(Reaction.TargetType targetType, Long targetId) {
+        List<Long> counts = jdbcTemplate.queryForList(
+                "select like_count from " + tableOf(targetType) + " where id = ?", Long.class, targetId);
+        return counts.isEmpty() ? null : counts.get(0);
+    }
+
+    @Scheduled(fixedDelayString = "${like.flush-interval-ms:2000}")
+    public void flush() {
+        pending.forEach(this::flush);
+    }
+
+    private void flush(Reaction.TargetType targetType, DeltaAccumulator<Long> accumulator) {
+        // a drained delta is in neither the accumulator nor the row until the update commits
+        Lock lock = locks.get(targetType).readLock();
+        lock.lock();
+        try {
+            flushLocked(targetType, accumulator);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flushLocked(Reaction.TargetType targetType, DeltaAccumulator<Long> accumulator) {
+        Map<Long, Long> deltas = accumulator.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // ascending ids so concurrent flushes from several instances lock rows in the same order
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((targetId, delta) -> batch.add(new Object[]{delta, targetId}));
+        try {
+            jdbcTemplate.batchUpdate("update " + tableOf(targetType) + " set like_count = like_count + ? where id = ?", batch);
+            logger.info("Success! Flushed like counts of {} {} rows", batch.size(), tableOf(targetType));
+        } catch (Exception e) {
+            // keep the deltas for the next run rather than dropping them
+            deltas.forEach(accumulator::add);
+            logger.error("Failed to flush like counts, {} {} rows kept pending: {}", deltas.size(), tableOf(targetType), e.getMessage());
+        }
+    }
+
+    /**
+     * Sets every {@code like_count} that disagrees with its {@code reaction} rows back to the row count. Deltas
+     * only live in memory until the next flush, so a crash or a kill between a like and its flush leaves the
+     * counter short or long for good; this recount is what brings it back. Runs over ranges of ids, and each
+     * row is written only if it still holds the value that was read, so a flush landing in between wins.
+     * <p>
+     * Deltas still pending on this instance are left out of the expected count, since their flush will add
+     * them. The stored count, the reaction rows and those deltas are read together: one statement for the first
+     * two, under the exclusive lock that {@link #apply} and the flush share, so no like or flush on this instance
+     * lands between the readings. Deltas pending on another instance cannot be seen; a row caught that way is
+     * off until the next recount, never for good.
+     */
+    @Scheduled(cron = "${like.reconcile.cron:0 15 * * * *}")
+    public void reconcile() {
+        pending.forEach((targetType, accumulator) -> {
+            flush(targetType, accumulator);
+            try {
+                int corrected = reconcile(targetType);
+                logger.info("Success! Like counts of {} reconciled, {} rows corrected", tableOf(targetType), corrected);
+            } catch (Exception e) {
+                logger.error("Failed to reconcile like counts of {}: {}", tableOf(targetType), e.getMessage());
+            }
+        });
+    }
+
+    int reconcile(Reaction.TargetType targetType) {
+        String table = tableOf(targetType);
+        Long maxId = jdbcTemplate.queryForObject("select max(id) from " + table, Long.class);
+        int corrected = 0;
+        for (long from = 0; maxId != null && from <= maxId; from += reconcileChunkSize) {
+            long to = from + reconcileChunkSize - 1;
+            List<Object[]> fixes = new ArrayList<>();
+            Lock lock = locks.get(targetType).writeLock();
+            lock.lock();
+            try {
+                jdbcTemplate.query("select t.id, t.like_count, (select count(*) from reaction r " +
+                                "where r.target_type = ? and r.target_id = t.id) from " + table + " t where t.id between ? and ?",
+                        rs -> {
+                    long id = rs.getLong(1);
+                    long stored = rs.getLong(2);
+                    long expected = rs.getLong(3) - pending(targetType, id);
+                    if (stored != expected) {
+                        fixes.add(new Object[]{expected, id, stored});
+                    }
+                }, targetType.name(), from, to);
+            } finally {
+                lock.unlock();
+            }
+            if (!fixes.isEmpty()) {
+                for (int updated : jdbcTemplate.batchUpdate(
+                        "update " + table + " set like_count = ? where id = ? and like_count = ?", fixes)) {
+                    corrected += Math.max(updated, 0);
+                }
+            }
+        }
+        return corrected;
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing pending like counts before shutdown");
+        flush();
+    }
+
+    private static String tableOf(Reaction.TargetType targetType) {
+        return targetType == Reaction.TargetType.POST ? "post" : "comment";
+    }
+}
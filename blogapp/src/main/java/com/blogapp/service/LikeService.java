@@ -0,0 +1,12 @@
+package com.blogapp.service;
+
+import com.blogapp.payload.LikeDto;
+import org.springframework.stereotype.Service;
+
+@Service
+public interface LikeService {
+    LikeDto likePost(Long postId, Long userId);
+    LikeDto unlikePost(Long postId, Long userId);
+    LikeDto likeComment(Long commentId, Long userId);
+    LikeDto unlikeComment(Long commentId, Long userId);
+}
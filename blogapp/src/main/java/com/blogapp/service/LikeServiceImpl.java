@@ -0,0 +1,126 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Reaction;
+import com.blogapp.exception.CommentNotFountException;
+import com.blogapp.exception.PostNotFoundException;
+import com.blogapp.exception.UserNotFoundException;
+import com.blogapp.payload.LikeDto;
+import com.blogapp.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+@Service
+public class LikeServiceImpl implements LikeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LikeServiceImpl.class);
+
+    private static final String INSERT_SQL =
+            "insert into reaction (user_id, target_type, target_id, create_at) values (?, ?, ?, ?)";
+    private static final String DELETE_SQL =
+            "delete from reaction where user_id = ? and target_type = ? and target_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private LikeCounter likeCounter;
+
+    @Autowired
+    private TrendingService trendingService;
+
+    @Override
+    public LikeDto likePost(Long postId, Long userId) {
+        return like(Reaction.TargetType.POST, postId, userId);
+    }
+
+    @Override
+    public LikeDto unlikePost(Long postId, Long userId) {
+        return unlike(Reaction.TargetType.POST, postId, userId);
+    }
+
+    @Override
+    public LikeDto likeComment(Long commentId, Long userId) {
+        return like(Reaction.TargetType.COMMENT, commentId, userId);
+    }
+
+    @Override
+    public LikeDto unlikeComment(Long commentId, Long userId) {
+        return unlike(Reaction.TargetType.COMMENT, commentId, userId);
+    }
+
+    private LikeDto like(Reaction.TargetType targetType, Long targetId, Long userId) {
+        logger.info("Attempting to like {} ID: {} by User ID: {}", targetType, targetId, userId);
+        Long persisted = null;
+        try {
+            persisted = findTarget(targetType, targetId);
+            if (!userRepository.existsById(userId)) {
+                throw new UserNotFoundException("User not exist! by id: " + userId);
+            }
+            try {
+                // only the request whose insert won moves the counter, so the count always equals the rows
+                likeCounter.apply(targetType, targetId, () -> jdbcTemplate.update(INSERT_SQL,
+                        userId, targetType.name(), targetId, Timestamp.valueOf(LocalDateTime.now().withNano(0))));
+                if (targetType == Reaction.TargetType.POST) {
+                    trendingService.recordLike(targetId, 1);
+                }
+                logger.info("Success! {} ID: {} liked by User ID: {}", targetType, targetId, userId);
+            } catch (DataIntegrityViolationException e) {
+                // the unique (user, target) key is the only constraint this insert can break; drivers do not
+                // all report it as DuplicateKeyException, so the broader type is caught
+                logger.info("{} ID: {} was already liked by User ID: {}", targetType, targetId, userId);
+            }
+            return new LikeDto(targetType.name(), targetId, userId, true, persisted + likeCounter.pending(targetType, targetId));
+        } catch (Exception e) {
+            logger.error("Failed to like {}: {}", targetType, e.getMessage());
+        } finally {
+            persisted = null;
+        }
+        return null;
+    }
+
+    private LikeDto unlike(Reaction.TargetType targetType, Long targetId, Long userId) {
+        logger.info("Attempting to unlike {} ID: {} by User ID: {}", targetType, targetId, userId);
+        Long persisted = null;
+        try {
+            persisted = findTarget(targetType, targetId);
+            long change = likeCounter.apply(targetType, targetId,
+                    () -> -jdbcTemplate.update(DELETE_SQL, userId, targetType.name(), targetId));
+            if (change < 0) {
+                if (targetType == Reaction.TargetType.POST) {
+                    trendingService.recordLike(targetId, change);
+                }
+                logger.info("Success! {} ID: {} unliked by User ID: {}", targetType, targetId, userId);
+            } else {
+                logger.info("{} ID: {} was not liked by User ID: {}", targetType, targetId, userId);
+            }
+            return new LikeDto(targetType.name(), targetId, userId, false, persisted + likeCounter.pending(targetType, targetId));
+        } catch (Exception e) {
+            logger.error("Failed to unlike {}: {}", targetType, e.getMessage());
+        } finally {
+            persisted = null;
+        }
+        return null;
+    }
+
+    // existence check and current persisted count in one primary-key read
+    private Long findTarget(Reaction.TargetType targetType, Long targetId) {
+        Long persisted = likeCounter.persisted(targetType, targetId);
+        if (persisted == null) {
+            if (targetType == Reaction.TargetType.POST) {
+                throw new PostNotFoundException("Post not exist! by id: " + targetId);
+            }
+            throw new CommentNotFountException("Comment not exist! by id: " + targetId);
+        }
+        return persisted;
+    }
+}
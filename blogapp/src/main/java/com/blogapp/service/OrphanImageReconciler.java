@@ -0,0 +1,175 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.blogapp.payload.OrphanImageReportDto;
+import com.blogapp.repository.PostRepository;
+import com.blogapp.repository.UserRepository;
+import com.blogapp.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Finds bucket objects no post or user points at, such as uploads left behind by a failed add or update, and
+ * reports or deletes them. Every image URL in the database is streamed into a Bloom filter first; the bucket
+ * is then listed a page at a time and each key the filter has never seen is an orphan. A Bloom filter has no
+ * false negatives, so a referenced image is never taken for an orphan; a false positive only keeps an orphan
+ * until a later run. Memory is the filter plus one listing page, however large the bucket and tables grow.
+ * <p>
+ * Objects newer than the grace period are left alone: an upload lands before the row that refers to it is
+ * committed. Keys under {@code storage.reconcile.exclude-prefixes} are never touched: standalone uploads through
+ * {@code POST /api/v1/s3/uploadFile} live under {@link S3ImagerUploader#KEY_PREFIX} and no row refers to them.
+ * Runs are dry (report only) unless {@code storage.reconcile.dry-run=false}.
+ */
+@Service
+public class OrphanImageReconciler {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrphanImageReconciler.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MAX_IMAGES_PER_POST = 3;
+
+    @Autowired
+    private AmazonS3 amazonS3;
+
+    @Autowired
+    private AwsS3Service awsS3Service;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${aws.s3.bucket}")
+    private String bucketName;
+
+    @Value("${storage.reconcile.dry-run:true}")
+    private boolean dryRun;
+
+    @Value("${storage.reconcile.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${storage.reconcile.exclude-prefixes:" + S3ImagerUploader.KEY_PREFIX + "}")
+    private String[] excludePrefixes;
+
+    @Value("${storage.reconcile.sample-size:100}")
+    private int sampleSize;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    // every instance runs it; deletes are idempotent, so overlapping sweeps only repeat the listing
+    @Scheduled(cron = "${storage.reconcile.cron:0 30 3 * * *}")
+    public void scheduledRun() {
+        reconcile(dryRun);
+    }
+
+    /**
+     * One full pass, or null if a pass is already running.
+     */
+    public OrphanImageReportDto reconcile(boolean dryRun) {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Orphan image sweep is already running");
+            return null;
+        }
+        try {
+            // taken before the database scan, so anything uploaded since is inside the grace period
+            Date cutoff = new Date(System.currentTimeMillis() - Duration.ofHours(graceHours).toMillis());
+            String bucketUrl = amazonS3.getUrl(bucketName, "").toString();
+            OrphanImageReportDto report = new OrphanImageReportDto();
+            report.setDryRun(dryRun);
+            BloomFilter referenced = referencedKeys(bucketUrl, report);
+            sweep(referenced, cutoff, report);
+            logger.info("Success! Orphan image sweep done (dry run: {}): {} referenced, {} listed, {} excluded, {} recent, " +
+                            "{} orphans ({} bytes), {} deleted", dryRun, report.getReferenced(), report.getListed(),
+                    report.getExcluded(), report.getRecent(), report.getOrphans(), report.getOrphanBytes(), report.getDeleted());
+            return report;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    private BloomFilter referencedKeys(String bucketUrl, OrphanImageReportDto report) {
+        long expected = postRepository.count() * MAX_IMAGES_PER_POST + userRepository.count();
+        BloomFilter filter = new BloomFilter((int) Math.min(Integer.MAX_VALUE, Math.max(1_000, expected)), FALSE_POSITIVE_RATE);
+        AtomicLong count = new AtomicLong();
+        transactionTemplate.executeWithoutResult(status -> {
+            try (Stream<List<String>> images = postRepository.streamImagePaths()) {
+                images.forEach(urls -> urls.forEach(url -> put(filter, bucketUrl, url, count)));
+            }
+            try (Stream<String> images = userRepository.streamProfileImagePaths()) {
+                images.forEach(url -> put(filter, bucketUrl, url, count));
+            }
+        });
+        report.setReferenced(count.get());
+        return filter;
+    }
+
+    private void sweep(BloomFilter referenced, Date cutoff, OrphanImageReportDto report) {
+        ListObjectsV2Request request = new ListObjectsV2Request()
+                .withBucketName(bucketName)
+                .withMaxKeys(AwsS3Service.MAX_KEYS_PER_DELETE);
+        ListObjectsV2Result page;
+        do {
+            page = amazonS3.listObjectsV2(request);
+            List<String> orphans = new ArrayList<>();
+            for (S3ObjectSummary object : page.getObjectSummaries()) {
+                report.setListed(report.getListed() + 1);
+                if (isExcluded(object.getKey())) {
+                    report.setExcluded(report.getExcluded() + 1);
+                } else if (object.getLastModified() != null && object.getLastModified().after(cutoff)) {
+                    report.setRecent(report.getRecent() + 1);
+                } else if (!referenced.mightContain(object.getKey())) {
+                    orphans.add(object.getKey());
+                    report.setOrphanBytes(report.getOrphanBytes() + object.getSize());
+                    if (report.getSample().size() < sampleSize) {
+                        report.getSample().add(object.getKey());
+                    }
+                }
+            }
+            report.setOrphans(report.getOrphans() + orphans.size());
+            // a page is never larger than one DeleteObjects request
+            if (!report.isDryRun() && !orphans.isEmpty()) {
+                report.setDeleted(report.getDeleted() + awsS3Service.deleteKeys(orphans));
+            }
+            request.setContinuationToken(page.getNextContinuationToken());
+        } while (page.isTruncated());
+    }
+
+    private boolean isExcluded(String key) {
+        for (String prefix : excludePrefixes) {
+            if (!prefix.isBlank() && key.startsWith(prefix.trim())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // only URLs into this bucket name an object here; query strings of presigned URLs are not part of the key
+    private static void put(BloomFilter filter, String bucketUrl, String url, AtomicLong count) {
+        if (url == null || !url.startsWith(bucketUrl)) {
+            return;
+        }
+        int query = url.indexOf('?', bucketUrl.length());
+        filter.put(url.substring(bucketUrl.length(), query < 0 ? url.length() : query));
+        count.incrementAndGet();
+    }
+}
@@ -0,0 +1,150 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.blogapp.exception.ImageUploadException;
+import com.blogapp.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Uploads all images of a post to S3 at the same time on the bounded upload pool.
+ * Either every image is stored and all URLs are returned in input order, or nothing is kept:
+ * on any failure or timeout the objects that did (or later do) land in the bucket are deleted.
+ * A full pool is reported as {@link TooManyRequestsException}, so the client is told to retry.
+ */
+@Service
+public class ParallelImageUploader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelImageUploader.class);
+
+    private final AmazonS3 amazonS3;
+    private final ExecutorService uploadExecutor;
+    private final String bucketName;
+    private final long timeoutMs;
+
+    public ParallelImageUploader(
+            AmazonS3 amazonS3,
+            @Qualifier("imageUploadExecutor") ExecutorService uploadExecutor,
+            @Value("${aws.s3.bucket}") String bucketName,
+            @Value("${upload.timeout-ms:10000}") long timeoutMs
+    ){
+        this.amazonS3 = amazonS3;
+        this.uploadExecutor = uploadExecutor;
+        this.bucketName = bucketName;
+        this.timeoutMs = timeoutMs;
+    }
+
+    public List<String> uploadAll(List<MultipartFile> images) {
+        List<String> keys = new ArrayList<>();
+        List<CompletableFuture<String>> uploads = new ArrayList<>();
+        try {
+            for (MultipartFile image : images) {
+                String originalFilePath = image.getOriginalFilename();
+                if (image.isEmpty() || originalFilePath == null) {
+                    continue;
+                }
+                String fileName = UUID.randomUUID() + ImageIngester.extension(originalFilePath);
+                keys.add(fileName);
+                uploads.add(CompletableFuture.supplyAsync(() -> upload(fileName, image), uploadExecutor));
+            }
+        } catch (RejectedExecutionException e) {
+            logger.error("Failed! image upload pool is saturated: {}", e.getMessage());
+            rollback(keys, uploads);
+            throw new TooManyRequestsException("Image upload is busy, please try again later!");
+        } catch (RuntimeException e) {
+            // whatever stopped the loop, the uploads already started for this post must not stay behind
+            logger.error("Failed! to start post image uploads: {}", e.toString());
+            rollback(keys, uploads);
+            throw new ImageUploadException("Failed! to upload image to AWS S3 " + e);
+        }
+
+        List<CompletableFuture<String>> timed = uploads.stream()
+                .map(upload -> upload.copy().orTimeout(timeoutMs, TimeUnit.MILLISECONDS))
+                .collect(Collectors.toList());
+        try {
+            CompletableFuture.allOf(timed.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            logger.error("Failed! to upload post images to S3: {}", e.getCause() == null ? e.getMessage() : e.getCause().toString());
+            rollback(keys, uploads);
+            throw new ImageUploadException("Failed! to upload image to AWS S3 " + e.getCause());
+        }
+
+        List<String> imagePaths = new ArrayList<>(keys.size());
+        for (String key : keys) {
+            imagePaths.add(amazonS3.getUrl(bucketName, key).toString());
+        }
+        logger.info("Success! {} images stored in cloud...", imagePaths.size());
+        return imagePaths;
+    }
+
+    // delete every object of an upload batch by its URL, e.g. when the post row could not be saved
+    public void deleteAll(List<String> imageUrls) {
+        List<String> keys = imageUrls.stream()
+                .map(url -> url.substring(url.lastIndexOf("/") + 1))
+                .collect(Collectors.toList());
+        deleteKeys(keys);
+    }
+
+    private String upload(String fileName, MultipartFile image) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        metadata.setContentLength(image.getSize());
+        try (InputStream inputStream = image.getInputStream()) {
+            PutObjectRequest request = new PutObjectRequest(bucketName, fileName, inputStream, metadata);
+            // bounds the S3 call itself, so a stuck upload frees its pool thread
+            request.setSdkClientExecutionTimeout((int) timeoutMs);
+            amazonS3.putObject(request);
+            return fileName;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void rollback(List<String> keys, List<CompletableFuture<String>> uploads) {
+        List<String> stored = new ArrayList<>();
+        for (int i = 0; i < uploads.size(); i++) {
+            CompletableFuture<String> upload = uploads.get(i);
+            if (!upload.isDone()) {
+                // still in flight: remove the object as soon as the straggler lands
+                String key = keys.get(i);
+                upload.thenAccept(fileName -> deleteKeys(List.of(key)));
+            } else if (!upload.isCompletedExceptionally()) {
+                stored.add(keys.get(i));
+            }
+        }
+        deleteKeys(stored);
+    }
+
+    private void deleteKeys(List<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        try {
+            amazonS3.deleteObjects(new DeleteObjectsRequest(bucketName)
+                    .withKeys(keys.toArray(new String[0]))
+                    .withQuiet(true));
+            logger.info("Removed {} uploaded images from cloud", keys.size());
+        } catch (Exception e) {
+            logger.error("Failed! to remove uploaded images {} : {}", keys, e.getMessage());
+        }
+    }
+}
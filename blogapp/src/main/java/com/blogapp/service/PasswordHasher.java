@@ -0,0 +1,135 @@
+package com.blogapp.service;
+
+import com.blogapp.exception.TooManyRequestsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt hashing and verification, run on the bounded password hash pool rather than on the request thread.
+ * When the pool and its queue are full the caller gets a {@link TooManyRequestsException} straight away.
+ * <p>
+ * Rows written before passwords were hashed still hold plaintext; they are compared in constant time and
+ * flagged for rehashing, as are hashes made with a lower cost than {@code password.bcrypt.strength}.
+ */
+@Service
+public class PasswordHasher {
+
+    private static final Logger logger = LoggerFactory.getLogger(PasswordHasher.class);
+
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]?\\$\\d\\d\\$[./0-9A-Za-z]{53}$");
+
+    private final BCryptPasswordEncoder passwordEncoder;
+    private final ExecutorService hashExecutor;
+    private final long timeoutMs;
+    // checked against when the user does not exist, so an unknown name costs the same as a wrong password
+    private final String dummyHash;
+
+    public PasswordHasher(
+            BCryptPasswordEncoder passwordEncoder,
+            @Qualifier("passwordHashExecutor") ExecutorService hashExecutor,
+            @Value("${password.hash.timeout-ms:5000}") long timeoutMs
+    ){
+        this.passwordEncoder = passwordEncoder;
+        this.hashExecutor = hashExecutor;
+        this.timeoutMs = timeoutMs;
+        this.dummyHash = passwordEncoder.encode("dummy-password-for-unknown-users");
+    }
+
+    public String hash(String rawPassword) {
+        return run(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks {@code rawPassword} against the stored value; {@code storedPassword} may be null for an unknown user.
+     */
+    public Verification verify(String rawPassword, String storedPassword) {
+        if (rawPassword == null) {
+            return Verification.FAILED;
+        }
+        return run(() -> {
+            if (storedPassword == null) {
+                passwordEncoder.matches(rawPassword, dummyHash);
+                return Verification.FAILED;
+            }
+            if (!isHash(storedPassword)) {
+                boolean matches = MessageDigest.isEqual(
+                        rawPassword.getBytes(StandardCharsets.UTF_8), storedPassword.getBytes(StandardCharsets.UTF_8));
+                return matches ? Verification.MATCHED_NEEDS_REHASH : Verification.FAILED;
+            }
+            if (!passwordEncoder.matches(rawPassword, storedPassword)) {
+                return Verification.FAILED;
+            }
+            return passwordEncoder.upgradeEncoding(storedPassword) ? Verification.MATCHED_NEEDS_REHASH : Verification.MATCHED;
+        });
+    }
+
+    /**
+     * Hashes in the background and hands the result to {@code store}. Best effort: when the pool is busy the
+     * upgrade is skipped and simply tried again on a later sign-in.
+     */
+    public void rehashLater(String rawPassword, Consumer<String> store) {
+        try {
+            hashExecutor.execute(() -> {
+                try {
+                    store.accept(passwordEncoder.encode(rawPassword));
+                } catch (Exception e) {
+                    logger.error("Failed to store rehashed password: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Password hash pool is busy, rehash skipped");
+        }
+    }
+
+    public static boolean isHash(String storedPassword) {
+        return storedPassword != null && BCRYPT.matcher(storedPassword).matches();
+    }
+
+    private <T> T run(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = hashExecutor.submit(task);
+        } catch (RejectedExecutionException e) {
+            logger.warn("Password hash pool is saturated, rejecting request");
+            throw new TooManyRequestsException("Too many sign-in attempts right now, please retry shortly.");
+        }
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new TooManyRequestsException("Password check timed out, please retry shortly.");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while checking password", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    public enum Verification {
+        MATCHED,
+        MATCHED_NEEDS_REHASH,
+        FAILED;
+
+        public boolean matched() {
+            return this != FAILED;
+        }
+    }
+}
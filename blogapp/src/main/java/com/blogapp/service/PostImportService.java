@@ -0,0 +1,416 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.ImportResultDto;
+import com.blogapp.payload.PostImportRecord;
+import com.blogapp.repository.UserRepository;
+import com.blogapp.util.CsvReader;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.metamodel.mapping.JdbcMapping;
+import org.hibernate.type.descriptor.ValueBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Bulk post import for migrations. Reads NDJSON or CSV as a stream, resolves authors and categories through
+ * bounded in-memory lookups, and writes posts with JDBC batch inserts, one transaction per batch. No mail is
+ * sent for imported posts. Images outside the bucket are copied by {@link ImageIngester} as a separate stage
+ * running alongside the inserts; until a post's copy finishes it keeps its original image URLs.
+ * <p>
+ * Start the application with {@code --import-posts=<file>} to import a file ({@code .csv}, anything else is
+ * read as NDJSON, optionally {@code .gz}). On MySQL add {@code rewriteBatchedStatements=true} to the JDBC URL
+ * so that a batch goes out as multi-row inserts.
+ */
+@Service
+public class PostImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostImportService.class);
+
+    public static final String IMPORT_OPTION = "import-posts";
+    public static final String NDJSON = "ndjson";
+    public static final String CSV = "csv";
+
+    private static final int MAX_IMAGES = 3;
+    private static final Long NOT_FOUND = -1L;
+
+    // ids stay IDENTITY: a plain JDBC batch does not need them up front and reads them back as generated keys
+    private static final String INSERT_SQL = "insert into post (title, description, create_at, update_at, " +
+            "post_images_path, user_id, category_id, comment_count, view_count, like_count) " +
+            "values (?, ?, ?, ?, ?, ?, ?, 0, 0, 0)";
+    // only while the post still has the images it was imported with; an edit made in the meantime wins
+    private static final String REPLACE_IMAGES_SQL = "update post set post_images_path = ?, update_at = ? " +
+            "where id = ? and post_images_path = ?";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private ImageIngester imageIngester;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${import.lookup-cache-size:10000}")
+    private int lookupCacheSize;
+
+    @Value("${import.max-errors:100}")
+    private int maxErrors;
+
+    private final AtomicLong imagesCopied = new AtomicLong();
+    private final AtomicLong imagesFailed = new AtomicLong();
+
+    public ImportResultDto importPosts(InputStream in, String format) throws IOException {
+        ImportResultDto result = new ImportResultDto();
+        // user name or id -> id, per import; NOT_FOUND is cached too so a bad reference costs one query
+        Cache<String, Long> userIds = Caffeine.newBuilder().maximumSize(lookupCacheSize).build();
+        List<Row> batch = new ArrayList<>(batchSize);
+        long line = 0;
+        Iterator<PostImportRecord> records = CSV.equalsIgnoreCase(format) ? csvRecords(in) : ndjsonRecords(in);
+        logger.info("Starting post import, format: {}", format);
+        while (records.hasNext()) {
+            line++;
+            result.setRead(result.getRead() + 1);
+            PostImportRecord record;
+            try {
+                record = records.next();
+            } catch (RuntimeException e) {
+                // a malformed line in the middle of a stream cannot be skipped reliably
+                fail(result, line, "unreadable record, import stopped: " + e.getMessage());
+                break;
+            }
+            try {
+                batch.add(toRow(record, line, userIds));
+            } catch (IllegalArgumentException e) {
+                fail(result, line, e.getMessage());
+                continue;
+            }
+            if (batch.size() == batchSize) {
+                insert(batch, result);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            insert(batch, result);
+        }
+        logger.info("Success! Post import finished: {} read, {} imported, {} failed, {} posts with images to copy",
+                result.getRead(), result.getImported(), result.getFailed(), result.getImagesQueued());
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void importOnStartup(ApplicationReadyEvent event) {
+        List<String> files = new DefaultApplicationArguments(event.getArgs()).getOptionValues(IMPORT_OPTION);
+        if (files == null) {
+            return;
+        }
+        for (String file : files) {
+            String name = file.toLowerCase();
+            String format = name.endsWith(".csv") || name.endsWith(".csv.gz") ? CSV : NDJSON;
+            try (InputStream raw = new BufferedInputStream(Files.newInputStream(Path.of(file)));
+                 InputStream in = name.endsWith(".gz") ? new GZIPInputStream(raw) : raw) {
+                ImportResultDto result = importPosts(in, format);
+                result.getErrors().forEach(error -> logger.warn("Import {}: {}", file, error));
+            } catch (Exception e) {
+                logger.error("Failed to import posts from {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private Row toRow(PostImportRecord record, long line, Cache<String, Long> userIds) {
+        Row row = new Row();
+        row.line = line;
+        row.title = required(record.getTitle(), "title", 100);
+        row.description = required(record.getDescription(), "description", 300);
+        row.userId = resolveUser(record, userIds);
+        Category category = resolveCategory(record);
+        row.category = category;
+        row.createAt = record.getCreateAt() != null ? record.getCreateAt() : LocalDateTime.now().withNano(0);
+        row.updateAt = record.getUpdateAt() != null ? record.getUpdateAt() : row.createAt;
+        List<String> images = record.getImageUrls() == null ? List.of() : record.getImageUrls().stream()
+                .filter(url -> url != null && !url.isBlank()).map(String::trim).toList();
+        if (images.size() > MAX_IMAGES) {
+            throw new IllegalArgumentException("at most " + MAX_IMAGES + " images per post");
+        }
+        row.images = new ArrayList<>(images);
+        return row;
+    }
+
+    private Long resolveUser(PostImportRecord record, Cache<String, Long> userIds) {
+        Long userId;
+        if (record.getUserId() != null) {
+            userId = userIds.get("id:" + record.getUserId(),
+                    key -> userRepository.existsById(record.getUserId()) ? record.getUserId() : NOT_FOUND);
+        } else if (record.getUserName() != null && !record.getUserName().isBlank()) {
+            userId = userIds.get("name:" + record.getUserName(),
+                    key -> userRepository.findIdByUserName(record.getUserName()).orElse(NOT_FOUND));
+        } else {
+            throw new IllegalArgumentException("userId or userName is required");
+        }
+        if (NOT_FOUND.equals(userId)) {
+            throw new IllegalArgumentException("user not found: " +
+                    (record.getUserId() != null ? record.getUserId() : record.getUserName()));
+        }
+        return userId;
+    }
+
+    // the catalog already holds every category in memory
+    private Category resolveCategory(PostImportRecord record) {
+        Optional<Long> categoryId;
+        if (record.getCategoryId() != null) {
+            categoryId = Optional.of(record.getCategoryId());
+        } else if (record.getCategoryName() != null && !record.getCategoryName().isBlank()) {
+            categoryId = categoryCatalog.findByName(record.getCategoryName()).map(CategoryDto::getId);
+        } else {
+            throw new IllegalArgumentException("categoryId or categoryName is required");
+        }
+        return categoryId.flatMap(categoryCatalog::reference).orElseThrow(() -> new IllegalArgumentException(
+                "category not found: " + (record.getCategoryId() != null ? record.getCategoryId() : record.getCategoryName())));
+    }
+
+    private void insert(List<Row> batch, ImportResultDto result) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> entityManager.unwrap(Session.class).doWork(connection -> {
+                SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+                @SuppressWarnings("unchecked")
+                ValueBinder<Object> imagesBinder = (ValueBinder<Object>) imagesMapping().getJdbcValueBinder();
+                try (PreparedStatement ps = connection.prepareStatement(INSERT_SQL, new String[]{"id"})) {
+                    for (Row row : batch) {
+                        ps.setString(1, row.title);
+                        ps.setString(2, row.description);
+                        ps.setTimestamp(3, Timestamp.valueOf(row.createAt));
+                        ps.setTimestamp(4, Timestamp.valueOf(row.updateAt));
+                        // bound the way Hibernate stores the column, whatever SQL type the dialect gave it
+                        imagesBinder.bind(ps, row.images, 5, session);
+                        ps.setLong(6, row.userId);
+                        ps.setLong(7, row.category.getId());
+                        ps.addBatch();
+                    }
+                    ps.executeBatch();
+                    try (ResultSet keys = ps.getGeneratedKeys()) {
+                        for (Row row : batch) {
+                            if (!keys.next()) {
+                                throw new IllegalStateException("Database returned fewer generated ids than rows");
+                            }
+                            row.id = keys.getLong(1);
+                        }
+                    }
+                }
+            }));
+        } catch (Exception e) {
+            logger.error("Failed to insert imported posts, lines {}-{}: {}", batch.get(0).line, batch.get(batch.size() - 1).line, e.getMessage());
+            for (Row row : batch) {
+                fail(result, row.line, "insert failed: " + e.getMessage());
+            }
+            return;
+        }
+        result.setImported(result.getImported() + batch.size());
+        for (Row row : batch) {
+            postSearchIndex.index(toPost(row));
+            if (row.images.stream().anyMatch(url -> !imageIngester.isStored(url))) {
+                result.setImagesQueued(result.getImagesQueued() + 1);
+                copyImages(row.id, row.images);
+            }
+        }
+    }
+
+    private void copyImages(Long postId, List<String> images) {
+        imageIngester.ingest(images).thenAccept(urls -> {
+            List<String> copied = urls.stream().filter(url -> !images.contains(url)).toList();
+            boolean replaced;
+            try {
+                replaced = transactionTemplate.execute(status -> replaceImages(postId, images, urls));
+            } catch (RuntimeException e) {
+                imageIngester.discard(copied);
+                throw e;
+            }
+            if (!replaced) {
+                // edited or deleted since the import: the copies are referenced by nothing
+                imageIngester.discard(copied);
+                logger.warn("Post {} changed while its images were copied, copies discarded", postId);
+                return;
+            }
+            imagesCopied.incrementAndGet();
+        }).exceptionally(e -> {
+            // the post keeps its original image URLs
+            long failed = imagesFailed.incrementAndGet();
+            logger.error("Failed! to copy images of imported post {} ({} failed so far): {}", postId, failed,
+                    e.getCause() == null ? e.getMessage() : e.getCause().getMessage());
+            return null;
+        });
+    }
+
+    private boolean replaceImages(Long postId, List<String> original, List<String> urls) {
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+            @SuppressWarnings("unchecked")
+            ValueBinder<Object> imagesBinder = (ValueBinder<Object>) imagesMapping().getJdbcValueBinder();
+            try (PreparedStatement ps = connection.prepareStatement(REPLACE_IMAGES_SQL)) {
+                imagesBinder.bind(ps, new ArrayList<>(urls), 1, session);
+                ps.setTimestamp(2, Timestamp.valueOf(LocalDateTime.now()));
+                ps.setLong(3, postId);
+                imagesBinder.bind(ps, original, 4, session);
+                return ps.executeUpdate() == 1;
+            }
+        });
+    }
+
+    public long getImagesCopied() {
+        return imagesCopied.get();
+    }
+
+    public long getImagesFailed() {
+        return imagesFailed.get();
+    }
+
+    private JdbcMapping imagesMapping() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .getEntityDescriptor(Post.class).findAttributeMapping("postImagesPath").getJdbcMappings().get(0);
+    }
+
+    private void fail(ImportResultDto result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add("line " + line + ": " + message);
+        }
+    }
+
+    private Iterator<PostImportRecord> ndjsonRecords(InputStream in) throws IOException {
+        MappingIterator<PostImportRecord> iterator = objectMapper.readerFor(PostImportRecord.class).readValues(in);
+        return iterator;
+    }
+
+    // the header row names the columns after the PostImportRecord properties; imageUrls are separated by '|'
+    private Iterator<PostImportRecord> csvRecords(InputStream in) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8)));
+        List<String> header = reader.next();
+        if (header == null) {
+            return Collections.emptyIterator();
+        }
+        return new Iterator<>() {
+            private List<String> next = read();
+
+            @Override
+            public boolean hasNext() {
+                return next != null;
+            }
+
+            @Override
+            public PostImportRecord next() {
+                if (next == null) {
+                    throw new NoSuchElementException();
+                }
+                List<String> fields = next;
+                next = read();
+                Map<String, Object> values = new HashMap<>();
+                for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                    String value = fields.get(i);
+                    if (value.isBlank()) {
+                        continue;
+                    }
+                    String column = header.get(i).trim();
+                    values.put(column, "imageUrls".equals(column) ? Arrays.asList(value.split("\\|")) : value);
+                }
+                return objectMapper.convertValue(values, PostImportRecord.class);
+            }
+
+            private List<String> read() {
+                try {
+                    return reader.next();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    private static String required(String value, String field, int maxLength) {
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(field + " is required");
+        }
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(field + " is longer than " + maxLength + " characters");
+        }
+        return value;
+    }
+
+    private static Post toPost(Row row) {
+        Post post = new Post();
+        post.setId(row.id);
+        post.setTitle(row.title);
+        post.setDescription(row.description);
+        post.setCategory(row.category);
+        return post;
+    }
+
+    private static final class Row {
+        private long line;
+        private Long id;
+        private String title;
+        private String description;
+        private Long userId;
+        private Category category;
+        private LocalDateTime createAt;
+        private LocalDateTime updateAt;
+        private List<String> images;
+    }
+}
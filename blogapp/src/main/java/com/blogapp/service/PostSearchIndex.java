@@ -0,0 +1,364 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Post;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.en.EnglishAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Embedded Lucene index over post title, description and category name. Post writes update it in place;
+ * searches run on a near-real-time reader that is reopened every {@code search.refresh-ms}, and the index is
+ * committed to disk every {@code search.commit-ms} and on shutdown.
+ * <p>
+ * Start the application with {@code --rebuild-search-index} to rebuild it from the database; an empty index is
+ * rebuilt on startup as well.
+ */
+@Service
+public class PostSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostSearchIndex.class);
+
+    public static final String REBUILD_OPTION = "rebuild-search-index";
+
+    private static final String ID = "id";
+    private static final String TITLE = "title";
+    private static final String DESCRIPTION = "description";
+    private static final String CATEGORY = "category";
+    // the rebuild that last wrote the document; whatever an older rebuild left behind is swept at the end
+    private static final String GENERATION = "generation";
+
+    // a title match counts for more than the same words in the description
+    private static final Map<String, Float> FIELD_WEIGHTS = Map.of(TITLE, 3.0f, CATEGORY, 2.0f, DESCRIPTION, 1.0f);
+
+    private static final String REBUILD_SQL =
+            "select p.id, p.title, p.description, c.category_name from post p join category c on c.id = p.category_id";
+
+    private static final String CATEGORY_SQL = "select id, title, description from post where category_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // blank keeps the index in memory, which is what the tests use
+    @Value("${search.index-dir:search-index}")
+    private String indexDir;
+
+    @Value("${search.rebuild.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${search.max-results:1000}")
+    private int maxResults;
+
+    private final Analyzer analyzer = new EnglishAnalyzer();
+
+    private Directory directory;
+
+    // replaced when a failed rebuild is rolled back
+    private volatile IndexWriter writer;
+
+    private volatile SearcherManager searcherManager;
+
+    // while a rebuild runs the scheduled reopen is held back, so searches keep the old view instead of a half-built one
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private volatile String generation = String.valueOf(System.currentTimeMillis());
+
+    // one set per scan in progress: posts indexed or deleted meanwhile, whose live write is newer than the row the
+    // scan read, so the scan skips them
+    private final List<Set<Long>> touchedDuringScans = new ArrayList<>();
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (directory == null) {
+            directory = indexDir == null || indexDir.isBlank() ? new ByteBuffersDirectory() : FSDirectory.open(Paths.get(indexDir));
+        }
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        logger.info("Success! Search index opened with {} posts", writer.getDocStats().numDocs);
+    }
+
+    public void index(Post post) {
+        String categoryName = post.getCategory() != null ? post.getCategory().getCategoryName() : null;
+        try {
+            // update-by-id is an upsert, so add and edit take the same path
+            write(post.getId(), () -> writer.updateDocument(idTerm(post.getId()),
+                    document(post.getId(), post.getTitle(), post.getDescription(), categoryName)));
+        } catch (Exception e) {
+            // the post itself is saved; a rebuild brings the index back in line
+            logger.error("Failed to index post {}: {}", post.getId(), e.getMessage());
+        }
+    }
+
+    public void delete(Long postId) {
+        try {
+            write(postId, () -> writer.deleteDocuments(idTerm(postId)));
+        } catch (Exception e) {
+            logger.error("Failed to remove post {} from the search index: {}", postId, e.getMessage());
+        }
+    }
+
+    private void write(Long postId, IndexWrite write) throws IOException {
+        synchronized (touchedDuringScans) {
+            touchedDuringScans.forEach(touched -> touched.add(postId));
+            write.run();
+        }
+    }
+
+    /**
+     * Re-indexes the posts of one category under its new name, which every one of their documents carries. Rows
+     * are streamed as in {@link #rebuild()}, and a post saved or deleted while the scan runs keeps its live write.
+     */
+    public void reindexCategory(Long categoryId, String categoryName) {
+        logger.info("Starting search index update of category {}", categoryId);
+        AtomicLong indexed = new AtomicLong();
+        Set<Long> touched = new HashSet<>();
+        synchronized (touchedDuringScans) {
+            touchedDuringScans.add(touched);
+        }
+        try {
+            stream(CATEGORY_SQL, rs -> {
+                long id = rs.getLong(1);
+                Document document = document(id, rs.getString(2), rs.getString(3), categoryName);
+                if (writeScanned(id, document, touched)) {
+                    indexed.incrementAndGet();
+                }
+            }, categoryId);
+            logger.info("Success! Search index updated for {} posts of category {}", indexed.get(), categoryId);
+        } catch (Exception e) {
+            // the category itself is saved; a rebuild brings the index back in line
+            logger.error("Failed to update search index of category {}: {}", categoryId, e.getMessage());
+        } finally {
+            synchronized (touchedDuringScans) {
+                touchedDuringScans.remove(touched);
+            }
+        }
+    }
+
+    /**
+     * Ranked post ids for one page of results. The query accepts plain words, {@code "phrases"}, {@code -exclusions}
+     * and {@code prefix*}; every word has to match somewhere in the post. Results stop at {@code search.max-results}.
+     */
+    public Hits search(String text, int page, int size) throws IOException {
+        int offset = page * size;
+        if (offset >= maxResults) {
+            return new Hits(Collections.emptyList(), 0);
+        }
+        SimpleQueryParser parser = new SimpleQueryParser(analyzer, FIELD_WEIGHTS);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        Query query = parser.parse(text);
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopDocs top = searcher.search(query, Math.min(offset + size, maxResults));
+            List<Long> ids = new ArrayList<>(size);
+            for (int i = offset; i < top.scoreDocs.length; i++) {
+                ids.add(Long.valueOf(searcher.doc(top.scoreDocs[i].doc).get(ID)));
+            }
+            return new Hits(ids, top.totalHits.value);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Brings the whole index in line with the posts in the database. Rows are streamed through a cursor and
+     * upserted by id one at a time, so memory use does not depend on the size of the post table. Posts saved or
+     * deleted while the scan runs keep their live write instead of the row the scan read; documents no row of
+     * this rebuild refreshed belong to posts that no longer exist and are removed at the end.
+     */
+    public synchronized long rebuild() throws IOException {
+        logger.info("Starting search index rebuild....");
+        long start = System.currentTimeMillis();
+        AtomicLong indexed = new AtomicLong();
+        String previous = generation;
+        Set<Long> touched = new HashSet<>();
+        // a write either lands before this point and is refreshed by the scan, or after it and is skipped by it
+        synchronized (touchedDuringScans) {
+            generation = String.valueOf(Math.max(start, Long.parseLong(previous) + 1));
+            touchedDuringScans.add(touched);
+            rebuilding.set(true);
+        }
+        try {
+            stream(REBUILD_SQL, rs -> {
+                long id = rs.getLong(1);
+                Document document = document(id, rs.getString(2), rs.getString(3), rs.getString(4));
+                if (writeScanned(id, document, touched)) {
+                    indexed.incrementAndGet();
+                }
+            });
+            writer.deleteDocuments(new BooleanQuery.Builder()
+                    .add(new MatchAllDocsQuery(), BooleanClause.Occur.FILTER)
+                    .add(new TermQuery(new Term(GENERATION, generation)), BooleanClause.Occur.MUST_NOT)
+                    .build());
+            writer.commit();
+        } catch (IOException | RuntimeException e) {
+            // put back the last committed index rather than serving a partial one
+            generation = previous;
+            searcherManager.close();
+            writer.rollback();
+            open();
+            throw e;
+        } finally {
+            synchronized (touchedDuringScans) {
+                rebuilding.set(false);
+                touchedDuringScans.remove(touched);
+            }
+        }
+        searcherManager.maybeRefreshBlocking();
+        logger.info("Success! Search index rebuilt with {} posts in {} ms", indexed.get(), System.currentTimeMillis() - start);
+        return indexed.get();
+    }
+
+    private void stream(String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql);
+            // Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE (row streaming)
+            boolean mysql = con.getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT).contains("mysql");
+            ps.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            for (int i = 0; i < args.length; i++) {
+                ps.setObject(i + 1, args[i]);
+            }
+            return ps;
+        }, handler);
+    }
+
+    // false when a live write since the scan began already holds a newer version of the post
+    private boolean writeScanned(long id, Document document, Set<Long> touched) {
+        synchronized (touchedDuringScans) {
+            if (touched.contains(id)) {
+                return false;
+            }
+            try {
+                writer.updateDocument(idTerm(id), document);
+            } catch (IOException e) {
+                throw new IllegalStateException("Failed to index post " + id, e);
+            }
+        }
+        return true;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup(ApplicationReadyEvent event) {
+        try {
+            boolean requested = new DefaultApplicationArguments(event.getArgs()).containsOption(REBUILD_OPTION);
+            if (requested || writer.getDocStats().numDocs == 0) {
+                rebuild();
+            }
+        } catch (Exception e) {
+            logger.error("Failed to rebuild search index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.refresh-ms:1000}")
+    public void refresh() {
+        if (rebuilding.get()) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (Exception e) {
+            logger.error("Failed to refresh search index: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-ms:60000}")
+    public void commit() {
+        if (rebuilding.get() || !writer.hasUncommittedChanges()) {
+            return;
+        }
+        try {
+            writer.commit();
+        } catch (Exception e) {
+            logger.error("Failed to commit search index: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        logger.info("Closing search index");
+        searcherManager.close();
+        // commits pending changes on close
+        writer.close();
+        directory.close();
+    }
+
+    private Document document(Long id, String title, String description, String categoryName) {
+        Document document = new Document();
+        document.add(new StringField(ID, String.valueOf(id), Field.Store.YES));
+        document.add(new StringField(GENERATION, generation, Field.Store.NO));
+        document.add(new TextField(TITLE, title == null ? "" : title, Field.Store.NO));
+        document.add(new TextField(DESCRIPTION, description == null ? "" : description, Field.Store.NO));
+        document.add(new TextField(CATEGORY, categoryName == null ? "" : categoryName, Field.Store.NO));
+        return document;
+    }
+
+    private static Term idTerm(Long postId) {
+        return new Term(ID, String.valueOf(postId));
+    }
+
+    private interface IndexWrite {
+        void run() throws IOException;
+    }
+
+    public static final class Hits {
+        private final List<Long> postIds;
+        private final long totalHits;
+
+        private Hits(List<Long> postIds, long totalHits) {
+            this.postIds = postIds;
+            this.totalHits = totalHits;
+        }
+
+        public List<Long> getPostIds() {
+            return postIds;
+        }
+
+        public long getTotalHits() {
+            return totalHits;
+        }
+    }
+}
@@ -1,7 +1,13 @@
 package com.blogapp.service;
 
+import com.blogapp.payload.CursorPage;
 import com.blogapp.payload.PostDetailsDto;
 import com.blogapp.payload.PostDto;
+import com.blogapp.payload.PostSearchResultDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.payload.PostViewsDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TrendingPostDto;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -13,5 +19,11 @@ public interface PostService {
     String deletePostDetails(Long postId);
     PostDetailsDto updatePost(Long postId, PostDto postDto,List<MultipartFile> postImages);
     PostDetailsDto findByPostId(Long postId);
-    List<PostDetailsDto> listOfPosts();
+    ResourceVersion findPostVersion(Long postId);
+    Long findPostAuthorId(Long postId);
+    void recordView(Long postId);
+    CursorPage<PostSummaryDto> listOfPosts(String cursor, Integer size, Long categoryId, Long userId);
+    PostViewsDto getPostViews(Long postId);
+    List<TrendingPostDto> listOfTrendingPosts(Integer size);
+    PostSearchResultDto searchPosts(String query, Integer page, Integer size);
 }
@@ -1,28 +1,37 @@
 package com.blogapp.service;
 
-import com.amazonaws.services.s3.AmazonS3;
-import com.amazonaws.services.s3.model.ObjectMetadata;
+import com.blogapp.config.CacheConfig;
 import com.blogapp.entity.Category;
 import com.blogapp.entity.Post;
 import com.blogapp.entity.User;
 import com.blogapp.exception.CategoryNotFoundException;
 import com.blogapp.exception.PostNotFoundException;
+import com.blogapp.exception.TooManyRequestsException;
 import com.blogapp.exception.UserNotFoundException;
+import com.blogapp.mapper.PostMapper;
+import com.blogapp.payload.CursorPage;
 import com.blogapp.payload.PostDetailsDto;
 import com.blogapp.payload.PostDto;
-import com.blogapp.repository.CategoryRepository;
+import com.blogapp.payload.PostSearchResultDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.payload.PostViewsDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TrendingPostDto;
 import com.blogapp.repository.PostRepository;
 import com.blogapp.repository.UserRepository;
-import com.blogapp.util.EmailService;
-import org.modelmapper.ModelMapper;
+import com.blogapp.util.CursorCodec;
+import com.blogapp.util.EmailOutboxService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.net.URL;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -37,42 +46,56 @@ public class PostServiceImpl implements PostService {
     private PostRepository postRepository;
 
     @Autowired
-    private AmazonS3 amazonS3;
+    private AwsS3Service awsS3Service;
 
     @Autowired
-    private AwsS3Service awsS3Service;
+    private ParallelImageUploader parallelImageUploader;
 
     @Autowired
     private UserRepository userRepository;
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PostMapper postMapper;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private CacheManager cacheManager;
 
     @Autowired
-    private EmailService emailService;
+    private TrendingService trendingService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private PostSearchIndex postSearchIndex;
 
-    @Value("${aws.s3.bucket}")
-    private String bucketName;
+    @Autowired
+    private ReactionCleaner reactionCleaner;
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
+    @Value("${post.page.default-size:20}")
+    private int defaultPageSize;
+
+    @Value("${post.page.max-size:100}")
+    private int maxPageSize;
+
     public PostDetailsDto mapToDto(Post post) {
-        PostDetailsDto postDto = new PostDetailsDto();
-        postDto.setTitle(post.getTitle());
-        postDto.setDescription(post.getDescription());
-        postDto.setUpdateAt(post.getUpdateAt());
-        postDto.setCategory(post.getCategory());
-        postDto.setUser(post.getUser());
-        postDto.setPostImagesPath(post.getPostImagesPath());
-        return postDto;
+        return postMapper.toDetailsDto(post);
     }
 
     public Post mapToEntity(PostDto postDto) {
-        return modelMapper.map(postDto, Post.class);
+        return postMapper.toEntity(postDto);
     }
 
     public String mailFormat(String userName,String postTitle,LocalDateTime createTime){
@@ -93,6 +116,7 @@ public class PostServiceImpl implements PostService {
         User user;
         Category category;
         List<String> imagePaths = null;
+        Post saved = null;
         try {
             logger.info("Starting adding post functionality....");
             post = mapToEntity(postDto);
@@ -105,7 +129,8 @@ public class PostServiceImpl implements PostService {
                 post.setUser(user);
             }
 
-            category = categoryRepository.findById(postDto.getCategoryId()).orElseThrow(
+            // detached copy from the in-memory catalog; only its id is written, no category select
+            category = categoryCatalog.reference(postDto.getCategoryId()).orElseThrow(
                     ()-> new CategoryNotFoundException("Category not found! By Id: "+postDto.getCategoryId())
             );
             if (category != null) {
@@ -113,61 +138,54 @@ public class PostServiceImpl implements PostService {
                 post.setCategory(category);
             }
 
-            imagePaths = new ArrayList<>();
-            for (MultipartFile image : postImages) {
-                if (!image.isEmpty()) {
-                    String originalFilePath = image.getOriginalFilename();
-
-                    ObjectMetadata metadata = new ObjectMetadata();
-                    metadata.setContentLength(image.getSize());
-
-                    if(originalFilePath != null){
-                        String fileName = UUID.randomUUID().toString() + originalFilePath.substring(originalFilePath.lastIndexOf("."));
-                        amazonS3.putObject(bucketName, fileName, image.getInputStream(), metadata);
-                        URL url = amazonS3.getUrl(bucketName, fileName);
-                        imagePaths.add(url.toString());
-                    }
-                }
-            }
+            // all images go up in parallel; any failure leaves nothing behind in the bucket
+            imagePaths = parallelImageUploader.uploadAll(postImages);
 
             post.setPostImagesPath(imagePaths);
             post.setCreateAt(LocalDateTime.now().withNano(0));
             post.setUpdateAt(LocalDateTime.now().withNano(0));
 
-            Post saved = postRepository.save(post);
+            LocalDateTime createAt = post.getCreateAt();
+            LocalDate date = createAt.toLocalDate();
+            String userName = post.getUser().getUserName();
+            String postTitle = post.getTitle();
+            LocalDateTime createTime = post.getCreateAt();
+
+            String subject = "Post is create by " + post.getUser().getUserName() + " on this time : "+ date;
+            String message = mailFormat(userName, postTitle, createTime);
+
+            // post row and outbox row commit together; the dispatcher sends the mail off the request thread
+            Post toSave = post;
+            saved = transactionTemplate.execute(status -> {
+                Post savedPost = postRepository.save(toSave);
+                emailOutboxService.enqueue(savedPost.getUser().getEmail(), subject, message, false);
+                return savedPost;
+            });
             logger.info("Success! Post saved successfully with ID: {}", saved.getId());
-
-            if (saved != null) {
-                LocalDateTime createAt = post.getCreateAt();
-                LocalDate date = createAt.toLocalDate();
-                String userName = post.getUser().getUserName();
-                String postTitle = post.getTitle();
-                LocalDateTime createTime = post.getCreateAt();
-
-                String subject = "Post is create by " + post.getUser().getUserName() + " on this time : "+ date;
-                String message = mailFormat(userName, postTitle, createTime);
-
-                emailService.sendMail(
-                        saved.getUser().getEmail(),
-                        subject,
-                        message
-                );
-                logger.info("Success! Mail sending by this user to create the post: {}",userName);
-            }
+            postSearchIndex.index(saved);
+            logger.info("Success! Mail queued for this user to create the post: {}",userName);
             return mapToDto(saved);
+        } catch (TooManyRequestsException e) {
+            // nothing was kept; the handler answers 429 so the client retries instead of giving up
+            throw e;
         } catch (Exception e) {
             logger.error("Error occurred while adding post: {}", e.getMessage(), e);
+            if (saved == null && imagePaths != null && !imagePaths.isEmpty()) {
+                parallelImageUploader.deleteAll(imagePaths);
+            }
         } finally {
             post = null;
             user = null;
             category = null;
             imagePaths = null;
+            saved = null;
             logger.info("Adding post functionality completed");
         }
         return null;
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public String deletePostDetails(Long postId) {
         Post post = null;
         List<String> postImagesPath = null;
@@ -182,13 +200,18 @@ public class PostServiceImpl implements PostService {
 
                 postImagesPath = post.getPostImagesPath();
 
-                for (String filePath : postImagesPath) {
-                    deleteImage = awsS3Service.deleteImage(filePath);
-                }
+                // one DeleteObjects request for all of the post's images
+                deleteImage = awsS3Service.deleteImages(postImagesPath);
 
                 if (deleteImage) {
                     logger.info("Image was deleted in cloud!");
-                    postRepository.deleteById(postId);
+                    // the likes on the post and on its comments go with it
+                    transactionTemplate.executeWithoutResult(status -> {
+                        reactionCleaner.deleteOnPosts(List.of(postId));
+                        postRepository.deleteById(postId);
+                    });
+                    trendingService.removePost(postId);
+                    postSearchIndex.delete(postId);
                     logger.info("Post deleted successfully with ID: {}", postId);
                     return "Post is deleted by post id : " + postId;
                 }
@@ -205,6 +228,7 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.POSTS, key = "#postId")
     public PostDetailsDto updatePost(Long postId, PostDto postDto, List<MultipartFile> postImages) {
         Post post = null;
         User user;
@@ -229,7 +253,7 @@ public class PostServiceImpl implements PostService {
                     post.setUser(user);
                 }
 
-                category = categoryRepository.findById(postDto.getCategoryId()).orElseThrow(
+                category = categoryCatalog.reference(postDto.getCategoryId()).orElseThrow(
                         ()-> new CategoryNotFoundException("Category not found! By Id: "+postDto.getCategoryId())
                 );
                 if (category != null){
@@ -243,46 +267,40 @@ public class PostServiceImpl implements PostService {
                 post.setCreateAt(post.getCreateAt());
                 post.setUpdateAt(LocalDateTime.now().withNano(0));
 
-                // Image update logic
+                // Image update logic: upload the new set first, drop the old set only once the post points at the new one
+                List<String> oldImagesPath = null;
                 if (postImages != null && !postImages.isEmpty()) {
                     logger.info("Successfully processed posts images: {}",postImages.size());
-                    List<String> postImagesPath = post.getPostImagesPath();
-                    for (String filePath : postImagesPath) {
-                        deleteImage = awsS3Service.deleteImage(filePath);
-                    }
-                    if (deleteImage) {
-                        imagePaths = new ArrayList<>();
-                        for (MultipartFile image : postImages) {
-                            if (!image.isEmpty()) {
-                                String originalFilePath = image.getOriginalFilename();
-                                ObjectMetadata metadata = new ObjectMetadata();
-                                metadata.setContentLength(image.getSize());
-
-                                try {
-                                    if(originalFilePath != null){
-                                        String fileName = UUID.randomUUID().toString() + originalFilePath.substring(originalFilePath.lastIndexOf("."));
-                                        amazonS3.putObject(bucketName, fileName, image.getInputStream(), metadata);
-                                        URL url = amazonS3.getUrl(bucketName, fileName);
-                                        imagePaths.add(url.toString());
-                                    }
-                                } catch (Exception e) {
-                                    logger.error("Error while uploading image to S3: {}", e.getMessage());
-                                }
-                            }
-                        }
-                        if (!imagePaths.isEmpty()) {
-                            post.setPostImagesPath(imagePaths);
-                            logger.info("Image uploaded in cloud!");
-                        }
+                    imagePaths = parallelImageUploader.uploadAll(postImages);
+                    if (!imagePaths.isEmpty()) {
+                        oldImagesPath = post.getPostImagesPath();
+                        post.setPostImagesPath(imagePaths);
+                        logger.info("Image uploaded in cloud!");
                     }
                 }
 
-                saved = postRepository.save(post);
+                try {
+                    saved = postRepository.save(post);
+                } catch (Exception e) {
+                    if (oldImagesPath != null) {
+                        parallelImageUploader.deleteAll(imagePaths);
+                    }
+                    throw e;
+                }
                 logger.info("Post updated successfully with ID: {}", postId);
-                return mapToDto(saved);
+                postSearchIndex.index(post);
+                if (oldImagesPath != null) {
+                    deleteImage = awsS3Service.deleteImages(oldImagesPath);
+                    logger.info("Old images deleted in cloud: {}", deleteImage);
+                }
+                // map the instance we populated: it holds the catalog's category copy, while the merged
+                // one only has a lazy proxy that would cost a select to read the name
+                return mapToDto(post);
             } else {
                 logger.warn("Post with ID {} not found", postId);
             }
+        } catch (TooManyRequestsException e) {
+            throw e;
         } catch (Exception e) {
             logger.error("Error updating post with ID {}: {}", postId, e.getMessage());
         } finally {
@@ -297,17 +315,26 @@ public class PostServiceImpl implements PostService {
     }
 
 
+    // read through the posts cache by hand rather than with @Cacheable, so the view is counted on hits too;
+    // failed lookups return null and are not cached, so a miss is retried on the next request
     @Override
     public PostDetailsDto findByPostId(Long postId) {
-        Post post = null;
+        PostDetailsDto post = null;
+        Cache postsCache = cacheManager.getCache(CacheConfig.POSTS);
         try {
             logger.info("Starting find post by Id functionality: {}", postId);
-            post = postRepository.findById(postId).orElseThrow(
-                    ()-> new PostNotFoundException("Post not found! By Id: "+postId)
-            );
+            post = postsCache.get(postId, PostDetailsDto.class);
+            if (post == null) {
+                // single projection query: only the columns the API returns, no user/category entity graph
+                post = postRepository.findDetailsById(postId).orElseThrow(
+                        ()-> new PostNotFoundException("Post not found! By Id: "+postId)
+                );
+                postsCache.put(postId, post);
+            }
             if (post != null) {
                 logger.info("Post details was founded! by id: {}",post.getId());
-                return mapToDto(post);
+                recordView(postId);
+                return post;
             }
             logger.error("post not found by id: {} : post not exists!",postId);
             logger.warn("post not found!");
@@ -321,14 +348,63 @@ public class PostServiceImpl implements PostService {
     }
 
     @Override
-    public List<PostDetailsDto> listOfPosts() {
-        List<Post> postList = null;
+    public ResourceVersion findPostVersion(Long postId) {
         try {
-            logger.info("Starting listOfPosts method");
-            postList = postRepository.findAll();
-            if(!postList.isEmpty()){
-                return postList.stream().map(this::mapToDto).collect(Collectors.toList());
+            ResourceVersion version = postRepository.findVersionById(postId).orElse(null);
+            if (version != null) {
+                return version;
             }
+            logger.warn("Post version not found! By Id: {}", postId);
+        } catch (Exception e) {
+            logger.error("Error occurred while fetching post version: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    // who may change or delete the post; unlike findByPostId it counts no view
+    @Override
+    public Long findPostAuthorId(Long postId) {
+        try {
+            Long authorId = postRepository.findAuthorIdById(postId).orElse(null);
+            if (authorId != null) {
+                return authorId;
+            }
+            logger.warn("Post author not found! By Id: {}", postId);
+        } catch (Exception e) {
+            logger.error("Error occurred while fetching post author: {}", e.getMessage());
+        }
+        return null;
+    }
+
+    // a revalidated read is still a view, whether or not the body was sent again
+    @Override
+    public void recordView(Long postId) {
+        postViewCounter.recordView(postId);
+        trendingService.recordView(postId);
+    }
+
+    @Override
+    public CursorPage<PostSummaryDto> listOfPosts(String cursor, Integer size, Long categoryId, Long userId) {
+        List<PostSummaryDto> postList = null;
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        // decoded outside the try block so a bad cursor surfaces as a 400 instead of an empty result
+        CursorCodec.Position position = cursor == null || cursor.isBlank() ? null : CursorCodec.decode(cursor);
+        try {
+            logger.info("Starting listOfPosts method with page size: {}", pageSize);
+            // one extra row tells us whether another page exists without a COUNT(*)
+            if (position == null) {
+                postList = postRepository.findPage(null, null, categoryId, userId, pageSize + 1);
+            } else {
+                postList = postRepository.findPage(position.getTime(), position.getId(), categoryId, userId, pageSize + 1);
+            }
+
+            String nextCursor = null;
+            if (postList.size() > pageSize) {
+                postList = postList.subList(0, pageSize);
+                PostSummaryDto last = postList.get(pageSize - 1);
+                nextCursor = CursorCodec.encode(last.getUpdateAt(), last.getId());
+            }
+            return new CursorPage<>(postList, nextCursor, pageSize);
         } catch (Exception e) {
             logger.error("Error occurred while listing posts: {}", e.getMessage(), e);
         } finally {
@@ -337,4 +413,63 @@ public class PostServiceImpl implements PostService {
         }
         return null;
     }
+
+    @Override
+    public List<TrendingPostDto> listOfTrendingPosts(Integer size) {
+        List<TrendingPostDto> posts = trendingService.trending(size);
+        logger.info("Success! Trending posts served from memory: {}", posts.size());
+        return posts;
+    }
+
+    @Override
+    public PostSearchResultDto searchPosts(String query, Integer page, Integer size) {
+        List<PostSummaryDto> postList = null;
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        int pageNumber = (page == null || page < 0) ? 0 : page;
+        try {
+            if (query == null || query.isBlank()) {
+                logger.warn("Search query is empty!");
+                return null;
+            }
+            logger.info("Starting search posts for query: {}", query);
+            PostSearchIndex.Hits hits = postSearchIndex.search(query, pageNumber, pageSize);
+            postList = new ArrayList<>(hits.getPostIds().size());
+            if (!hits.getPostIds().isEmpty()) {
+                // one query for the page, then back into the order the index ranked them in
+                Map<Long, PostSummaryDto> summaries = postRepository.findSummariesByIds(hits.getPostIds()).stream()
+                        .collect(Collectors.toMap(PostSummaryDto::getId, summary -> summary));
+                for (Long postId : hits.getPostIds()) {
+                    PostSummaryDto summary = summaries.get(postId);
+                    if (summary != null) {
+                        postList.add(summary);
+                    }
+                }
+            }
+            logger.info("Success! Search found {} posts for query: {}", hits.getTotalHits(), query);
+            return new PostSearchResultDto(query, pageNumber, pageSize, hits.getTotalHits(), postList);
+        } catch (Exception e) {
+            logger.error("Error occurred while searching posts: {}", e.getMessage(), e);
+        } finally {
+            postList = null;
+        }
+        return null;
+    }
+
+    @Override
+    public PostViewsDto getPostViews(Long postId) {
+        Long views = null;
+        try {
+            views = postViewCounter.viewCount(postId);
+            if (views != null) {
+                logger.info("Success! Post views was founded! by id: {} : {}", postId, views);
+                return new PostViewsDto(postId, views);
+            }
+            logger.warn("Post not found for views! By Id: {}", postId);
+        } catch (Exception e) {
+            logger.error("Error occurred while fetching post views: {}", e.getMessage(), e);
+        } finally {
+            views = null;
+        }
+        return null;
+    }
 }
@@ -0,0 +1,73 @@
+package com.blogapp.service;
+
+import com.blogapp.util.DeltaAccumulator;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Write-behind post view counts. Views are counted in memory and flushed as one JDBC batch of
+ * {@code view_count = view_count + ?} updates every {@code post.views.flush-interval-ms}, and once more
+ * on shutdown; reads add the still-pending delta to the persisted value.
+ */
+@Service
+public class PostViewCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(PostViewCounter.class);
+
+    private static final String INCREMENT_SQL = "update post set view_count = view_count + ? where id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final DeltaAccumulator<Long> pendingViews = new DeltaAccumulator<>();
+
+    public void recordView(Long postId) {
+        pendingViews.increment(postId);
+    }
+
+    public Long viewCount(Long postId) {
+        try {
+            Long persisted = jdbcTemplate.queryForObject("select view_count from post where id = ?", Long.class, postId);
+            return persisted + pendingViews.pending(postId);
+        } catch (EmptyResultDataAccessException e) {
+            logger.warn("Post not found for view count! By Id: {}", postId);
+            return null;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${post.views.flush-interval-ms:5000}")
+    public void flush() {
+        Map<Long, Long> deltas = pendingViews.drain();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        // ascending ids so concurrent flushes from several instances lock rows in the same order
+        List<Object[]> batch = new ArrayList<>(deltas.size());
+        new TreeMap<>(deltas).forEach((postId, delta) -> batch.add(new Object[]{delta, postId}));
+        try {
+            jdbcTemplate.batchUpdate(INCREMENT_SQL, batch);
+            logger.info("Success! Flushed view counts of {} posts", batch.size());
+        } catch (Exception e) {
+            // keep the views for the next run rather than dropping them
+            deltas.forEach(pendingViews::add);
+            logger.error("Failed to flush view counts, {} posts kept pending: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        logger.info("Flushing pending view counts before shutdown");
+        flush();
+    }
+}
@@ -0,0 +1,105 @@
+package com.blogapp.service;
+
+import com.blogapp.config.RateLimitProperties;
+import com.blogapp.util.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets per route and per client of that route, kept in a concurrent map and created on first use.
+ * A request has to get a token from its client bucket and then from the route-wide bucket.
+ */
+@Service
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final boolean enabled;
+    private final long idleNanos;
+    private final LongSupplier nanoClock;
+    // "METHOD /path" -> route; read-only after construction
+    private final Map<String, RateLimitProperties.Route> routes = new HashMap<>();
+    private final Set<String> limitedMethods = new HashSet<>();
+    private final ConcurrentHashMap<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    RateLimiter(RateLimitProperties properties, LongSupplier nanoClock) {
+        this.enabled = properties.isEnabled();
+        this.idleNanos = properties.getIdleTimeout().toNanos();
+        this.nanoClock = nanoClock;
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            String method = route.getMethod().toUpperCase(Locale.ROOT);
+            routes.put(method + " " + route.getPath(), route);
+            limitedMethods.add(method);
+        }
+    }
+
+    // the cheap check the filter runs on every request: reads never get past the method lookup
+    public boolean isLimited(String method, String path) {
+        return enabled && limitedMethods.contains(method) && routes.containsKey(method + " " + path);
+    }
+
+    /**
+     * Takes a token for {@code client} on the route. Returns 0 when the request may go ahead, otherwise the
+     * nanoseconds until it could be retried.
+     */
+    public long acquire(String method, String path, String client) {
+        String routeKey = method + " " + path;
+        RateLimitProperties.Route route = routes.get(routeKey);
+        if (!enabled || route == null) {
+            return 0;
+        }
+        long now = nanoClock.getAsLong();
+        // client first: a client over its own limit must not use up the tokens shared by everyone else
+        if (route.getPerClient() != null) {
+            long wait = bucket(routeKey + " " + client, route.getPerClient(), now).tryAcquire(now);
+            if (wait > 0) {
+                return wait;
+            }
+        }
+        if (route.getTotal() != null) {
+            return bucket(routeKey, route.getTotal(), now).tryAcquire(now);
+        }
+        return 0;
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    // a request racing with the removal may still take its token from the dropped bucket; the next one
+    // starts from a full bucket, which is what the dropped one was anyway
+    @Scheduled(fixedDelayString = "${rate-limit.eviction-ms:60000}")
+    public void evictIdle() {
+        long now = nanoClock.getAsLong();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.isIdle(now, idleNanos));
+        if (before != buckets.size()) {
+            logger.debug("Evicted {} idle rate limit buckets, {} left", before - buckets.size(), buckets.size());
+        }
+    }
+
+    private TokenBucket bucket(String key, RateLimitProperties.Limit limit, long now) {
+        TokenBucket bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new TokenBucket(
+                    limit.getCapacity(), Math.max(1, limit.getPeriod().toNanos() / limit.getCapacity()), now));
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,115 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Reaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Removes the likes that go with a deleted post, comment or user. Reaction rows have no foreign key, so every
+ * delete path calls in here within the transaction that deletes the rows: {@link BulkDeleteService} for many ids
+ * and the single deletes of the post, comment and user services for one.
+ */
+@Service
+public class ReactionCleaner {
+
+    private static final String POST = Reaction.TargetType.POST.name();
+    private static final String COMMENT = Reaction.TargetType.COMMENT.name();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Deletes the likes on the given posts and on every comment of theirs.
+     */
+    public int deleteOnPosts(Collection<Long> postIds) {
+        if (postIds.isEmpty()) {
+            return 0;
+        }
+        String in = inList(postIds.size());
+        int reactions = jdbcTemplate.update("delete from reaction where target_type = ? and target_id in " +
+                "(select id from comment where post_id in (" + in + "))", args(COMMENT, postIds));
+        reactions += jdbcTemplate.update("delete from reaction where target_type = ? and target_id in (" + in + ")",
+                args(POST, postIds));
+        return reactions;
+    }
+
+    /**
+     * Deletes the likes on every post the given users wrote and on every comment of those posts, for a delete
+     * that takes the posts with their author through the cascade rather than by id.
+     */
+    public int deleteOnPostsOf(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String in = inList(userIds.size());
+        int reactions = jdbcTemplate.update("delete from reaction where target_type = ? and target_id in " +
+                "(select c.id from comment c join post p on p.id = c.post_id where p.user_id in (" + in + "))",
+                args(COMMENT, userIds));
+        reactions += jdbcTemplate.update("delete from reaction where target_type = ? and target_id in " +
+                "(select id from post where user_id in (" + in + "))", args(POST, userIds));
+        return reactions;
+    }
+
+    /**
+     * Deletes the likes on the given comments and on all their replies, matched by the same path prefix
+     * {@link com.blogapp.repository.CommentRepository#deleteSubtree} deletes the thread with. Paths are those of
+     * the roots themselves; a root written before threading has none and no replies, and is passed without one.
+     */
+    public int deleteOnThreads(Collection<Long> rootIds, Collection<String> rootPaths) {
+        if (rootIds.isEmpty()) {
+            return 0;
+        }
+        List<Object> args = new ArrayList<>(rootIds.size() + rootPaths.size() + 1);
+        args.add(COMMENT);
+        args.addAll(rootIds);
+        StringBuilder paths = new StringBuilder();
+        for (String path : rootPaths) {
+            paths.append(" or path like ?");
+            args.add(path + "%");
+        }
+        return jdbcTemplate.update("delete from reaction where target_type = ? and target_id in " +
+                "(select id from comment where id in (" + inList(rootIds.size()) + ")" + paths + ")", args.toArray());
+    }
+
+    /**
+     * Removes every like the given users gave. Each one is first taken off the like_count of what was liked,
+     * within the same transaction, so the counters of posts and comments that stay keep matching their likes.
+     * A delta still pending in {@link LikeCounter} for one of these likes is applied on top as usual.
+     */
+    public int deleteBy(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        String in = inList(userIds.size());
+        for (Reaction.TargetType targetType : Reaction.TargetType.values()) {
+            String table = targetType == Reaction.TargetType.POST ? "post" : "comment";
+            List<Object> args = new ArrayList<>();
+            args.add(targetType.name());
+            args.addAll(userIds);
+            args.add(targetType.name());
+            args.addAll(userIds);
+            jdbcTemplate.update("update " + table + " t set like_count = like_count - " +
+                    "(select count(*) from reaction r where r.target_type = ? and r.target_id = t.id and r.user_id in (" + in + ")) " +
+                    "where t.id in (select target_id from reaction where target_type = ? and user_id in (" + in + "))",
+                    args.toArray());
+        }
+        return jdbcTemplate.update("delete from reaction where user_id in (" + in + ")", userIds.toArray());
+    }
+
+    private static String inList(int size) {
+        return String.join(", ", Collections.nCopies(size, "?"));
+    }
+
+    private static Object[] args(Object first, Collection<?> rest) {
+        List<Object> args = new ArrayList<>(rest.size() + 1);
+        args.add(first);
+        args.addAll(rest);
+        return args.toArray();
+    }
+}
@@ -4,6 +4,7 @@ import com.amazonaws.HttpMethod;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.*;
 import com.blogapp.exception.ImageUploadException;
+import com.blogapp.payload.CursorPage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -19,12 +20,22 @@ import java.util.stream.Collectors;
 @Service
 public class S3ImagerUploader implements ImageUploader{
 
+    // standalone uploads are kept apart from post and profile images, which the orphan sweep checks against the database
+    public static final String KEY_PREFIX = "files/";
+
     @Autowired
     private AmazonS3 client;
 
     @Value("${aws.s3.bucket}")
     private String bucketName;
 
+    @Value("${aws.s3.list.default-size:100}")
+    private int defaultPageSize;
+
+    // S3 returns at most 1000 keys per listing call
+    @Value("${aws.s3.list.max-size:1000}")
+    private int maxPageSize;
+
     @Override
     public String uploadImage(MultipartFile image) {
         if(image.isEmpty()){
@@ -36,7 +47,7 @@ public class S3ImagerUploader implements ImageUploader{
             String originalFilePath = image.getOriginalFilename();
 
             //convert to main file path to modify fileName
-            String fileName = UUID.randomUUID().toString() + originalFilePath.substring(originalFilePath.lastIndexOf("."));
+            String fileName = KEY_PREFIX + UUID.randomUUID().toString() + originalFilePath.substring(originalFilePath.lastIndexOf("."));
 
             //object mate data of image ->
             ObjectMetadata metadata = new ObjectMetadata();
@@ -64,14 +75,19 @@ public class S3ImagerUploader implements ImageUploader{
     }
 
     @Override
-    public List<String> allFiles() {
+    public CursorPage<String> allFiles(String cursor, Integer size) {
+        int pageSize = (size == null || size <= 0) ? defaultPageSize : Math.min(size, maxPageSize);
+        // one listing call per request; the continuation token is handed out as the cursor for the next page
         ListObjectsV2Request listObjectsRequest = new ListObjectsV2Request()
-                .withBucketName(bucketName);
-
+                .withBucketName(bucketName)
+                .withMaxKeys(pageSize)
+                .withContinuationToken(cursor);
         ListObjectsV2Result listObjectsV2Result = client.listObjectsV2(listObjectsRequest);
-        List<S3ObjectSummary> objectSummaries = listObjectsV2Result.getObjectSummaries();
-        List<String> lisFileUrls = objectSummaries.stream().map(item -> this.preSignedUrl(item.getKey())).collect(Collectors.toList());
-        return lisFileUrls;
+        List<String> lisFileUrls = listObjectsV2Result.getObjectSummaries().stream()
+                .map(item -> this.preSignedUrl(item.getKey()))
+                .collect(Collectors.toList());
+        String nextCursor = listObjectsV2Result.isTruncated() ? listObjectsV2Result.getNextContinuationToken() : null;
+        return new CursorPage<>(lisFileUrls, nextCursor, pageSize);
     }
 
     @Override
@@ -96,9 +112,10 @@ public class S3ImagerUploader implements ImageUploader{
 
     @Override
     public String getImageUrlByName(String fileName) {
-        S3Object object = client.getObject(bucketName, fileName);
-        String key = object.getKey();
-        String url = preSignedUrl(key);
+        // uploads made before the prefix was introduced are still at the top of the bucket
+        String key = client.doesObjectExist(bucketName, KEY_PREFIX + fileName) ? KEY_PREFIX + fileName : fileName;
+        S3Object object = client.getObject(bucketName, key);
+        String url = preSignedUrl(object.getKey());
         return url;
     }
 }
@@ -0,0 +1,182 @@
+package com.blogapp.service;
+
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.payload.TrendingPostDto;
+import com.blogapp.repository.PostRepository;
+import com.blogapp.util.DecayingTopK;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Trending posts ranked by exponentially decayed views, comments and likes. Every event updates the post's
+ * score in memory as it happens; a scheduled refresh loads the summaries of the current top posts and
+ * publishes them as an immutable list, so serving the feed is a volatile read.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final String SEED_SQL =
+            "select id, create_at, view_count, comment_count, like_count from post where create_at >= ? order by create_at desc";
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${trending.size:50}")
+    private int size;
+
+    @Value("${trending.tracked-max:10000}")
+    private int trackedMax;
+
+    @Value("${trending.half-life-minutes:360}")
+    private long halfLifeMinutes;
+
+    @Value("${trending.seed-window-hours:48}")
+    private long seedWindowHours;
+
+    @Value("${trending.weight.view:1}")
+    private double viewWeight;
+
+    @Value("${trending.weight.comment:5}")
+    private double commentWeight;
+
+    @Value("${trending.weight.like:3}")
+    private double likeWeight;
+
+    private DecayingTopK<Long> ranking;
+
+    private final AtomicBoolean changed = new AtomicBoolean();
+
+    private final AtomicReference<List<TrendingPostDto>> current = new AtomicReference<>(Collections.emptyList());
+
+    @PostConstruct
+    public void init() {
+        ranking = new DecayingTopK<>(size, Math.max(size, trackedMax), Duration.ofMinutes(halfLifeMinutes), System.currentTimeMillis());
+    }
+
+    public void recordView(Long postId) {
+        record(postId, viewWeight);
+    }
+
+    public void recordComment(Long postId) {
+        record(postId, commentWeight);
+    }
+
+    // an unlike takes back what a like made now would have added
+    public void recordLike(Long postId, long delta) {
+        record(postId, likeWeight * delta);
+    }
+
+    public void removePost(Long postId) {
+        ranking.remove(postId);
+        changed.set(true);
+    }
+
+    public List<TrendingPostDto> trending(Integer limit) {
+        List<TrendingPostDto> posts = current.get();
+        if (limit == null || limit <= 0 || limit >= posts.size()) {
+            return posts;
+        }
+        return posts.subList(0, limit);
+    }
+
+    private void record(Long postId, double weight) {
+        if (postId == null || weight == 0) {
+            return;
+        }
+        ranking.record(postId, weight, System.currentTimeMillis());
+        changed.set(true);
+    }
+
+    // the counters of recent posts give the ranking a starting point after a restart, as if every event had
+    // happened when the post was created; live events take over from there
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        Timestamp since = Timestamp.valueOf(LocalDateTime.now().minusHours(seedWindowHours));
+        List<Long> seeded = new ArrayList<>();
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(SEED_SQL);
+                ps.setTimestamp(1, since);
+                ps.setMaxRows(trackedMax);
+                return ps;
+            }, rs -> {
+                long postId = rs.getLong("id");
+                long createdAt = rs.getTimestamp("create_at").getTime();
+                double weight = rs.getLong("view_count") * viewWeight
+                        + rs.getLong("comment_count") * commentWeight
+                        + rs.getLong("like_count") * likeWeight;
+                if (weight > 0) {
+                    ranking.record(postId, weight, createdAt);
+                    seeded.add(postId);
+                }
+            });
+            changed.set(true);
+            refresh();
+            logger.info("Success! Trending ranking seeded with {} posts", seeded.size());
+        } catch (Exception e) {
+            logger.error("Failed to seed trending ranking: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${trending.refresh-ms:1000}")
+    public void refresh() {
+        long now = System.currentTimeMillis();
+        ranking.maintain(now);
+        if (!changed.getAndSet(false)) {
+            return;
+        }
+        List<DecayingTopK.Ranked<Long>> ranked = ranking.top(now);
+        try {
+            Map<Long, PostSummaryDto> summaries = ranked.isEmpty() ? Collections.emptyMap()
+                    : postRepository.findSummariesByIds(ranked.stream().map(DecayingTopK.Ranked::getKey).collect(Collectors.toList()))
+                    .stream().collect(Collectors.toMap(PostSummaryDto::getId, Function.identity()));
+            List<TrendingPostDto> posts = new ArrayList<>(ranked.size());
+            Set<Long> missing = new HashSet<>();
+            for (DecayingTopK.Ranked<Long> entry : ranked) {
+                PostSummaryDto summary = summaries.get(entry.getKey());
+                if (summary == null) {
+                    missing.add(entry.getKey());
+                } else {
+                    posts.add(new TrendingPostDto(posts.size() + 1, entry.getScore(), summary));
+                }
+            }
+            // deleted posts leave the ranking; the next refresh promotes whoever is next in line
+            if (!missing.isEmpty()) {
+                missing.forEach(ranking::remove);
+                changed.set(true);
+            }
+            current.set(Collections.unmodifiableList(posts));
+        } catch (Exception e) {
+            changed.set(true);
+            logger.error("Failed to refresh trending posts: {}", e.getMessage());
+        }
+    }
+}
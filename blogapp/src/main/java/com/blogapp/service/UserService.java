@@ -1,6 +1,8 @@
 package com.blogapp.service;
 
 import com.blogapp.payload.LoginDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TokenDto;
 import com.blogapp.payload.UserDetailsDto;
 import com.blogapp.payload.UserDto;
 import org.springframework.stereotype.Service;
@@ -11,10 +13,13 @@ import java.util.List;
 @Service
 public interface UserService {
     UserDetailsDto userRegister(UserDto userDto, MultipartFile profileImage);
-    String userAuthentication(LoginDto loginDto);
+    TokenDto userAuthentication(LoginDto loginDto);
+    String signOut(String token);
     String deleteUserDetails(Long userId);
     UserDetailsDto updateUserDetails(Long userId, UserDto userDto,MultipartFile profileImage);
     UserDetailsDto getUserById(Long userId);
     List<UserDetailsDto> listOfUsers();
+    ResourceVersion findUserVersion(Long userId);
+    ResourceVersion findUsersVersion();
     boolean verifyUser(String userEmailId);
 }
@@ -1,22 +1,31 @@
 package com.blogapp.service;
 
 import com.amazonaws.services.s3.AmazonS3;
+import com.blogapp.config.CacheConfig;
 import com.blogapp.entity.Address;
 import com.blogapp.entity.User;
+import com.blogapp.exception.TooManyRequestsException;
 import com.blogapp.exception.UserAlreadyExistsException;
 import com.blogapp.exception.UserNotFoundException;
+import com.blogapp.mapper.UserMapper;
 import com.blogapp.payload.LoginDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TokenDto;
 import com.blogapp.payload.UserDetailsDto;
 import com.blogapp.payload.UserDto;
 import com.blogapp.repository.AddressRepository;
 import com.blogapp.repository.UserRepository;
-import com.blogapp.util.EmailSenderService;
-import org.modelmapper.ModelMapper;
+import com.blogapp.util.EmailOutboxService;
+import com.blogapp.security.TokenService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.time.LocalDateTime;
@@ -42,37 +51,39 @@ public class UserServiceImpl implements UserService{
     private AddressRepository addressRepository;
 
     @Autowired
-    private EmailSenderService emailSenderService;
+    private EmailOutboxService emailOutboxService;
 
     @Autowired
-    private ModelMapper modelMapper;
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private UserMapper userMapper;
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private ReactionCleaner reactionCleaner;
 
     @Value("${file.upload-dir}")
     private String uploadDir;
 
     public UserDetailsDto mapToDto(User user){
-        UserDetailsDto userDto = new UserDetailsDto();
-        userDto.setUserName(user.getUserName());
-        userDto.setEmail(user.getEmail());
-        userDto.setMobile(user.getMobile());
-        userDto.setAddress(user.getAddress());
-        userDto.setCreateAt(user.getCreateAt());
-        userDto.setProfileImagePath(user.getProfileImagePath());
-        return userDto;
+        return userMapper.toDetailsDto(user);
     }
 
     public User mapToEntity(UserDto userDto){
-        return modelMapper.map(userDto,User.class);
+        return userMapper.toEntity(userDto);
     }
 
     public Address mapToAddress(UserDto userDto){
-        Address address = new Address();
-        address.setAreaName(userDto.getAddress().getAreaName());
-        address.setCityName(userDto.getAddress().getCityName());
-        address.setPinCode(userDto.getAddress().getPinCode());
-        address.setStateName(userDto.getAddress().getStateName());
-        address.setCountryName(userDto.getAddress().getCountryName());
-        return address;
+        return userMapper.copyAddress(userDto.getAddress());
     }
 
     public String emailFormatting(String username,String verificationLink){
@@ -113,7 +124,7 @@ public class UserServiceImpl implements UserService{
             user.setRole("ROLE_USER");
 
             //password encryption
-            //String password = userDto.getPassword();
+            user.setPassword(passwordHasher.hash(userDto.getPassword()));
 
             user.setCreateAt(LocalDateTime.now().withNano(0));
             user.setUpdateAt(LocalDateTime.now().withNano(0));
@@ -142,18 +153,24 @@ public class UserServiceImpl implements UserService{
             verificationLink = "http://192.168.31.94:8080/api/auth/user/verify?userEmailId=" + user.getEmail();
             body = emailFormatting(userDto.getUserName(), verificationLink);
 
-            saved = userRepository.save(user);
+            subject = "Email Verification";
+            // user row and verification mail commit together; SMTP latency stays out of sign-up
+            User toSave = user;
+            String mailSubject = subject;
+            String mailBody = body;
+            saved = transactionTemplate.execute(status -> {
+                User savedUser = userRepository.save(toSave);
+                emailOutboxService.enqueue(savedUser.getEmail(), mailSubject, mailBody, true);
+                return savedUser;
+            });
             logger.info("User registration Successfully! : {}",saved.getId());
+            autocompleteService.putUser(saved.getId(), saved.getUserName());
             if(saved != null){
-                try {
-                    subject = "Email Verification";
-                    logger.info("User registration email sending... {}",user.getEmail());
-                    emailSenderService.sendHtmlEmail(user.getEmail(),subject,body); //MessagingException
-                } catch (Exception e) {
-                    logger.error("User registration failed! not sending email: {} : {}",e.getMessage(),e.getStackTrace());
-                }
+                logger.info("User registration email queued... {}",user.getEmail());
                 return mapToDto(saved);
             }
+        }catch (TooManyRequestsException e){
+            throw e;
         }catch (Exception e){
             logger.error("User Details :- {} : {}",e.getMessage(),e.getStackTrace());
         }
@@ -186,20 +203,39 @@ public class UserServiceImpl implements UserService{
     }
 
     @Override
-    public String userAuthentication(LoginDto loginDto) {
+    public TokenDto userAuthentication(LoginDto loginDto) {
         Optional<User> opUser = userRepository.findByUserName(loginDto.getUserName());
-        if(opUser.isPresent()){
+        // an unknown user still pays for one hash check, so response times do not reveal which names exist
+        String storedPassword = opUser.map(User::getPassword).orElse(null);
+        PasswordHasher.Verification verification = passwordHasher.verify(loginDto.getPassword(), storedPassword);
+        if(opUser.isPresent() && verification.matched()){
             User user = opUser.get();
-            if(loginDto.getPassword().equals(user.getPassword())){
-                return "User is logged in...";
-            }else{
-                return "invalid username/password";
+            if(verification == PasswordHasher.Verification.MATCHED_NEEDS_REHASH){
+                // plaintext left from before hashing, or a hash below the current cost: upgrade it off the request path
+                passwordHasher.rehashLater(loginDto.getPassword(), hash -> {
+                    Integer updated = transactionTemplate.execute(status -> userRepository.updatePassword(user.getId(), storedPassword, hash));
+                    logger.info("Success! Password rehashed for user: {} : {}", user.getId(), updated);
+                });
             }
+            logger.info("Success! User is logged in: {}", user.getId());
+            return tokenService.issue(user.getId(), user.getUserName(), user.getRole());
         }
-        return "invalid username/password";
+        logger.warn("Invalid username/password for: {}", loginDto.getUserName());
+        return null;
+    }
+
+    @Override
+    public String signOut(String token) {
+        tokenService.revoke(token);
+        return "User is logged out...";
     }
 
+    // cached posts carry the author name, so they go too
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.POSTS, allEntries = true)
+    })
     public String deleteUserDetails(Long userId) {
         logger.debug("Processing user with ID: {}", userId);
         boolean deleteImage = false;
@@ -211,7 +247,13 @@ public class UserServiceImpl implements UserService{
                 logger.info("Successfully processed user!");
                 deleteImage = awsS3Service.deleteImage(user.getProfileImagePath());
                 if(deleteImage){
-                    userRepository.deleteById(userId);
+                    // the likes the user gave come off what they liked; those on the user's posts go with them
+                    transactionTemplate.executeWithoutResult(status -> {
+                        reactionCleaner.deleteBy(List.of(userId));
+                        reactionCleaner.deleteOnPostsOf(List.of(userId));
+                        userRepository.deleteById(userId);
+                    });
+                    autocompleteService.removeUser(userId);
                     logger.info("Successfully processed user was deleted!");
                     return "User is deleted by user id : "+userId;
                 }
@@ -224,6 +266,10 @@ public class UserServiceImpl implements UserService{
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#userId"),
+            @CacheEvict(cacheNames = CacheConfig.POSTS, allEntries = true)
+    })
     public UserDetailsDto updateUserDetails(Long userId, UserDto userDto,MultipartFile profileImage) {
         logger.debug("Processing user with id: {}", userId);
         User user = null;
@@ -253,6 +299,7 @@ public class UserServiceImpl implements UserService{
                 //email not update
 
                 User saved = userRepository.save(user);
+                autocompleteService.putUser(saved.getId(), saved.getUserName());
                 logger.info("Success! update user details");
                 return mapToDto(saved);
             }
@@ -265,6 +312,7 @@ public class UserServiceImpl implements UserService{
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#userId", unless = "#result == null")
     public UserDetailsDto getUserById(Long userId) {
         logger.debug("Processing get user with ID: {}", userId);
         try {
@@ -288,11 +336,35 @@ public class UserServiceImpl implements UserService{
         logger.debug("Processing get all users..");
         List<User> userList = null;
         try {
-            userList = userRepository.findAll();
-            return userList.stream().map((element) -> modelMapper.map(element, UserDetailsDto.class)).collect(Collectors.toList());
+            userList = userRepository.findAllWithAddress();
+            return userList.stream().map(this::mapToDto).collect(Collectors.toList());
         }catch (Exception e){
             logger.error("User's not found! : {}",e.getMessage());
         }
         return null;
     }
-}
\ No newline at end of file
+
+    @Override
+    public ResourceVersion findUserVersion(Long userId) {
+        try {
+            ResourceVersion version = userRepository.findVersionById(userId).orElse(null);
+            if(version != null){
+                return version;
+            }
+            logger.warn("User version not found! : {}",userId);
+        }catch (Exception e){
+            logger.error("Failed to fetch user version: {}",e.getMessage());
+        }
+        return null;
+    }
+
+    @Override
+    public ResourceVersion findUsersVersion() {
+        try {
+            return userRepository.findAllVersion();
+        }catch (Exception e){
+            logger.error("Failed to fetch users version: {}",e.getMessage());
+        }
+        return null;
+    }
+}
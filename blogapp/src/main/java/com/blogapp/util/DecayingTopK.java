@@ -0,0 +1,165 @@
+package com.blogapp.util;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Top-K keys by exponentially time-decayed score, kept up to date one event at a time.
+ * <p>
+ * Scores use forward decay: an event of weight {@code w} at time {@code t} adds {@code w * 2^((t - landmark) / halfLife)}
+ * and never has to be touched again, because decaying every score to "now" divides them all by the same factor and
+ * leaves the order unchanged. The landmark is moved forward from time to time so the numbers stay in double range.
+ * <p>
+ * Every known key keeps its score in a map; the best {@code capacity} of them are also held in a sorted set, so
+ * an event costs a map lookup plus O(log K). Callers pass the clock in milliseconds.
+ */
+public class DecayingTopK<K extends Comparable<K>> {
+
+    // rebase once scores have grown by about 2^92; well below where exp() overflows
+    private static final double REBASE_EXPONENT = 64.0;
+
+    private final int capacity;
+    private final int maxTracked;
+    private final double lambda;
+    private long landmark;
+
+    // highest score first; on equal scores the larger (newer) key wins
+    private final Comparator<Candidate<K>> order = (a, b) -> {
+        int byScore = Double.compare(b.score, a.score);
+        return byScore != 0 ? byScore : b.key.compareTo(a.key);
+    };
+
+    private final Map<K, Candidate<K>> tracked = new HashMap<>();
+    private final TreeSet<Candidate<K>> top = new TreeSet<>(order);
+    // a top member lost score or was removed, so an outsider may now deserve its place
+    private boolean topDirty;
+
+    public DecayingTopK(int capacity, int maxTracked, Duration halfLife, long landmarkMillis) {
+        if (capacity <= 0 || maxTracked < capacity) {
+            throw new IllegalArgumentException("Need 0 < capacity <= maxTracked, got " + capacity + " and " + maxTracked);
+        }
+        this.capacity = capacity;
+        this.maxTracked = maxTracked;
+        this.lambda = Math.log(2) / halfLife.toMillis();
+        this.landmark = landmarkMillis;
+    }
+
+    public synchronized void record(K key, double weight, long eventMillis) {
+        if (lambda * (eventMillis - landmark) > REBASE_EXPONENT) {
+            rebase(eventMillis);
+        }
+        Candidate<K> candidate = tracked.computeIfAbsent(key, Candidate::new);
+        // the set is ordered by score, so the entry has to leave it before the score changes
+        boolean wasTop = top.remove(candidate);
+        candidate.score = Math.max(0.0, candidate.score + weight * Math.exp(lambda * (eventMillis - landmark)));
+        if (wasTop && weight < 0) {
+            topDirty = true;
+        }
+        offer(candidate);
+    }
+
+    public synchronized void remove(K key) {
+        Candidate<K> candidate = tracked.remove(key);
+        if (candidate != null && top.remove(candidate)) {
+            topDirty = true;
+        }
+    }
+
+    /**
+     * The current top keys, best first, with their scores decayed to {@code nowMillis}.
+     */
+    public synchronized List<Ranked<K>> top(long nowMillis) {
+        if (topDirty) {
+            rebuildTop();
+        }
+        double decay = Math.exp(-lambda * (nowMillis - landmark));
+        List<Ranked<K>> ranked = new ArrayList<>(top.size());
+        for (Candidate<K> candidate : top) {
+            ranked.add(new Ranked<>(candidate.key, candidate.score * decay));
+        }
+        return ranked;
+    }
+
+    /**
+     * Periodic housekeeping: moves the landmark when due and trims the tracked keys back to {@code maxTracked},
+     * dropping the lowest scores. The top set is never affected by trimming.
+     */
+    public synchronized void maintain(long nowMillis) {
+        if (lambda * (nowMillis - landmark) > REBASE_EXPONENT) {
+            rebase(nowMillis);
+        }
+        if (tracked.size() > maxTracked) {
+            List<Candidate<K>> all = new ArrayList<>(tracked.values());
+            all.sort(order);
+            for (Candidate<K> dropped : all.subList(maxTracked, all.size())) {
+                tracked.remove(dropped.key);
+            }
+        }
+        if (topDirty) {
+            rebuildTop();
+        }
+    }
+
+    public synchronized int tracked() {
+        return tracked.size();
+    }
+
+    private void offer(Candidate<K> candidate) {
+        if (top.size() < capacity) {
+            top.add(candidate);
+        } else if (order.compare(candidate, top.last()) < 0) {
+            top.pollLast();
+            top.add(candidate);
+        }
+    }
+
+    // scaling every score by the same factor keeps their order, but rebuilding also settles ties that underflowed to 0
+    private void rebase(long nowMillis) {
+        double factor = Math.exp(-lambda * (nowMillis - landmark));
+        for (Candidate<K> candidate : tracked.values()) {
+            candidate.score *= factor;
+        }
+        landmark = nowMillis;
+        rebuildTop();
+    }
+
+    private void rebuildTop() {
+        top.clear();
+        for (Candidate<K> candidate : tracked.values()) {
+            offer(candidate);
+        }
+        topDirty = false;
+    }
+
+    public static final class Ranked<K> {
+        private final K key;
+        private final double score;
+
+        private Ranked(K key, double score) {
+            this.key = key;
+            this.score = score;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public double getScore() {
+            return score;
+        }
+    }
+
+    private static final class Candidate<K extends Comparable<K>> {
+        private final K key;
+        private double score;
+
+        private Candidate(K key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.blogapp.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-key counters for write-behind updates. Increments land on a striped {@link LongAdder}, so hot keys
+ * do not serialize writers; {@link #drain()} hands back everything accumulated since the last drain.
+ */
+public class DeltaAccumulator<K> {
+
+    private final ConcurrentHashMap<K, LongAdder> counters = new ConcurrentHashMap<>();
+
+    public void increment(K key) {
+        add(key, 1L);
+    }
+
+    public void add(K key, long delta) {
+        LongAdder adder = counters.computeIfAbsent(key, k -> new LongAdder());
+        adder.add(delta);
+        // drain dropped this adder as idle in the meantime: move what landed on it to the live one
+        while (counters.get(key) != adder) {
+            long stranded = adder.sumThenReset();
+            if (stranded == 0) {
+                return;
+            }
+            adder = counters.computeIfAbsent(key, k -> new LongAdder());
+            adder.add(stranded);
+        }
+    }
+
+    public long pending(K key) {
+        LongAdder adder = counters.get(key);
+        return adder == null ? 0L : adder.sum();
+    }
+
+    /**
+     * Takes the accumulated delta of every key, leaving the counters at zero. Keys that saw no increments
+     * since the previous drain are dropped so the map only holds recently active keys.
+     */
+    public Map<K, Long> drain() {
+        Map<K, Long> deltas = new HashMap<>();
+        counters.forEach((key, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta != 0) {
+                deltas.put(key, delta);
+            } else if (counters.remove(key, adder)) {
+                // an increment may have raced with the removal; put it back on a fresh adder
+                long late = adder.sumThenReset();
+                if (late != 0) {
+                    add(key, late);
+                }
+            }
+        });
+        return deltas;
+    }
+
+    public int size() {
+        return counters.size();
+    }
+}
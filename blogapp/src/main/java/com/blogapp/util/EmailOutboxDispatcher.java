@@ -0,0 +1,163 @@
+package com.blogapp.util;
+
+import com.blogapp.entity.EmailOutbox;
+import com.blogapp.repository.EmailOutboxRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Drains the email outbox off the request thread. Each run claims one batch of due mails in a short
+ * transaction, sends them over a single SMTP connection outside any transaction, then marks them SENT in
+ * a second short transaction. Failures are rescheduled with exponential backoff until they are parked as
+ * DEAD after {@code mail.outbox.max-attempts}.
+ */
+@Component
+public class EmailOutboxDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private JavaMailSender mailSender;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.backoff-base-ms:5000}")
+    private long backoffBaseMs;
+
+    @Value("${mail.outbox.backoff-max-ms:3600000}")
+    private long backoffMaxMs;
+
+    // longer than a whole batch can take to send, or a slow batch is claimed and sent a second time
+    @Value("${mail.outbox.lease-ms:300000}")
+    private long leaseMs;
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void drain() {
+        int sent;
+        do {
+            sent = dispatchBatch();
+        } while (sent == batchSize);
+    }
+
+    public int dispatchBatch() {
+        LocalDateTime claimedAt = LocalDateTime.now().withNano(0);
+        List<EmailOutbox> claimed = claim(claimedAt);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        // no transaction and no pooled connection is held while the SMTP server is talked to
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        // MimeMessage keeps identity equality, so a linked map preserves outbox order and maps failures back
+        Map<MimeMessage, EmailOutbox> messages = new LinkedHashMap<>();
+        for (EmailOutbox email : claimed) {
+            try {
+                messages.put(toMessage(email), email);
+            } catch (MessagingException e) {
+                markFailed(email, e, now);
+            }
+        }
+
+        Map<Object, Exception> failed = new HashMap<>();
+        try {
+            // one send call = one connected SMTP transport for the whole batch
+            mailSender.send(messages.keySet().toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            failed.putAll(e.getFailedMessages());
+            if (failed.isEmpty()) {
+                messages.keySet().forEach(message -> failed.put(message, e));
+            }
+        } catch (Exception e) {
+            messages.keySet().forEach(message -> failed.put(message, e));
+        }
+
+        int sentCount = 0;
+        for (Map.Entry<MimeMessage, EmailOutbox> entry : messages.entrySet()) {
+            EmailOutbox email = entry.getValue();
+            Exception error = failed.get(entry.getKey());
+            if (error == null) {
+                email.setStatus(EmailOutbox.Status.SENT);
+                email.setAttempts(email.getAttempts() + 1);
+                email.setUpdateAt(now);
+                sentCount++;
+            } else {
+                markFailed(email, error, now);
+            }
+        }
+        transactionTemplate.executeWithoutResult(status -> emailOutboxRepository.saveAll(claimed));
+        logger.info("Outbox batch processed: {} sent, {} failed", sentCount, claimed.size() - sentCount);
+        return claimed.size();
+    }
+
+    /**
+     * Takes one batch of due mails, and mails whose earlier claim ran out, and leases them to this run. The
+     * row locks last only as long as this short transaction; the lease keeps other dispatchers off the rows
+     * while they are sent, and a dispatcher that dies mid-send only delays them until the lease runs out.
+     */
+    private List<EmailOutbox> claim(LocalDateTime now) {
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> {
+            List<EmailOutbox> due = emailOutboxRepository.findDue(
+                    List.of(EmailOutbox.Status.PENDING, EmailOutbox.Status.SENDING), now, PageRequest.of(0, batchSize));
+            for (EmailOutbox email : due) {
+                email.setStatus(EmailOutbox.Status.SENDING);
+                email.setNextAttemptAt(now.plusNanos(leaseMs * 1_000_000L));
+                email.setUpdateAt(now);
+            }
+            return emailOutboxRepository.saveAll(due);
+        });
+        return claimed == null ? List.of() : claimed;
+    }
+
+    private MimeMessage toMessage(EmailOutbox email) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, email.isHtml());
+        helper.setTo(email.getRecipient());
+        helper.setSubject(email.getSubject());
+        helper.setText(email.getBody(), email.isHtml());
+        return message;
+    }
+
+    private void markFailed(EmailOutbox email, Exception error, LocalDateTime now) {
+        int attempts = email.getAttempts() + 1;
+        email.setAttempts(attempts);
+        email.setUpdateAt(now);
+        String message = String.valueOf(error.getMessage());
+        email.setLastError(message.length() > 1000 ? message.substring(0, 1000) : message);
+        if (attempts >= maxAttempts) {
+            email.setStatus(EmailOutbox.Status.DEAD);
+            logger.error("Mail {} to {} moved to dead letter after {} attempts: {}", email.getId(), email.getRecipient(), attempts, message);
+            return;
+        }
+        long delay = Math.min(backoffMaxMs, backoffBaseMs << Math.min(attempts - 1, 30));
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setNextAttemptAt(now.plusNanos(delay * 1_000_000L));
+        logger.warn("Mail {} failed (attempt {}), retrying at {}: {}", email.getId(), attempts, email.getNextAttemptAt(), message);
+    }
+}
@@ -0,0 +1,39 @@
+package com.blogapp.util;
+
+import com.blogapp.entity.EmailOutbox;
+import com.blogapp.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Component
+public class EmailOutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailOutboxService.class);
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    // MANDATORY: the mail row must commit or roll back together with the business row that caused it
+    @Transactional(propagation = Propagation.MANDATORY)
+    public EmailOutbox enqueue(String to, String subject, String body, boolean html) {
+        EmailOutbox email = new EmailOutbox();
+        email.setRecipient(to);
+        email.setSubject(subject);
+        email.setBody(body);
+        email.setHtml(html);
+        email.setStatus(EmailOutbox.Status.PENDING);
+        email.setAttempts(0);
+        email.setCreateAt(LocalDateTime.now().withNano(0));
+        email.setUpdateAt(LocalDateTime.now().withNano(0));
+        email.setNextAttemptAt(email.getCreateAt());
+        EmailOutbox saved = emailOutboxRepository.save(email);
+        logger.info("Mail queued in outbox with ID: {}", saved.getId());
+        return saved;
+    }
+}
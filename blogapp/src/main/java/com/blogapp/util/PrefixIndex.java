@@ -0,0 +1,159 @@
+package com.blogapp.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable name index for type-ahead. Names are kept lower-cased in one sorted array, so the matches of a
+ * prefix are a contiguous run found with a binary search and read in order, without touching anything else.
+ * <p>
+ * Changes return a new index (one array copy); holders publish it with a single reference write, so readers
+ * never lock and never see a half-applied change.
+ */
+public final class PrefixIndex {
+
+    private static final PrefixIndex EMPTY = new PrefixIndex(new String[0], new long[0], new String[0]);
+
+    // sorted by (keys[i], ids[i]); names keep the original spelling for display
+    private final String[] keys;
+    private final long[] ids;
+    private final String[] names;
+
+    private PrefixIndex(String[] keys, long[] ids, String[] names) {
+        this.keys = keys;
+        this.ids = ids;
+        this.names = names;
+    }
+
+    public static PrefixIndex empty() {
+        return EMPTY;
+    }
+
+    public static PrefixIndex of(Map<Long, String> namesById) {
+        List<Map.Entry<Long, String>> entries = new ArrayList<>();
+        namesById.forEach((id, name) -> {
+            if (id != null && name != null) {
+                entries.add(Map.entry(id, name));
+            }
+        });
+        entries.sort((a, b) -> compare(key(a.getValue()), a.getKey(), key(b.getValue()), b.getKey()));
+        String[] keys = new String[entries.size()];
+        long[] ids = new long[entries.size()];
+        String[] names = new String[entries.size()];
+        for (int i = 0; i < entries.size(); i++) {
+            keys[i] = key(entries.get(i).getValue());
+            ids[i] = entries.get(i).getKey();
+            names[i] = entries.get(i).getValue();
+        }
+        return new PrefixIndex(keys, ids, names);
+    }
+
+    /**
+     * Up to {@code limit} names starting with {@code prefix}, ignoring case, in alphabetical order; a name that
+     * is itself the prefix comes before its longer extensions.
+     */
+    public List<Match> complete(String prefix, int limit) {
+        if (prefix == null || limit <= 0) {
+            return Collections.emptyList();
+        }
+        String start = key(prefix);
+        List<Match> matches = new ArrayList<>(Math.min(limit, 16));
+        for (int i = lowerBound(start, Long.MIN_VALUE); i < keys.length && matches.size() < limit; i++) {
+            if (!keys[i].startsWith(start)) {
+                break;
+            }
+            matches.add(new Match(ids[i], names[i]));
+        }
+        return matches;
+    }
+
+    /**
+     * A copy with {@code id} under {@code name}; any previous name of {@code id} is dropped.
+     */
+    public PrefixIndex with(long id, String name) {
+        PrefixIndex base = without(id);
+        String key = key(name);
+        int at = base.lowerBound(key, id);
+        int size = base.keys.length;
+        String[] keys = new String[size + 1];
+        long[] ids = new long[size + 1];
+        String[] names = new String[size + 1];
+        System.arraycopy(base.keys, 0, keys, 0, at);
+        System.arraycopy(base.ids, 0, ids, 0, at);
+        System.arraycopy(base.names, 0, names, 0, at);
+        keys[at] = key;
+        ids[at] = id;
+        names[at] = name;
+        System.arraycopy(base.keys, at, keys, at + 1, size - at);
+        System.arraycopy(base.ids, at, ids, at + 1, size - at);
+        System.arraycopy(base.names, at, names, at + 1, size - at);
+        return new PrefixIndex(keys, ids, names);
+    }
+
+    public PrefixIndex without(long id) {
+        // ids are not sorted, but a copy is linear anyway
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                int size = ids.length;
+                String[] keys = Arrays.copyOf(this.keys, size - 1);
+                long[] ids = Arrays.copyOf(this.ids, size - 1);
+                String[] names = Arrays.copyOf(this.names, size - 1);
+                System.arraycopy(this.keys, i + 1, keys, i, size - i - 1);
+                System.arraycopy(this.ids, i + 1, ids, i, size - i - 1);
+                System.arraycopy(this.names, i + 1, names, i, size - i - 1);
+                return new PrefixIndex(keys, ids, names);
+            }
+        }
+        return this;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    // first position whose (key, id) is not below the given pair
+    private int lowerBound(String key, long id) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keys[mid], ids[mid], key, id) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int compare(String keyA, long idA, String keyB, long idB) {
+        int byKey = keyA.compareTo(keyB);
+        return byKey != 0 ? byKey : Long.compare(idA, idB);
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    public static final class Match {
+        private final long id;
+        private final String name;
+
+        private Match(long id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.blogapp.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket holding up to {@code capacity} tokens and gaining one every {@code refillIntervalNanos}.
+ * <p>
+ * The whole state is one {@code long}: the time at which the bucket would be full again (the GCRA form of a
+ * token bucket). Taking a token pushes that time one interval further; the request is refused when it would
+ * end up more than {@code capacity} intervals ahead of now. One CAS per attempt, no lock, no allocation.
+ */
+public class TokenBucket {
+
+    private final long refillIntervalNanos;
+    private final long burstNanos;
+    private final AtomicLong fullAt;
+
+    public TokenBucket(long capacity, long refillIntervalNanos, long nowNanos) {
+        if (capacity <= 0 || refillIntervalNanos <= 0) {
+            throw new IllegalArgumentException("capacity and refill interval must be positive");
+        }
+        this.refillIntervalNanos = refillIntervalNanos;
+        this.burstNanos = capacity * refillIntervalNanos;
+        this.fullAt = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one token. Returns 0 when granted, otherwise how many nanoseconds until a token is available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            // an idle bucket refills up to capacity and no further
+            long next = Math.max(current, nowNanos) + refillIntervalNanos;
+            long ahead = next - nowNanos;
+            if (ahead > burstNanos) {
+                return ahead - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Whether the bucket has been full for at least {@code idleNanos}; such a bucket is indistinguishable from a
+     * new one, so dropping it loses nothing.
+     */
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - fullAt.get() >= idleNanos;
+    }
+}
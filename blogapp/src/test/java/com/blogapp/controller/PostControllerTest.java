@@ -0,0 +1,250 @@
+package com.blogapp.controller;
+
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostDto;
+import com.blogapp.payload.PostSearchResultDto;
+import com.blogapp.payload.PostSummaryDto;
+import com.blogapp.payload.PostViewsDto;
+import com.blogapp.payload.ResourceVersion;
+import com.blogapp.payload.TrendingPostDto;
+import com.blogapp.security.AuthenticatedUser;
+import com.blogapp.service.PostService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostControllerTest {
+
+    private static final LocalDateTime UPDATED_AT = LocalDateTime.of(2024, 5, 1, 12, 30, 15);
+
+    private static final AuthenticatedUser AUTHOR = new AuthenticatedUser(1L, "author", "ROLE_USER", "t1", 0);
+    private static final AuthenticatedUser OTHER = new AuthenticatedUser(2L, "other", "ROLE_USER", "t2", 0);
+    private static final AuthenticatedUser ADMIN = new AuthenticatedUser(3L, "admin", AuthenticatedUser.ADMIN_ROLE, "t3", 0);
+
+    @Test
+    void createPostDoesNotListPosts() {
+        TablePostService service = new TablePostService(1_000);
+        PostController controller = new PostController(service, null, null);
+        PostDto postDto = new PostDto();
+        postDto.setTitle("New post");
+        postDto.setDescription("New post description");
+        postDto.setUserId(1L);
+        postDto.setCategoryId(1L);
+        List<MultipartFile> images = List.of(
+                new MockMultipartFile("file", "image.jpg", "image/jpeg", new byte[]{1, 2, 3})
+        );
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(HttpStatus.CREATED, controller.createPost(postDto, images, AUTHOR).getStatusCode());
+        }
+
+        assertEquals(1_003, service.rows.get());
+        assertEquals(0, service.listCalls.get(), "createPost must not list posts");
+    }
+
+    @Test
+    void postIsWrittenAsTheUserTheTokenNames() {
+        TablePostService service = new TablePostService(0);
+        PostController controller = new PostController(service, null, null);
+        PostDto postDto = new PostDto();
+        postDto.setTitle("New post");
+        postDto.setDescription("New post description");
+        postDto.setCategoryId(1L);
+        List<MultipartFile> images = List.of(
+                new MockMultipartFile("file", "image.jpg", "image/jpeg", new byte[]{1, 2, 3})
+        );
+
+        assertEquals(HttpStatus.CREATED, controller.createPost(postDto, images, AUTHOR).getStatusCode());
+        assertEquals(AUTHOR.getUserId(), service.lastUserId);
+
+        postDto.setUserId(AUTHOR.getUserId());
+        assertEquals(HttpStatus.FORBIDDEN, controller.createPost(postDto, images, OTHER).getStatusCode());
+        assertEquals(1, service.rows.get());
+    }
+
+    @Test
+    void onlyTheAuthorOrAnAdminChangesOrDeletesAPost() {
+        TablePostService service = new TablePostService(0);
+        PostController controller = new PostController(service, null, null);
+        // the stub's post 1 is written by user 1
+        Long postId = AUTHOR.getUserId();
+        List<MultipartFile> images = List.of(
+                new MockMultipartFile("file", "image.jpg", "image/jpeg", new byte[]{1, 2, 3})
+        );
+
+        assertEquals(HttpStatus.FORBIDDEN, controller.updatePost(postId, new PostDto(), images, OTHER).getStatusCode());
+        assertEquals(HttpStatus.FORBIDDEN, controller.deletePost(postId, OTHER).getStatusCode());
+        assertEquals(0, service.updates.get());
+        assertEquals(0, service.deletes.get());
+
+        PostDto byAdmin = new PostDto();
+        byAdmin.setUserId(ADMIN.getUserId());
+        controller.updatePost(postId, byAdmin, images, ADMIN);
+        // an admin's edit keeps the author
+        assertEquals(AUTHOR.getUserId(), service.lastUserId);
+        controller.updatePost(postId, new PostDto(), images, AUTHOR);
+        assertEquals(HttpStatus.OK, controller.deletePost(postId, AUTHOR).getStatusCode());
+        assertEquals(HttpStatus.OK, controller.deletePost(postId, ADMIN).getStatusCode());
+        assertEquals(2, service.updates.get());
+        assertEquals(2, service.deletes.get());
+    }
+
+    @Test
+    void unchangedPostIsAnswered304WithoutLoadingItButStillCountsTheView() {
+        TablePostService service = new TablePostService(0);
+        PostController controller = new PostController(service, null, null);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        ResponseEntity<PostDetailsDto> body = controller.findByPostId(7L,
+                new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/post/7"), first));
+        assertEquals(HttpStatus.OK, body.getStatusCode());
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertTrue(etag != null && etag.startsWith("\""), "strong ETag expected: " + etag);
+        assertNotNull(first.getHeader(HttpHeaders.LAST_MODIFIED));
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/api/v1/post/7");
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertNull(controller.findByPostId(7L, new ServletWebRequest(revalidate, second)));
+        assertEquals(304, second.getStatus());
+        assertEquals(1, service.loads.get());
+        assertEquals(1, service.views.get());
+
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/v1/post/8");
+        other.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        assertEquals(HttpStatus.OK, controller.findByPostId(8L, new ServletWebRequest(other, third)).getStatusCode());
+    }
+
+    @Test
+    void postPagesCarryAWeakETagThatChangesWithTheirRows() {
+        TablePostService service = new TablePostService(3);
+        PostController controller = new PostController(service, null, null);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        controller.getPosts(null, null, null, null, new ServletWebRequest(new MockHttpServletRequest("GET", "/api/v1/post"), first));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertTrue(etag != null && etag.startsWith("W/"), "weak ETag expected: " + etag);
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/api/v1/post");
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        assertNull(controller.getPosts(null, null, null, null, new ServletWebRequest(revalidate, second)));
+        assertEquals(304, second.getStatus());
+
+        service.rows.incrementAndGet();
+        MockHttpServletRequest afterInsert = new MockHttpServletRequest("GET", "/api/v1/post");
+        afterInsert.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse third = new MockHttpServletResponse();
+        assertEquals(HttpStatus.OK, controller.getPosts(null, null, null, null, new ServletWebRequest(afterInsert, third)).getStatusCode());
+    }
+
+    /**
+     * Stand-in for the real service that counts inserts, listings, loads and views.
+     */
+    private static class TablePostService implements PostService {
+        private final AtomicInteger rows;
+        private final AtomicInteger listCalls = new AtomicInteger();
+        private final AtomicInteger loads = new AtomicInteger();
+        private final AtomicInteger views = new AtomicInteger();
+        private final AtomicInteger updates = new AtomicInteger();
+        private final AtomicInteger deletes = new AtomicInteger();
+        private Long lastUserId;
+
+        TablePostService(int rows) {
+            this.rows = new AtomicInteger(rows);
+        }
+
+        @Override
+        public PostDetailsDto addPost(PostDto postDto, List<MultipartFile> postImages) {
+            rows.incrementAndGet();
+            lastUserId = postDto.getUserId();
+            PostDetailsDto dto = new PostDetailsDto();
+            dto.setTitle(postDto.getTitle());
+            dto.setDescription(postDto.getDescription());
+            return dto;
+        }
+
+        @Override
+        public CursorPage<PostSummaryDto> listOfPosts(String cursor, Integer size, Long categoryId, Long userId) {
+            listCalls.incrementAndGet();
+            List<PostSummaryDto> all = new ArrayList<>(rows.get());
+            for (int i = 0; i < rows.get(); i++) {
+                PostSummaryDto summary = new PostSummaryDto();
+                summary.setId((long) i);
+                all.add(summary);
+            }
+            return new CursorPage<>(all, null, all.size());
+        }
+
+        @Override
+        public PostViewsDto getPostViews(Long postId) {
+            return null;
+        }
+
+        @Override
+        public List<TrendingPostDto> listOfTrendingPosts(Integer size) {
+            return List.of();
+        }
+
+        @Override
+        public PostSearchResultDto searchPosts(String query, Integer page, Integer size) {
+            return null;
+        }
+
+        @Override
+        public String deletePostDetails(Long postId) {
+            deletes.incrementAndGet();
+            return "Post is deleted by post id : " + postId;
+        }
+
+        @Override
+        public PostDetailsDto updatePost(Long postId, PostDto postDto, List<MultipartFile> postImages) {
+            updates.incrementAndGet();
+            lastUserId = postDto.getUserId();
+            return null;
+        }
+
+        @Override
+        public PostDetailsDto findByPostId(Long postId) {
+            loads.incrementAndGet();
+            PostDetailsDto dto = new PostDetailsDto();
+            dto.setId(postId);
+            dto.setUpdateAt(UPDATED_AT);
+            return dto;
+        }
+
+        @Override
+        public ResourceVersion findPostVersion(Long postId) {
+            return new ResourceVersion(postId, UPDATED_AT, UPDATED_AT, UPDATED_AT);
+        }
+
+        // post n is written by user n
+        @Override
+        public Long findPostAuthorId(Long postId) {
+            return postId;
+        }
+
+        @Override
+        public void recordView(Long postId) {
+            views.incrementAndGet();
+        }
+    }
+}
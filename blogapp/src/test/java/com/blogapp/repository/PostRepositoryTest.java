@@ -0,0 +1,128 @@
+package com.blogapp.repository;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.payload.PostSummaryDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:postpages;NON_KEYWORDS=USER")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class PostRepositoryTest {
+
+    private static final LocalDateTime TIED = LocalDateTime.of(2022, 6, 1, 12, 0, 0);
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void pagesWalkTiedTimestampsByIdWithoutSkippingOrRepeating() {
+        User user = persistUser();
+        Category category = persistCategory("Technology");
+        List<Long> expected = new ArrayList<>();
+        // three posts share one update_at, so the id alone separates them across a page boundary
+        expected.add(persistPost(user, category, TIED.plusMinutes(1)).getId());
+        for (int i = 0; i < 3; i++) {
+            expected.add(persistPost(user, category, TIED).getId());
+        }
+        expected.add(persistPost(user, category, TIED.minusMinutes(1)).getId());
+        // newest first, and within the tie the highest id first
+        List<Long> tied = new ArrayList<>(expected.subList(1, 4));
+        tied.sort((a, b) -> Long.compare(b, a));
+        expected.subList(1, 4).clear();
+        expected.addAll(1, tied);
+        entityManager.flush();
+
+        List<Long> seen = new ArrayList<>();
+        List<PostSummaryDto> page = postRepository.findPage(null, null, null, null, 2);
+        while (!page.isEmpty()) {
+            page.forEach(post -> seen.add(post.getId()));
+            PostSummaryDto last = page.get(page.size() - 1);
+            page = postRepository.findPage(last.getUpdateAt(), last.getId(), null, null, 2);
+        }
+
+        assertEquals(expected, seen);
+    }
+
+    @Test
+    void filtersApplyAloneAndTogether() {
+        User alice = persistUser();
+        User bob = persistUser();
+        Category technology = persistCategory("Technology");
+        Category travel = persistCategory("Travel");
+        Post aliceTech = persistPost(alice, technology, TIED);
+        Post aliceTravel = persistPost(alice, travel, TIED);
+        Post bobTech = persistPost(bob, technology, TIED);
+        entityManager.flush();
+
+        assertEquals(List.of(bobTech.getId(), aliceTech.getId()),
+                ids(postRepository.findPage(null, null, technology.getId(), null, 10)));
+        assertEquals(List.of(aliceTravel.getId(), aliceTech.getId()),
+                ids(postRepository.findPage(null, null, null, alice.getId(), 10)));
+        assertEquals(List.of(aliceTech.getId()),
+                ids(postRepository.findPage(null, null, technology.getId(), alice.getId(), 10)));
+        assertEquals(List.of(aliceTech.getId()),
+                ids(postRepository.findPage(TIED, aliceTravel.getId(), null, alice.getId(), 10)));
+
+        PostSummaryDto summary = postRepository.findPage(null, null, travel.getId(), null, 10).get(0);
+        assertEquals(alice.getUserName(), summary.getUserName());
+        assertEquals("Travel", summary.getCategoryName());
+        assertTrue(postRepository.findPage(TIED, aliceTech.getId(), technology.getId(), alice.getId(), 10).isEmpty());
+    }
+
+    private static List<Long> ids(List<PostSummaryDto> posts) {
+        return posts.stream().map(PostSummaryDto::getId).toList();
+    }
+
+    private Post persistPost(User user, Category category, LocalDateTime updateAt) {
+        Post post = new Post();
+        post.setTitle("Post");
+        post.setDescription("Post description");
+        post.setCreateAt(updateAt);
+        post.setUpdateAt(updateAt);
+        post.setPostImagesPath(new ArrayList<>(List.of("https://bucket/image.jpg")));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private User persistUser() {
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath("https://bucket/profile.jpg");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        category.setDescription(name + " posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+}
@@ -0,0 +1,132 @@
+package com.blogapp.security;
+
+import com.blogapp.config.RateLimitProperties;
+import com.blogapp.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private RateLimitFilter filter(RateLimitProperties properties) {
+        return new RateLimitFilter(new RateLimiter(properties), properties, new ObjectMapper());
+    }
+
+    private RateLimitProperties uploadLimit(long perClient, long total) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setRoutes(List.of(new RateLimitProperties.Route("POST", "/api/v1/s3/uploadFile",
+                new RateLimitProperties.Limit(perClient, Duration.ofHours(1)),
+                new RateLimitProperties.Limit(total, Duration.ofHours(1)))));
+        return properties;
+    }
+
+    @Test
+    void rejectsAClientOverItsLimitWithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(uploadLimit(2, 100));
+        assertEquals(200, run(filter, upload("10.0.0.1")).getStatus());
+        assertEquals(200, run(filter, upload("10.0.0.1")).getStatus());
+
+        MockHttpServletResponse limited = run(filter, upload("10.0.0.1"));
+        assertEquals(429, limited.getStatus());
+        long retryAfter = Long.parseLong(limited.getHeader("Retry-After"));
+        assertTrue(retryAfter > 0 && retryAfter <= 1800, "retry after " + retryAfter);
+        assertTrue(limited.getContentAsString().contains("Too many requests"));
+
+        // other clients have their own bucket
+        assertEquals(200, run(filter, upload("10.0.0.2")).getStatus());
+    }
+
+    @Test
+    void theRouteWideLimitCapsAllClientsTogether() throws Exception {
+        RateLimitFilter filter = filter(uploadLimit(5, 3));
+        assertEquals(200, run(filter, upload("10.0.0.1")).getStatus());
+        assertEquals(200, run(filter, upload("10.0.0.2")).getStatus());
+        assertEquals(200, run(filter, upload("10.0.0.3")).getStatus());
+        assertEquals(429, run(filter, upload("10.0.0.4")).getStatus());
+    }
+
+    @Test
+    void readsAndOtherRoutesAreNotCounted() throws Exception {
+        RateLimitFilter filter = filter(uploadLimit(1, 1));
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, run(filter, new MockHttpServletRequest("GET", "/api/v1/s3/uploadFile")).getStatus());
+            assertEquals(200, run(filter, new MockHttpServletRequest("POST", "/api/v1/post/addPost")).getStatus());
+        }
+        assertEquals(200, run(filter, upload("10.0.0.1")).getStatus());
+    }
+
+    @Test
+    void usesTheAddressTheTrustedProxyAppended() throws Exception {
+        RateLimitProperties properties = uploadLimit(1, 100);
+        properties.setClientIpHeader("X-Forwarded-For");
+        RateLimitFilter filter = filter(properties);
+
+        MockHttpServletRequest first = upload("10.0.0.1");
+        first.addHeader("X-Forwarded-For", "203.0.113.5");
+        assertEquals(200, run(filter, first).getStatus());
+
+        // same proxy address, different original client
+        MockHttpServletRequest second = upload("10.0.0.1");
+        second.addHeader("X-Forwarded-For", "203.0.113.6");
+        assertEquals(200, run(filter, second).getStatus());
+
+        // whatever the client wrote in front of the proxy's entry does not buy it a new bucket
+        MockHttpServletRequest spoofed = upload("10.0.0.1");
+        spoofed.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.5");
+        assertEquals(429, run(filter, spoofed).getStatus());
+        MockHttpServletRequest repeated = upload("10.0.0.1");
+        repeated.addHeader("X-Forwarded-For", "198.51.100.2");
+        repeated.addHeader("X-Forwarded-For", "203.0.113.5");
+        assertEquals(429, run(filter, repeated).getStatus());
+    }
+
+    @Test
+    void countsTrustedProxiesInFromTheRight() throws Exception {
+        RateLimitProperties properties = uploadLimit(1, 100);
+        properties.setClientIpHeader("X-Forwarded-For");
+        properties.setTrustedProxies(2);
+        RateLimitFilter filter = filter(properties);
+
+        MockHttpServletRequest first = upload("10.0.0.1");
+        first.addHeader("X-Forwarded-For", "198.51.100.1, 203.0.113.5, 10.0.0.2");
+        assertEquals(200, run(filter, first).getStatus());
+
+        MockHttpServletRequest again = upload("10.0.0.1");
+        again.addHeader("X-Forwarded-For", "198.51.100.9, 203.0.113.5, 10.0.0.3");
+        assertNotNull(run(filter, again).getHeader("Retry-After"));
+    }
+
+    @Test
+    void pathParametersDoNotSkipTheLimit() throws Exception {
+        RateLimitFilter filter = filter(uploadLimit(1, 100));
+        assertEquals(200, run(filter, upload("10.0.0.1")).getStatus());
+
+        MockHttpServletRequest disguised = new MockHttpServletRequest("POST", "/api/v1/s3;x=1/uploadFile");
+        disguised.setRemoteAddr("10.0.0.1");
+        assertEquals(429, run(filter, disguised).getStatus());
+        MockHttpServletRequest doubled = new MockHttpServletRequest("POST", "/api/v1//s3/uploadFile/");
+        doubled.setRemoteAddr("10.0.0.1");
+        assertEquals(429, run(filter, doubled).getStatus());
+    }
+
+    private static MockHttpServletRequest upload(String remoteAddr) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/s3/uploadFile");
+        request.setRemoteAddr(remoteAddr);
+        return request;
+    }
+
+    private static MockHttpServletResponse run(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
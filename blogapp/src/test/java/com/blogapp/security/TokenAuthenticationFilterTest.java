@@ -0,0 +1,78 @@
+package com.blogapp.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenAuthenticationFilterTest {
+
+    private final TokenService tokenService = new TokenService(
+            new ObjectMapper(), new RevocationList(1_000), "test-secret-that-is-at-least-32-bytes-long", 3600, 100);
+    private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenService, new ObjectMapper());
+
+    @Test
+    void readsAndUnprotectedPathsPassWithoutAToken() throws Exception {
+        assertEquals(200, run(new MockHttpServletRequest("GET", "/api/v1/post/1")).getStatus());
+        assertEquals(200, run(new MockHttpServletRequest("POST", "/api/auth/user/sign-in")).getStatus());
+        assertEquals(200, run(new MockHttpServletRequest("POST", "/api/v1/postcards")).getStatus());
+    }
+
+    @Test
+    void writesNeedAValidBearerToken() throws Exception {
+        MockHttpServletResponse missing = run(new MockHttpServletRequest("POST", "/api/v1/post/addPost"));
+        assertEquals(401, missing.getStatus());
+        assertNotNull(missing.getHeader("WWW-Authenticate"));
+
+        MockHttpServletRequest forged = new MockHttpServletRequest("DELETE", "/api/v1/comment/deleteComment/1");
+        forged.addHeader("Authorization", "Bearer abc.def.ghi");
+        assertEquals(401, run(forged).getStatus());
+
+        MockHttpServletRequest signedIn = new MockHttpServletRequest("PUT", "/api/v1/category/updateCategory/1");
+        signedIn.addHeader("Authorization", "Bearer " + tokenService.issue(7L, "bob", "ROLE_USER").getToken());
+        assertEquals(200, run(signedIn).getStatus());
+        assertEquals(7L, ((AuthenticatedUser) signedIn.getAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER)).getUserId());
+    }
+
+    @Test
+    void pathsThatRouteToAProtectedEndpointNeedATokenToo() throws Exception {
+        assertEquals(401, run(new MockHttpServletRequest("POST", "/api/v1/category;x=1/addCategory")).getStatus());
+        assertEquals(401, run(new MockHttpServletRequest("POST", "/api/v1/post;jsessionid=1")).getStatus());
+        assertEquals(401, run(new MockHttpServletRequest("POST", "/api/v1//comment/addComment")).getStatus());
+        assertEquals(401, run(new MockHttpServletRequest("POST", "/api/v1/%70ost/addPost")).getStatus());
+        assertEquals(401, run(new MockHttpServletRequest("POST", "/api/v1/postcards/../post/addPost")).getStatus());
+
+        MockHttpServletRequest inContext = new MockHttpServletRequest("POST", "/blog/api/v1/bulk;x=1/posts");
+        inContext.setContextPath("/blog");
+        assertEquals(401, run(inContext).getStatus());
+    }
+
+    @Test
+    void exportsNeedATokenEvenToRead() throws Exception {
+        assertEquals(401, run(new MockHttpServletRequest("GET", "/api/v1/export/posts")).getStatus());
+        assertEquals(401, run(new MockHttpServletRequest("HEAD", "/api/v1/export;x=1/comments")).getStatus());
+
+        MockHttpServletRequest signedIn = new MockHttpServletRequest("GET", "/api/v1/export/posts");
+        signedIn.addHeader("Authorization", "Bearer " + tokenService.issue(1L, "admin", AuthenticatedUser.ADMIN_ROLE).getToken());
+        assertEquals(200, run(signedIn).getStatus());
+        assertNotNull(signedIn.getAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER));
+    }
+
+    @Test
+    void unprotectedRequestsCarryNoUser() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/category/1");
+        run(request);
+        assertNull(request.getAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER));
+    }
+
+    private MockHttpServletResponse run(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,104 @@
+package com.blogapp.security;
+
+import com.blogapp.exception.InvalidTokenException;
+import com.blogapp.payload.TokenDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenServiceTest {
+
+    private static final String SECRET = "test-secret-that-is-at-least-32-bytes-long";
+
+    private final RevocationList revocationList = new RevocationList(1_000);
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-01-01T10:00:00Z"));
+    private final TokenService tokenService = new TokenService(new ObjectMapper(), revocationList, SECRET, 3600, 100, clock);
+
+    @Test
+    void issuedTokenVerifiesToItsUser() {
+        TokenDto token = tokenService.issue(42L, "alice", "ROLE_USER");
+
+        AuthenticatedUser user = tokenService.verify(token.getToken());
+
+        assertEquals(42L, user.getUserId());
+        assertEquals("alice", user.getUserName());
+        assertEquals("ROLE_USER", user.getRole());
+        assertEquals("Bearer", token.getTokenType());
+        // served from the verified-token cache the second time
+        assertEquals(42L, tokenService.verify(token.getToken()).getUserId());
+    }
+
+    @Test
+    void tamperedOrForeignTokensAreRejected() {
+        String token = tokenService.issue(42L, "alice", "ROLE_USER").getToken();
+        String[] parts = token.split("\\.");
+        String forgedPayload = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                "{\"sub\":\"1\",\"name\":\"admin\",\"role\":\"ROLE_ADMIN\",\"exp\":9999999999,\"jti\":\"x\"}".getBytes());
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(parts[0] + "." + forgedPayload + "." + parts[2]));
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(token + "x"));
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify("not-a-token"));
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(null));
+
+        TokenService otherKey = new TokenService(new ObjectMapper(), revocationList, SECRET + "-other", 3600, 100, clock);
+        assertThrows(InvalidTokenException.class, () -> otherKey.verify(token));
+    }
+
+    @Test
+    void expiredTokensAreRejectedEvenWhenCached() {
+        String token = tokenService.issue(42L, "alice", "ROLE_USER").getToken();
+        tokenService.verify(token);
+
+        clock.advanceSeconds(3600);
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(token));
+    }
+
+    @Test
+    void revokedTokensAreRejectedAndOthersStillPass() {
+        String signedOut = tokenService.issue(42L, "alice", "ROLE_USER").getToken();
+        String other = tokenService.issue(42L, "alice", "ROLE_USER").getToken();
+        tokenService.verify(signedOut);
+
+        tokenService.revoke(signedOut);
+
+        assertThrows(InvalidTokenException.class, () -> tokenService.verify(signedOut));
+        assertEquals(42L, tokenService.verify(other).getUserId());
+        assertEquals(1, revocationList.size());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        private MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advanceSeconds(long seconds) {
+            now = now.plusSeconds(seconds);
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
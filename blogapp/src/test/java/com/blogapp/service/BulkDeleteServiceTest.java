@@ -0,0 +1,291 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.blogapp.entity.Address;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.Reaction;
+import com.blogapp.entity.User;
+import com.blogapp.mapper.CategoryMapperImpl;
+import com.blogapp.payload.BulkDeleteResultDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulkdelete;NON_KEYWORDS=USER",
+        "aws.s3.bucket=bucket",
+        "bulk-delete.chunk-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({BulkDeleteService.class, AwsS3Service.class, TrendingService.class, PostSearchIndex.class,
+        AutocompleteService.class, CategoryCatalog.class, CategoryMapperImpl.class, ReactionCleaner.class,
+        BulkDeleteServiceTest.Storage.class})
+class BulkDeleteServiceTest {
+
+    private static final String BUCKET_URL = "https://bucket.s3.amazonaws.com/";
+
+    @Autowired
+    private BulkDeleteService bulkDeleteService;
+
+    @Autowired
+    private AwsS3Service awsS3Service;
+
+    @Autowired
+    private RecordingS3 s3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User alice;
+    private User bob;
+    private Post alicePost;
+    private Post bobPost;
+    private Comment aliceComment;
+    private Comment bobReply;
+    private Comment bobComment;
+    private Comment bobOnAlicePost;
+
+    @BeforeEach
+    void setUp() {
+        s3.deletes.clear();
+        Category category = persistCategory();
+        alice = persistUser("alice");
+        bob = persistUser("bob");
+        alicePost = persistPost(alice, category, BUCKET_URL + "a1.jpg", BUCKET_URL + "a2.jpg");
+        persistPost(alice, category, BUCKET_URL + "a3.jpg");
+        bobPost = persistPost(bob, category, BUCKET_URL + "b1.jpg");
+        aliceComment = persistComment(bobPost, alice, null);
+        bobReply = persistComment(bobPost, bob, aliceComment);
+        bobComment = persistComment(bobPost, bob, null);
+        bobOnAlicePost = persistComment(alicePost, bob, null);
+        bobPost.setCommentCount(3);
+        alicePost.setCommentCount(1);
+        entityManager.flush();
+    }
+
+    @Test
+    void deletingPostsTakesTheirCommentsAndImagesInOneRequest() {
+        BulkDeleteResultDto result = bulkDeleteService.deletePosts(List.of(alicePost.getId(), -1L));
+        entityManager.clear();
+
+        assertEquals(1, result.getPosts());
+        assertEquals(1, result.getComments());
+        assertEquals(2, result.getImages());
+        assertTrue(result.isImagesDeleted());
+        assertEquals(List.of(List.of("a1.jpg", "a2.jpg")), s3.deletes);
+        assertNull(entityManager.find(Post.class, alicePost.getId()));
+        assertNull(entityManager.find(Comment.class, bobOnAlicePost.getId()));
+        assertNotNull(entityManager.find(Post.class, bobPost.getId()));
+    }
+
+    @Test
+    void deletingCommentsTakesTheirRepliesAndRecountsThePost() {
+        BulkDeleteResultDto result = bulkDeleteService.deleteComments(List.of(aliceComment.getId(), bobReply.getId()));
+        entityManager.clear();
+
+        // the reply was asked for and also belongs to the first thread; it is only counted once
+        assertEquals(2, result.getComments());
+        assertNull(entityManager.find(Comment.class, bobReply.getId()));
+        assertNotNull(entityManager.find(Comment.class, bobComment.getId()));
+        assertEquals(1, entityManager.find(Post.class, bobPost.getId()).getCommentCount());
+    }
+
+    @Test
+    void deletingUsersTakesTheirPostsCommentsRepliesAndAddress() {
+        Long addressId = alice.getAddress().getId();
+
+        BulkDeleteResultDto result = bulkDeleteService.deleteUsers(List.of(alice.getId()));
+        entityManager.clear();
+
+        assertEquals(1, result.getUsers());
+        assertEquals(2, result.getPosts());
+        // her comment, bob's reply to it, and bob's comment on her post
+        assertEquals(3, result.getComments());
+        assertEquals(4, result.getImages());
+        assertNull(entityManager.find(User.class, alice.getId()));
+        assertNull(entityManager.find(Address.class, addressId));
+        assertNotNull(entityManager.find(User.class, bob.getId()));
+        assertNotNull(entityManager.find(Comment.class, bobComment.getId()));
+        assertEquals(1, entityManager.find(Post.class, bobPost.getId()).getCommentCount());
+    }
+
+    @Test
+    void deletingAUserTakesTheirLikesOffWhatRemainsAndTheLikesOnWhatGoes() {
+        like(alice, Reaction.TargetType.POST, bobPost.getId());
+        like(alice, Reaction.TargetType.COMMENT, bobComment.getId());
+        like(bob, Reaction.TargetType.POST, bobPost.getId());
+        like(bob, Reaction.TargetType.POST, alicePost.getId());
+        like(bob, Reaction.TargetType.COMMENT, aliceComment.getId());
+        like(bob, Reaction.TargetType.COMMENT, bobOnAlicePost.getId());
+        setLikeCount("post", bobPost.getId(), 2);
+        setLikeCount("comment", bobComment.getId(), 1);
+
+        BulkDeleteResultDto result = bulkDeleteService.deleteUsers(List.of(alice.getId()));
+        entityManager.clear();
+
+        // alice's two likes, and bob's on her post, her comment and his comment on her post
+        assertEquals(5, result.getReactions());
+        assertEquals(1, entityManager.find(Post.class, bobPost.getId()).getLikeCount());
+        assertEquals(0, entityManager.find(Comment.class, bobComment.getId()).getLikeCount());
+        assertEquals(List.of(bobPost.getId()), entityManager.createQuery(
+                "select r.targetId from Reaction r", Long.class).getResultList());
+    }
+
+    @Test
+    void deletingPostsAndCommentsTakesTheLikesOnThem() {
+        like(bob, Reaction.TargetType.POST, alicePost.getId());
+        like(alice, Reaction.TargetType.COMMENT, bobOnAlicePost.getId());
+        like(alice, Reaction.TargetType.COMMENT, bobReply.getId());
+        like(alice, Reaction.TargetType.COMMENT, bobComment.getId());
+
+        assertEquals(2, bulkDeleteService.deletePosts(List.of(alicePost.getId())).getReactions());
+        // the reply goes with the thread it belongs to, and its like with it
+        assertEquals(1, bulkDeleteService.deleteComments(List.of(aliceComment.getId())).getReactions());
+        entityManager.clear();
+
+        assertEquals(List.of(bobComment.getId()), entityManager.createQuery(
+                "select r.targetId from Reaction r", Long.class).getResultList());
+    }
+
+    @Test
+    void imagesAreDeletedAThousandKeysPerRequestAndForeignUrlsAreSkipped() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            urls.add(BUCKET_URL + i + ".jpg");
+        }
+        urls.add("https://old.example.com/0.jpg");
+
+        assertTrue(awsS3Service.deleteImages(urls));
+
+        assertEquals(List.of(1000, 1000, 500), s3.deletes.stream().map(List::size).toList());
+    }
+
+    private void like(User user, Reaction.TargetType targetType, Long targetId) {
+        Reaction reaction = new Reaction();
+        reaction.setUserId(user.getId());
+        reaction.setTargetType(targetType);
+        reaction.setTargetId(targetId);
+        reaction.setCreateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(reaction);
+        entityManager.flush();
+    }
+
+    // like_count is not written through the entity
+    private void setLikeCount(String table, Long id, long likes) {
+        entityManager.createNativeQuery("update " + table + " set like_count = ? where id = ?")
+                .setParameter(1, likes).setParameter(2, id).executeUpdate();
+    }
+
+    private Comment persistComment(Post post, User user, Comment parent) {
+        Comment comment = new Comment();
+        comment.setComment("Comment by " + user.getUserName());
+        comment.setCreateAt(LocalDateTime.now().withNano(0));
+        comment.setUpdateAt(LocalDateTime.now().withNano(0));
+        comment.setPost(post);
+        comment.setUser(user);
+        entityManager.persist(comment);
+        entityManager.flush();
+        String segment = String.format("%012d/", comment.getId());
+        if (parent != null) {
+            comment.setParentId(parent.getId());
+            comment.setDepth(parent.getDepth() + 1);
+            comment.setPath(parent.getPath() + segment);
+        } else {
+            comment.setPath(segment);
+        }
+        return comment;
+    }
+
+    private Post persistPost(User user, Category category, String... images) {
+        Post post = new Post();
+        post.setTitle("Post by " + user.getUserName());
+        post.setDescription("Post description");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of(images)));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private User persistUser(String name) {
+        Address address = new Address();
+        address.setAreaName("Shivaji Nagar");
+        address.setCityName("Pune");
+        address.setPinCode(411005);
+        address.setStateName("Maharashtra");
+        address.setCountryName("India");
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName(name + suffix);
+        user.setEmail(name + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath(BUCKET_URL + name + ".jpg");
+        user.setAddress(address);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setCategoryName("Technology");
+        category.setDescription("Technology posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+
+    static class RecordingS3 extends AbstractAmazonS3 {
+        final List<List<String>> deletes = new ArrayList<>();
+
+        @Override
+        public URL getUrl(String bucketName, String key) {
+            try {
+                return new URL(BUCKET_URL + key);
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+            deletes.add(request.getKeys().stream().map(DeleteObjectsRequest.KeyVersion::getKey).toList());
+            return new DeleteObjectsResult(List.of());
+        }
+    }
+
+    @TestConfiguration
+    static class Storage {
+        @Bean
+        RecordingS3 amazonS3() {
+            return new RecordingS3();
+        }
+    }
+}
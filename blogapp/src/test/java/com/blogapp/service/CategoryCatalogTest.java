@@ -0,0 +1,144 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Category;
+import com.blogapp.mapper.CategoryMapperImpl;
+import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.ResourceVersion;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:catalog;NON_KEYWORDS=USER")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CategoryCatalog.class, CategoryServiceImpl.class, CategoryMapperImpl.class, PostSearchIndex.class})
+class CategoryCatalogTest {
+
+    private static final int CATEGORIES = 5;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final List<Category> categories = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        categories.clear();
+        for (int i = 0; i < CATEGORIES; i++) {
+            Category category = new Category();
+            category.setCategoryName("Category " + i);
+            category.setDescription("Description " + i);
+            category.setCreateAt(LocalDateTime.now().withNano(0));
+            category.setUpdateAt(LocalDateTime.now().withNano(0));
+            entityManager.persist(category);
+            categories.add(category);
+        }
+        entityManager.flush();
+        categoryCatalog.reload();
+    }
+
+    @Test
+    void addedAndRenamedCategoriesAreVisibleWithoutAReload() {
+        long version = categoryCatalog.version();
+        ResourceVersion listVersion = categoryCatalog.listVersion();
+
+        CategoryDto created = categoryService.createCategory(dto("Travel"));
+        assertEquals(created.getId(), categoryCatalog.findByName("travel").orElseThrow().getId());
+        assertEquals(CATEGORIES + 1, categoryCatalog.findAll().size());
+        assertEquals(version + 1, categoryCatalog.version());
+        assertNotEquals(listVersion.getETag(), categoryCatalog.listVersion().getETag());
+
+        Long renamed = categories.get(0).getId();
+        categoryService.updateCategory(renamed, dto("Science"));
+        assertEquals("Science", categoryCatalog.findById(renamed).orElseThrow().getCategoryName());
+        assertEquals(renamed, categoryCatalog.findByName("Science").orElseThrow().getId());
+        // the old name is released in the same step
+        assertTrue(categoryCatalog.findByName("Category 0").isEmpty());
+        assertEquals(version + 2, categoryCatalog.version());
+    }
+
+    @Test
+    void readersNeverSeeAHalfAppliedUpdate() throws InterruptedException {
+        Category category = categories.get(0);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        Set<String> torn = ConcurrentHashMap.newKeySet();
+        CountDownLatch readersDone = new CountDownLatch(4);
+        for (int r = 0; r < 4; r++) {
+            Thread reader = new Thread(() -> {
+                try {
+                    while (writing.get()) {
+                        List<CategoryDto> all = categoryCatalog.findAll();
+                        Set<Long> ids = all.stream().map(CategoryDto::getId).collect(Collectors.toSet());
+                        Set<String> names = all.stream().map(CategoryDto::getCategoryName).collect(Collectors.toSet());
+                        // a rename applied in place would show the category twice, missing, or under two names
+                        if (all.size() != CATEGORIES || ids.size() != CATEGORIES || names.size() != CATEGORIES) {
+                            torn.add(all.toString());
+                        }
+                    }
+                } finally {
+                    readersDone.countDown();
+                }
+            });
+            reader.start();
+        }
+
+        for (int i = 0; i < 2_000; i++) {
+            Category renamed = new Category();
+            renamed.setId(category.getId());
+            renamed.setCategoryName("Renamed " + i);
+            renamed.setDescription(category.getDescription());
+            renamed.setCreateAt(category.getCreateAt());
+            renamed.setUpdateAt(category.getUpdateAt().plusSeconds(i));
+            categoryCatalog.put(renamed);
+        }
+        writing.set(false);
+        readersDone.await();
+
+        assertTrue(torn.isEmpty(), torn.toString());
+        assertEquals("Renamed 1999", categoryCatalog.findById(category.getId()).orElseThrow().getCategoryName());
+        assertFalse(categoryCatalog.findByName("Renamed 1998").isPresent());
+    }
+
+    @Test
+    void snapshotsHandedOutAreNotChangedByLaterWrites() {
+        Category category = categories.get(1);
+        CategoryDto before = categoryCatalog.findById(category.getId()).orElseThrow();
+        Category reference = categoryCatalog.reference(category.getId()).orElseThrow();
+
+        categoryService.updateCategory(category.getId(), dto("Changed"));
+        reference.setCategoryName("Mutated by a caller");
+
+        assertEquals("Category 1", before.getCategoryName());
+        assertEquals("Changed", categoryCatalog.findById(category.getId()).orElseThrow().getCategoryName());
+    }
+
+    private static CategoryDto dto(String name) {
+        CategoryDto categoryDto = new CategoryDto();
+        categoryDto.setCategoryName(name);
+        categoryDto.setDescription(name + " posts");
+        return categoryDto;
+    }
+}
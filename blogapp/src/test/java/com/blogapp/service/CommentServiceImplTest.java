@@ -0,0 +1,444 @@
+package com.blogapp.service;
+
+import com.blogapp.mapper.CommentMapperImpl;
+import com.blogapp.entity.Address;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.Reaction;
+import com.blogapp.entity.User;
+import com.blogapp.payload.CommentDetailsDto;
+import com.blogapp.payload.CommentDto;
+import com.blogapp.payload.CursorPage;
+import com.blogapp.payload.ResourceVersion;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:comments;NON_KEYWORDS=USER",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // the scheduled refresh would add its own select to the statement counts below
+        "trending.refresh-ms=3600000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({CommentServiceImpl.class, CommentMapperImpl.class, TrendingService.class, ReactionCleaner.class})
+class CommentServiceImplTest {
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void listOfCommentsRunsConstantNumberOfStatements() {
+        Category category = persistCategory();
+        insertComments(category, 5);
+        long smallListing = statementsToListComments(5);
+
+        insertComments(category, 45);
+        long largeListing = statementsToListComments(50);
+
+        assertEquals(smallListing, largeListing, "listing comments must not issue per-row selects");
+        assertEquals(1, largeListing, "comments and authors should be read by a single fetch-join query");
+    }
+
+    @Test
+    void commentsOfAPostArePagedByCreateTimeAndId() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        Post otherPost = persistPost(user, persistCategory());
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        // pairs of comments share a timestamp so the id tie-breaker is exercised across page boundaries
+        for (int i = 0; i < 25; i++) {
+            persistComment(post, user, start.plusMinutes(i / 2));
+            persistComment(otherPost, user, start.plusMinutes(i / 2));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            CursorPage<CommentDetailsDto> page = commentService.listOfCommentsByPost(post.getId(), cursor, 10);
+            page.getItems().forEach(comment -> {
+                assertEquals(post.getId(), comment.getPostId());
+                seen.add(comment.getId());
+            });
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(25, seen.size());
+        assertEquals(seen.stream().sorted().toList(), seen, "comments must come back oldest first without gaps or repeats");
+    }
+
+    @Test
+    void commentCountFollowsAddAndDelete() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        entityManager.flush();
+
+        List<Long> added = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            CommentDto commentDto = new CommentDto();
+            commentDto.setComment("Comment " + i);
+            commentDto.setPostId(post.getId());
+            commentDto.setUserId(user.getId());
+            CommentDetailsDto comment = commentService.addComment(commentDto);
+            assertNotNull(comment);
+            added.add(comment.getId());
+        }
+        assertEquals(3, commentCountOf(post.getId()));
+
+        commentService.deleteComment(added.get(0));
+        assertEquals(2, commentCountOf(post.getId()));
+
+        // a regular save of the post must not write back a stale count
+        Post loaded = entityManager.find(Post.class, post.getId());
+        loaded.setCommentCount(0);
+        loaded.setTitle("Renamed");
+        entityManager.flush();
+        assertEquals(2, commentCountOf(post.getId()));
+    }
+
+    @Test
+    void threadIsLoadedInOneSubtreeQueryAndAssembledInOrder() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        entityManager.flush();
+
+        Long root = reply(post, user, null);
+        Long first = reply(post, user, root);
+        Long second = reply(post, user, root);
+        Long nested = reply(post, user, first);
+        Long deepest = reply(post, user, nested);
+        Long otherRoot = reply(post, user, null);
+        reply(post, user, otherRoot);
+
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        CommentDetailsDto thread = commentService.findThread(root, null);
+
+        assertEquals(2, statistics.getPrepareStatementCount(), "root lookup plus one subtree query");
+        assertEquals(root, thread.getId());
+        assertEquals(List.of(first, second), thread.getReplies().stream().map(CommentDetailsDto::getId).toList());
+        CommentDetailsDto firstReply = thread.getReplies().get(0);
+        assertEquals(nested, firstReply.getReplies().get(0).getId());
+        assertEquals(deepest, firstReply.getReplies().get(0).getReplies().get(0).getId());
+        assertEquals(3, firstReply.getReplies().get(0).getReplies().get(0).getDepth());
+
+        CommentDetailsDto limited = commentService.findThread(first, 1);
+        assertEquals(nested, limited.getReplies().get(0).getId());
+        assertTrue(limited.getReplies().get(0).getReplies().isEmpty(), "depth 1 stops below the direct replies");
+
+        // top-level listing shows only the two roots
+        assertEquals(2, commentService.listOfCommentsByPost(post.getId(), null, 10).getItems().size());
+    }
+
+    @Test
+    void deletingACommentRemovesItsRepliesAndTheirCount() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        entityManager.flush();
+
+        Long root = reply(post, user, null);
+        Long first = reply(post, user, root);
+        reply(post, user, first);
+        reply(post, user, root);
+        assertEquals(4, commentCountOf(post.getId()));
+
+        commentService.deleteComment(first);
+
+        assertEquals(2, commentCountOf(post.getId()));
+        assertEquals(1, commentService.findThread(root, null).getReplies().size());
+    }
+
+    @Test
+    void deletingACommentTakesTheLikesOnItsThread() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        entityManager.flush();
+
+        Long root = reply(post, user, null);
+        Long first = reply(post, user, root);
+        Long nested = reply(post, user, first);
+        Long second = reply(post, user, root);
+        like(user, first);
+        like(user, nested);
+        like(user, second);
+
+        commentService.deleteComment(first);
+        entityManager.clear();
+
+        assertEquals(List.of(second), entityManager.createQuery(
+                "select r.targetId from Reaction r", Long.class).getResultList());
+    }
+
+    @Test
+    void replyMustBeOnTheSamePost() {
+        User user = persistUser();
+        Category category = persistCategory();
+        Post post = persistPost(user, category);
+        Post otherPost = persistPost(user, category);
+        entityManager.flush();
+
+        Long root = reply(post, user, null);
+        CommentDto commentDto = new CommentDto();
+        commentDto.setComment("Misplaced reply");
+        commentDto.setPostId(otherPost.getId());
+        commentDto.setUserId(user.getId());
+        commentDto.setParentId(root);
+
+        assertNull(commentService.addComment(commentDto));
+        assertEquals(0, commentCountOf(otherPost.getId()));
+    }
+
+    @Test
+    void commentWrittenBeforeThreadingIsTheRootOfItsThread() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        // no path and no parent, as rows written before threading were stored
+        Comment legacy = new Comment();
+        legacy.setComment("Written before threading");
+        legacy.setCreateAt(LocalDateTime.of(2023, 1, 1, 10, 0));
+        legacy.setUpdateAt(LocalDateTime.of(2023, 1, 1, 10, 0));
+        legacy.setPost(post);
+        legacy.setUser(user);
+        entityManager.persist(legacy);
+        entityManager.flush();
+
+        CommentDetailsDto alone = commentService.findThread(legacy.getId(), null);
+        assertEquals(legacy.getId(), alone.getId());
+        assertTrue(alone.getReplies().isEmpty());
+
+        Long replyId = reply(post, user, legacy.getId());
+        Long nested = reply(post, user, replyId);
+        entityManager.flush();
+        entityManager.clear();
+
+        CommentDetailsDto thread = commentService.findThread(legacy.getId(), null);
+        assertEquals(legacy.getId(), thread.getId());
+        assertEquals("Written before threading", thread.getComment());
+        assertEquals(List.of(replyId), thread.getReplies().stream().map(CommentDetailsDto::getId).toList());
+        assertEquals(nested, thread.getReplies().get(0).getReplies().get(0).getId());
+    }
+
+    @Test
+    void replyBelowTheDepthLimitIsRejected() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        entityManager.flush();
+
+        Long parent = reply(post, user, null);
+        CommentDetailsDto deepest = null;
+        for (int depth = 1; ; depth++) {
+            CommentDto commentDto = new CommentDto();
+            commentDto.setComment("Reply at depth " + depth);
+            commentDto.setPostId(post.getId());
+            commentDto.setUserId(user.getId());
+            commentDto.setParentId(parent);
+            CommentDetailsDto added = commentService.addComment(commentDto);
+            if (added == null) {
+                break;
+            }
+            deepest = added;
+            parent = added.getId();
+        }
+
+        assertNotNull(deepest);
+        long count = commentCountOf(post.getId());
+        assertEquals(deepest.getDepth() + 1, count);
+        // every path still fits the column: the deepest reply has the longest one
+        assertTrue(entityManager.find(Comment.class, deepest.getId()).getPath().length() <= 760);
+    }
+
+    private Long reply(Post post, User user, Long parentId) {
+        CommentDto commentDto = new CommentDto();
+        commentDto.setComment("Reply to " + parentId);
+        commentDto.setPostId(post.getId());
+        commentDto.setUserId(user.getId());
+        commentDto.setParentId(parentId);
+        CommentDetailsDto comment = commentService.addComment(commentDto);
+        assertNotNull(comment);
+        return comment.getId();
+    }
+
+    @Test
+    void versionsAreOneCheapQueryAndFollowEdits() {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory());
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 10, 0);
+        persistComment(post, user, start);
+        persistComment(post, user, start.plusMinutes(1));
+        entityManager.flush();
+        entityManager.clear();
+        Long commentId = commentService.listOfComments().get(0).getId();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        ResourceVersion all = commentService.findCommentsVersion();
+        ResourceVersion one = commentService.findCommentVersion(commentId);
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertTrue(all.isWeak());
+        assertFalse(one.isWeak());
+        assertEquals(user.getUpdateAt().isAfter(start.plusMinutes(1)) ? user.getUpdateAt() : start.plusMinutes(1),
+                all.getLastModified());
+        assertEquals(all.getETag(), commentService.findCommentsVersion().getETag());
+        assertNull(commentService.findCommentVersion(Long.MAX_VALUE));
+
+        Comment comment = entityManager.find(Comment.class, commentId);
+        comment.setComment("Edited");
+        comment.setUpdateAt(comment.getUpdateAt().plusHours(1));
+        entityManager.flush();
+        assertNotEquals(one.getETag(), commentService.findCommentVersion(commentId).getETag());
+        assertNotEquals(all.getETag(), commentService.findCommentsVersion().getETag());
+
+        ResourceVersion edited = commentService.findCommentsVersion();
+        persistComment(post, user, start);
+        entityManager.flush();
+        assertNotEquals(edited.getETag(), commentService.findCommentsVersion().getETag());
+    }
+
+    @Test
+    void commentsOfMissingPostReturnNull() {
+        assertNull(commentService.listOfCommentsByPost(Long.MAX_VALUE, null, 10));
+    }
+
+    private void like(User user, Long commentId) {
+        Reaction reaction = new Reaction();
+        reaction.setUserId(user.getId());
+        reaction.setTargetType(Reaction.TargetType.COMMENT);
+        reaction.setTargetId(commentId);
+        reaction.setCreateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(reaction);
+        entityManager.flush();
+    }
+
+    private long commentCountOf(Long postId) {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(Post.class, postId).getCommentCount();
+    }
+
+    private Post persistPost(User user, Category category) {
+        Post post = new Post();
+        post.setTitle("Post title " + user.getId());
+        post.setDescription("Post description");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of("https://bucket/image.jpg")));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private void persistComment(Post post, User user, LocalDateTime createAt) {
+        Comment comment = new Comment();
+        comment.setComment("Comment on " + post.getId());
+        comment.setCreateAt(createAt);
+        comment.setUpdateAt(createAt);
+        comment.setPost(post);
+        comment.setUser(user);
+        entityManager.persist(comment);
+    }
+
+    private long statementsToListComments(int expectedComments) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        List<CommentDetailsDto> comments = commentService.listOfComments();
+
+        assertEquals(expectedComments, comments.size());
+        comments.forEach(comment -> assertTrue(comment.getUserName().startsWith("user")));
+        return statistics.getPrepareStatementCount();
+    }
+
+    // every comment gets its own author and post so that lazy loading would show up as one select per row
+    private void insertComments(Category category, int count) {
+        List<Comment> comments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = persistUser();
+            Post post = new Post();
+            post.setTitle("Post title " + user.getId());
+            post.setDescription("Post description");
+            post.setCreateAt(LocalDateTime.now().withNano(0));
+            post.setUpdateAt(LocalDateTime.now().withNano(0));
+            post.setPostImagesPath(new ArrayList<>(List.of("https://bucket/image.jpg")));
+            post.setUser(user);
+            post.setCategory(category);
+            entityManager.persist(post);
+
+            Comment comment = new Comment();
+            comment.setComment("Comment " + user.getId());
+            comment.setCreateAt(LocalDateTime.now().withNano(0));
+            comment.setUpdateAt(LocalDateTime.now().withNano(0));
+            comment.setPost(post);
+            comment.setUser(user);
+            comments.add(comment);
+        }
+        comments.forEach(entityManager::persist);
+    }
+
+    // with an address, as User maps it eagerly: a listing that does not fetch it pays a select per batch of authors
+    private User persistUser() {
+        Address address = new Address();
+        address.setAreaName("Shivaji Nagar");
+        address.setCityName("Pune");
+        address.setPinCode(411005);
+        address.setStateName("Maharashtra");
+        address.setCountryName("India");
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath("https://bucket/profile.jpg");
+        user.setAddress(address);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setCategoryName("Technology");
+        category.setDescription("Technology posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+}
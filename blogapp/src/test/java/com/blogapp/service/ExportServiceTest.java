@@ -0,0 +1,149 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.mapper.CommentMapperImpl;
+import com.blogapp.mapper.PostMapperImpl;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:export;NON_KEYWORDS=USER",
+        "export.flush-every=1000"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({ExportService.class, PostMapperImpl.class, CommentMapperImpl.class})
+class ExportServiceTest {
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void postsAreWrittenOneJsonObjectPerLineInIdOrder() throws Exception {
+        User user = persistUser();
+        Category category = persistCategory();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            ids.add(persistPost(user, category, "Post " + i).getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(5, exportService.exportPosts(out));
+
+        String body = out.toString(StandardCharsets.UTF_8);
+        assertTrue(body.endsWith("\n"));
+        String[] lines = body.split("\n");
+        assertEquals(5, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode post = objectMapper.readTree(lines[i]);
+            assertEquals(ids.get(i).longValue(), post.get("id").asLong());
+            assertEquals("Post " + i, post.get("title").asText());
+            assertEquals(user.getUserName(), post.get("userName").asText());
+            assertEquals("Technology", post.get("categoryName").asText());
+            assertEquals("https://bucket/image.jpg", post.get("postImagesPath").get(0).asText());
+        }
+        // every row was detached as it was written, so nothing piles up in the persistence context
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void commentsCarryTheirPostAndAuthor() throws Exception {
+        User user = persistUser();
+        Post post = persistPost(user, persistCategory(), "Post");
+        for (int i = 0; i < 3; i++) {
+            Comment comment = new Comment();
+            comment.setComment("Comment " + i);
+            comment.setCreateAt(LocalDateTime.now().withNano(0));
+            comment.setUpdateAt(LocalDateTime.now().withNano(0));
+            comment.setPost(post);
+            comment.setUser(user);
+            entityManager.persist(comment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(3, exportService.exportComments(out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("Comment 0", first.get("comment").asText());
+        assertEquals(post.getId().longValue(), first.get("postId").asLong());
+        assertEquals(user.getUserName(), first.get("userName").asText());
+    }
+
+    @Test
+    void emptyTableWritesNothing() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, exportService.exportComments(out));
+        assertEquals(0, out.size());
+    }
+
+    private Post persistPost(User user, Category category, String title) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setDescription("Post description");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of("https://bucket/image.jpg")));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private User persistUser() {
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath("https://bucket/profile.jpg");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setCategoryName("Technology");
+        category.setDescription("Technology posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+}
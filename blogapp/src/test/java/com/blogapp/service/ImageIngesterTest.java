@@ -0,0 +1,101 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImageIngesterTest {
+
+    private static final String BUCKET_URL = "https://bucket.s3.amazonaws.com/";
+
+    private final List<String> deletedKeys = new ArrayList<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final AbstractAmazonS3 amazonS3 = new AbstractAmazonS3() {
+        @Override
+        public URL getUrl(String bucketName, String key) {
+            try {
+                return new URL(BUCKET_URL + key);
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+            request.getKeys().forEach(key -> deletedKeys.add(key.getKey()));
+            return new DeleteObjectsResult(List.of());
+        }
+    };
+    private final ImageIngester imageIngester = new ImageIngester(amazonS3, executor, "bucket", 1_000, 1_024, 2);
+
+    @AfterEach
+    void tearDown() throws Exception {
+        executor.shutdownNow();
+        imageIngester.close();
+    }
+
+    @Test
+    void internalAddressesAreNeverFetched() {
+        for (String url : List.of("http://127.0.0.1/a.jpg", "http://localhost:8080/a.jpg", "http://169.254.169.254/latest/meta-data",
+                "http://10.0.0.5/a.jpg", "http://192.168.1.1/a.jpg", "http://172.16.0.1/a.jpg", "http://100.64.0.1/a.jpg",
+                "http://0.0.0.0/a.jpg", "http://[::1]/a.jpg", "http://[fd00:ec2::254]/a.jpg", "http://[fe80::1]/a.jpg")) {
+            CompletionException failure = assertThrows(CompletionException.class,
+                    () -> imageIngester.ingest(List.of(url)).join(), url);
+            assertInstanceOf(IllegalArgumentException.class, failure.getCause(), url);
+            assertTrue(failure.getCause().getMessage().contains("not a public address"), failure.getCause().getMessage());
+        }
+    }
+
+    @Test
+    void nameIsLookedUpOnceSoARebindingAnswerIsNeverConnectedTo() throws Exception {
+        HttpServer internal = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        AtomicInteger requests = new AtomicInteger();
+        internal.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        internal.start();
+        // public for the first answer, the host itself for every one after it
+        AtomicInteger lookups = new AtomicInteger();
+        ImageIngester rebinding = new ImageIngester(amazonS3, executor, "bucket", 1_000, 1_024, 2, host ->
+                new InetAddress[]{lookups.getAndIncrement() == 0
+                        ? InetAddress.getByAddress(host, new byte[]{(byte) 203, 0, 113, 10})
+                        : InetAddress.getLoopbackAddress()});
+        try {
+            String url = "http://rebind.example.com:" + internal.getAddress().getPort() + "/a.jpg";
+            assertThrows(CompletionException.class, () -> rebinding.ingest(List.of(url)).join());
+        } finally {
+            rebinding.close();
+            internal.stop(0);
+        }
+
+        assertEquals(1, lookups.get());
+        assertEquals(0, requests.get());
+    }
+
+    @Test
+    void discardRemovesOnlyObjectsInTheBucket() {
+        imageIngester.discard(List.of(BUCKET_URL + "copy.jpg", "https://old.example.com/a.jpg"));
+        assertEquals(List.of("copy.jpg"), deletedKeys);
+    }
+}
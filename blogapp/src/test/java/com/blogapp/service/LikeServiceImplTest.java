@@ -0,0 +1,241 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Comment;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.payload.LikeDto;
+import com.blogapp.repository.CategoryRepository;
+import com.blogapp.repository.CommentRepository;
+import com.blogapp.repository.PostRepository;
+import com.blogapp.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:likes;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=32",
+        // flush continuously so batches race with the togglers
+        "like.flush-interval-ms=20"
+})
+class LikeServiceImplTest {
+
+    private static final int TOGGLERS = 1_000;
+    private static final int TOGGLES_PER_USER = 7;
+
+    @Autowired
+    private LikeService likeService;
+
+    @Autowired
+    private LikeCounter likeCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private PostRepository postRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    void countsStayExactUnderConcurrentTogglers() throws Exception {
+        List<User> users = persistUsers(TOGGLERS);
+        Post post = persistPost(users.get(0));
+        Comment comment = persistComment(post, users.get(0));
+
+        ExecutorService pool = Executors.newFixedThreadPool(TOGGLERS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < TOGGLERS; i++) {
+            Long userId = users.get(i).getId();
+            boolean endLiked = i % 2 == 0;
+            Random random = new Random(i);
+            futures.add(pool.submit(() -> {
+                try {
+                    start.await();
+                    // random likes/unlikes, repeats included, then a final state that depends on the user
+                    for (int t = 0; t < TOGGLES_PER_USER; t++) {
+                        if (random.nextBoolean()) {
+                            assertNotNull(likeService.likePost(post.getId(), userId));
+                            assertNotNull(likeService.likeComment(comment.getId(), userId));
+                        } else {
+                            assertNotNull(likeService.unlikePost(post.getId(), userId));
+                            assertNotNull(likeService.unlikeComment(comment.getId(), userId));
+                        }
+                    }
+                    if (endLiked) {
+                        assertTrue(likeService.likePost(post.getId(), userId).isLiked());
+                        likeService.likeComment(comment.getId(), userId);
+                    } else {
+                        likeService.unlikePost(post.getId(), userId);
+                        likeService.unlikeComment(comment.getId(), userId);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(2, TimeUnit.MINUTES), "togglers did not finish");
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        assertTrue(failures.isEmpty(), () -> "toggler failed: " + failures.peek());
+
+        likeCounter.flush();
+        long expected = TOGGLERS / 2;
+        assertEquals(expected, count("select count(*) from reaction where target_type = 'POST' and target_id = ?", post.getId()));
+        assertEquals(expected, count("select like_count from post where id = ?", post.getId()));
+        assertEquals(expected, count("select count(*) from reaction where target_type = 'COMMENT' and target_id = ?", comment.getId()));
+        assertEquals(expected, count("select like_count from comment where id = ?", comment.getId()));
+        assertEquals(0, likeCounter.pending(com.blogapp.entity.Reaction.TargetType.POST, post.getId()));
+    }
+
+    @Test
+    void recountRepairsCountersWhoseDeltasWereLost() {
+        List<User> users = persistUsers(4);
+        Post post = persistPost(users.get(0));
+        Comment comment = persistComment(post, users.get(0));
+        // liked through a process that died before its flush: the rows exist, the counter never moved
+        for (User user : users.subList(0, 3)) {
+            jdbcTemplate.update("insert into reaction (user_id, target_type, target_id, create_at) values (?, 'POST', ?, ?)",
+                    user.getId(), post.getId(), LocalDateTime.now().withNano(0));
+        }
+        // unliked the same way: the counter still has likes that are gone
+        jdbcTemplate.update("update comment set like_count = 5 where id = ?", comment.getId());
+        assertNotNull(likeService.likePost(post.getId(), users.get(3).getId()));
+
+        likeCounter.reconcile();
+
+        assertEquals(4, count("select like_count from post where id = ?", post.getId()));
+        assertEquals(0, count("select like_count from comment where id = ?", comment.getId()));
+        assertEquals(0, likeCounter.reconcile(com.blogapp.entity.Reaction.TargetType.POST));
+        assertEquals(0, likeCounter.reconcile(com.blogapp.entity.Reaction.TargetType.COMMENT));
+    }
+
+    @Test
+    void recountRunningAlongsideTogglersCorrectsNothing() throws Exception {
+        List<User> users = persistUsers(200);
+        Post post = persistPost(users.get(0));
+
+        ExecutorService pool = Executors.newFixedThreadPool(users.size());
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        for (int i = 0; i < users.size(); i++) {
+            Long userId = users.get(i).getId();
+            boolean endLiked = i % 2 == 0;
+            pool.submit(() -> {
+                try {
+                    start.await();
+                    for (int t = 0; t < TOGGLES_PER_USER; t++) {
+                        assertNotNull(likeService.likePost(post.getId(), userId));
+                        assertNotNull(likeService.unlikePost(post.getId(), userId));
+                    }
+                    if (endLiked) {
+                        likeService.likePost(post.getId(), userId);
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        // no delta is lost here, so a recount that finds anything to correct read a like apart from its delta
+        int corrected = 0;
+        while (!pool.isTerminated()) {
+            corrected += likeCounter.reconcile(com.blogapp.entity.Reaction.TargetType.POST);
+        }
+        assertTrue(failures.isEmpty(), () -> "toggler failed: " + failures.peek());
+        assertEquals(0, corrected);
+
+        likeCounter.flush();
+        assertEquals(users.size() / 2, count("select like_count from post where id = ?", post.getId()));
+    }
+
+    @Test
+    void likingAMissingPostReturnsNull() {
+        List<User> users = persistUsers(1);
+        assertNull(likeService.likePost(Long.MAX_VALUE, users.get(0).getId()));
+    }
+
+    private long count(String sql, Long id) {
+        return jdbcTemplate.queryForObject(sql, Long.class, id);
+    }
+
+    private List<User> persistUsers(int count) {
+        List<User> users = new ArrayList<>(count);
+        long base = System.nanoTime() % 1_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            String suffix = String.valueOf(base * 10 + i);
+            User user = new User();
+            user.setUserName("liker" + suffix);
+            user.setEmail("liker" + suffix + "@blogapp.com");
+            user.setMobile(String.format("%010d", Long.parseLong(suffix) % 10_000_000_000L));
+            user.setPassword("password");
+            user.setRole("ROLE_USER");
+            user.setCreateAt(LocalDateTime.now().withNano(0));
+            user.setUpdateAt(LocalDateTime.now().withNano(0));
+            user.setProfileImagePath("https://bucket/profile.jpg");
+            users.add(user);
+        }
+        return userRepository.saveAll(users);
+    }
+
+    private Post persistPost(User user) {
+        Category category = new Category();
+        category.setCategoryName("Likes " + user.getId());
+        category.setDescription("Category for like tests");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        category = categoryRepository.save(category);
+
+        Post post = new Post();
+        post.setTitle("Viral post");
+        post.setDescription("A post everybody likes");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of("https://bucket/image.jpg")));
+        post.setUser(user);
+        post.setCategory(category);
+        return postRepository.save(post);
+    }
+
+    private Comment persistComment(Post post, User user) {
+        Comment comment = new Comment();
+        comment.setComment("A comment everybody likes");
+        comment.setCreateAt(LocalDateTime.now().withNano(0));
+        comment.setUpdateAt(LocalDateTime.now().withNano(0));
+        comment.setPost(post);
+        comment.setUser(user);
+        return commentRepository.save(comment);
+    }
+}
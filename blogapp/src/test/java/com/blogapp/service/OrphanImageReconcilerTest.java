@@ -0,0 +1,189 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.payload.OrphanImageReportDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:orphans;NON_KEYWORDS=USER",
+        "aws.s3.bucket=bucket",
+        "storage.reconcile.grace-hours=1",
+        "storage.reconcile.sample-size=5"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({OrphanImageReconciler.class, AwsS3Service.class, OrphanImageReconcilerTest.Storage.class})
+class OrphanImageReconcilerTest {
+
+    private static final String BUCKET_URL = "https://bucket.s3.amazonaws.com/";
+    private static final int OLD_OBJECTS = 2100;
+
+    @Autowired
+    private OrphanImageReconciler orphanImageReconciler;
+
+    @Autowired
+    private PagedS3 s3;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        s3.objects.clear();
+        s3.listCalls = 0;
+        Date old = new Date(System.currentTimeMillis() - TimeUnit.DAYS.toMillis(2));
+        for (int i = 0; i < OLD_OBJECTS; i++) {
+            s3.objects.put(String.format("k%04d.jpg", i), old);
+        }
+        // uploaded a moment ago, its row may not be committed yet
+        s3.objects.put("fresh.jpg", new Date());
+        // a standalone upload: no row refers to it, and none ever will
+        s3.objects.put(S3ImagerUploader.KEY_PREFIX + "upload.jpg", old);
+
+        User user = persistUser(BUCKET_URL + "k2050.jpg");
+        persistPost(user, persistCategory(), BUCKET_URL + "k0001.jpg", BUCKET_URL + "k1500.jpg",
+                "https://old.example.com/k0002.jpg");
+        entityManager.flush();
+    }
+
+    @Test
+    void dryRunPagesThroughTheWholeBucketAndOnlyReports() {
+        OrphanImageReportDto report = orphanImageReconciler.reconcile(true);
+
+        assertEquals(3, s3.listCalls);
+        assertEquals(3, report.getReferenced());
+        assertEquals(OLD_OBJECTS + 2, report.getListed());
+        assertEquals(1, report.getExcluded());
+        assertEquals(1, report.getRecent());
+        assertEquals(OLD_OBJECTS - 3, report.getOrphans());
+        assertEquals((OLD_OBJECTS - 3) * 100L, report.getOrphanBytes());
+        assertEquals(0, report.getDeleted());
+        assertEquals(List.of("k0000.jpg", "k0002.jpg", "k0003.jpg", "k0004.jpg", "k0005.jpg"), report.getSample());
+        assertEquals(OLD_OBJECTS + 2, s3.objects.size());
+    }
+
+    @Test
+    void sweepDeletesOrphansPageByPageAndKeepsReferencedAndRecentObjects() {
+        OrphanImageReportDto report = orphanImageReconciler.reconcile(false);
+
+        assertEquals(OLD_OBJECTS - 3, report.getDeleted());
+        assertEquals(List.of("files/upload.jpg", "fresh.jpg", "k0001.jpg", "k1500.jpg", "k2050.jpg"),
+                new ArrayList<>(s3.objects.keySet()));
+        assertTrue(s3.deleteSizes.stream().allMatch(size -> size <= AwsS3Service.MAX_KEYS_PER_DELETE), s3.deleteSizes.toString());
+    }
+
+    private void persistPost(User user, Category category, String... images) {
+        Post post = new Post();
+        post.setTitle("Post");
+        post.setDescription("Post description");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of(images)));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+    }
+
+    private User persistUser(String profileImagePath) {
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath(profileImagePath);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setCategoryName("Technology");
+        category.setDescription("Technology posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+
+    // lists keys in order, at most maxKeys per page, with the last key of a page as the continuation token
+    static class PagedS3 extends AbstractAmazonS3 {
+        final TreeMap<String, Date> objects = new TreeMap<>();
+        final List<Integer> deleteSizes = new ArrayList<>();
+        int listCalls;
+
+        @Override
+        public URL getUrl(String bucketName, String key) {
+            try {
+                return new URL(BUCKET_URL + key);
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public ListObjectsV2Result listObjectsV2(ListObjectsV2Request request) {
+            listCalls++;
+            ListObjectsV2Result result = new ListObjectsV2Result();
+            String after = request.getContinuationToken();
+            List<String> keys = new ArrayList<>((after == null ? objects : objects.tailMap(after, false)).keySet());
+            for (String key : keys.subList(0, Math.min(keys.size(), request.getMaxKeys()))) {
+                S3ObjectSummary summary = new S3ObjectSummary();
+                summary.setKey(key);
+                summary.setLastModified(objects.get(key));
+                summary.setSize(100);
+                result.getObjectSummaries().add(summary);
+            }
+            result.setTruncated(keys.size() > request.getMaxKeys());
+            if (result.isTruncated()) {
+                result.setNextContinuationToken(keys.get(request.getMaxKeys() - 1));
+            }
+            return result;
+        }
+
+        @Override
+        public DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+            deleteSizes.add(request.getKeys().size());
+            request.getKeys().forEach(key -> objects.remove(key.getKey()));
+            return new DeleteObjectsResult(List.of());
+        }
+    }
+
+    @TestConfiguration
+    static class Storage {
+        @Bean
+        PagedS3 amazonS3() {
+            return new PagedS3();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.blogapp.service;
+
+import com.amazonaws.SdkClientException;
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.PutObjectRequest;
+import com.amazonaws.services.s3.model.PutObjectResult;
+import com.blogapp.exception.ImageUploadException;
+import com.blogapp.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelImageUploaderTest {
+
+    private static final long LATENCY_MS = 300;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void uploadsAllImagesConcurrentlyAndKeepsInputOrder() {
+        LatencyS3 s3 = new LatencyS3(LATENCY_MS);
+        ParallelImageUploader uploader = new ParallelImageUploader(s3, executor, "bucket", 5_000);
+
+        long start = System.nanoTime();
+        List<String> urls = uploader.uploadAll(images("a.jpg", "b.png", "c.gif"));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(3, urls.size());
+        assertTrue(urls.get(0).endsWith(".jpg") && urls.get(1).endsWith(".png") && urls.get(2).endsWith(".gif"));
+        assertEquals(3, s3.objects.size());
+        assertTrue(elapsedMs < 2 * LATENCY_MS, "uploads ran one after another: " + elapsedMs + "ms");
+    }
+
+    @Test
+    void failedUploadRemovesTheOtherImages() {
+        LatencyS3 s3 = new LatencyS3(LATENCY_MS);
+        s3.failSuffix = ".png";
+        ParallelImageUploader uploader = new ParallelImageUploader(s3, executor, "bucket", 5_000);
+
+        assertThrows(ImageUploadException.class, () -> uploader.uploadAll(images("a.jpg", "b.png", "c.gif")));
+
+        assertTrue(s3.objects.isEmpty(), "left behind: " + s3.objects.keySet());
+    }
+
+    @Test
+    void timedOutUploadIsRemovedWhenItFinallyLands() throws InterruptedException {
+        LatencyS3 s3 = new LatencyS3(LATENCY_MS);
+        s3.slowSuffix = ".gif";
+        ParallelImageUploader uploader = new ParallelImageUploader(s3, executor, "bucket", LATENCY_MS * 2);
+
+        long start = System.nanoTime();
+        assertThrows(ImageUploadException.class, () -> uploader.uploadAll(images("a.jpg", "b.png", "c.gif")));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertTrue(elapsedMs < LATENCY_MS * 4, "did not honour the upload timeout: " + elapsedMs + "ms");
+
+        // the straggler completes at LATENCY_MS * 5 and must be cleaned up right after
+        Thread.sleep(LATENCY_MS * 5);
+        assertTrue(s3.objects.isEmpty(), "left behind: " + s3.objects.keySet());
+    }
+
+    @Test
+    void fileNamesWithoutAnExtensionAreStoredWithoutOne() {
+        LatencyS3 s3 = new LatencyS3(0);
+        ParallelImageUploader uploader = new ParallelImageUploader(s3, executor, "bucket", 5_000);
+
+        List<String> urls = uploader.uploadAll(images("photo", "a.jpg"));
+
+        assertEquals(2, urls.size());
+        assertFalse(urls.get(0).substring(urls.get(0).lastIndexOf('/')).contains("."), urls.get(0));
+        assertTrue(urls.get(1).endsWith(".jpg"));
+    }
+
+    @Test
+    void anImageThatCannotBeStartedRemovesTheOnesAlreadyStarted() throws InterruptedException {
+        LatencyS3 s3 = new LatencyS3(LATENCY_MS);
+        ParallelImageUploader uploader = new ParallelImageUploader(s3, executor, "bucket", 5_000);
+        List<MultipartFile> images = images("a.jpg");
+        images.add(new MockMultipartFile("file", "b.jpg", "image/*", new byte[]{1}) {
+            @Override
+            public String getOriginalFilename() {
+                throw new IllegalStateException("unreadable part");
+            }
+        });
+
+        assertThrows(ImageUploadException.class, () -> uploader.uploadAll(images));
+
+        Thread.sleep(LATENCY_MS * 2);
+        assertTrue(s3.objects.isEmpty(), "left behind: " + s3.objects.keySet());
+    }
+
+    @Test
+    void aFullPoolAsksTheClientToRetryAndKeepsNothing() throws InterruptedException {
+        LatencyS3 s3 = new LatencyS3(LATENCY_MS);
+        // one thread and no queue: the second image of the post is rejected while the first is in flight
+        ThreadPoolExecutor single = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new SynchronousQueue<>());
+        try {
+            ParallelImageUploader uploader = new ParallelImageUploader(s3, single, "bucket", 5_000);
+
+            assertThrows(TooManyRequestsException.class, () -> uploader.uploadAll(images("a.jpg", "b.jpg")));
+
+            Thread.sleep(LATENCY_MS * 2);
+            assertTrue(s3.objects.isEmpty(), "left behind: " + s3.objects.keySet());
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    private List<MultipartFile> images(String... names) {
+        List<MultipartFile> images = new ArrayList<>();
+        for (String name : names) {
+            images.add(new MockMultipartFile("file", name, "image/*", new byte[]{1, 2, 3}));
+        }
+        return images;
+    }
+
+    /**
+     * In-memory S3 stand-in that adds a fixed round-trip latency to every PUT.
+     */
+    private static class LatencyS3 extends AbstractAmazonS3 {
+        private final long latencyMs;
+        private final Map<String, byte[]> objects = new ConcurrentHashMap<>();
+        private volatile String failSuffix;
+        private volatile String slowSuffix;
+
+        LatencyS3(long latencyMs) {
+            this.latencyMs = latencyMs;
+        }
+
+        @Override
+        public PutObjectResult putObject(PutObjectRequest request) {
+            String key = request.getKey();
+            sleep(key.endsWith(String.valueOf(slowSuffix)) ? latencyMs * 5 : latencyMs);
+            if (key.endsWith(String.valueOf(failSuffix))) {
+                throw new SdkClientException("injected failure for " + key);
+            }
+            objects.put(key, new byte[0]);
+            return new PutObjectResult();
+        }
+
+        @Override
+        public DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+            request.getKeys().forEach(key -> objects.remove(key.getKey()));
+            return new DeleteObjectsResult(new ArrayList<>());
+        }
+
+        @Override
+        public URL getUrl(String bucketName, String key) {
+            try {
+                return new URL("https://" + bucketName + ".s3.local/" + key);
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        private void sleep(long millis) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
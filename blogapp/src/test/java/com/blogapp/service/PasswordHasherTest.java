@@ -0,0 +1,86 @@
+package com.blogapp.service;
+
+import com.blogapp.exception.TooManyRequestsException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHasherTest {
+
+    // the lowest BCrypt cost keeps the test fast; the behaviour does not depend on it
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            1, 1, 60L, TimeUnit.SECONDS, new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+    private final PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), executor, 5_000);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void hashedPasswordsVerifyWithoutRehash() {
+        String hash = hasher.hash("correct horse");
+
+        assertTrue(PasswordHasher.isHash(hash));
+        assertNotEquals("correct horse", hash);
+        assertEquals(PasswordHasher.Verification.MATCHED, hasher.verify("correct horse", hash));
+        assertEquals(PasswordHasher.Verification.FAILED, hasher.verify("wrong horse", hash));
+        assertEquals(PasswordHasher.Verification.FAILED, hasher.verify("correct horse", null));
+    }
+
+    @Test
+    void legacyPlaintextAndCheaperHashesAreFlaggedForRehash() {
+        assertEquals(PasswordHasher.Verification.MATCHED_NEEDS_REHASH, hasher.verify("password123", "password123"));
+        assertEquals(PasswordHasher.Verification.FAILED, hasher.verify("password124", "password123"));
+
+        String cheaper = new BCryptPasswordEncoder(4).encode("password123");
+        assertEquals(PasswordHasher.Verification.MATCHED_NEEDS_REHASH, hasher.verify("password123", cheaper));
+    }
+
+    @Test
+    void rehashHandsBackAHashAtTheCurrentCost() throws Exception {
+        CompletableFuture<String> stored = new CompletableFuture<>();
+        hasher.rehashLater("password123", stored::complete);
+
+        String hash = stored.get(5, TimeUnit.SECONDS);
+        assertEquals(PasswordHasher.Verification.MATCHED, hasher.verify("password123", hash));
+    }
+
+    @Test
+    void saturatedPoolRejectsImmediately() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(() -> {
+            running.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        running.await();
+        // fills the single queue slot
+        executor.execute(() -> { });
+
+        long start = System.nanoTime();
+        assertThrows(TooManyRequestsException.class, () -> hasher.verify("password123", "password123"));
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100), "rejection must not wait for the pool");
+
+        release.countDown();
+        while (executor.getActiveCount() > 0 || !executor.getQueue().isEmpty()) {
+            Thread.sleep(1);
+        }
+        assertEquals(PasswordHasher.Verification.MATCHED_NEEDS_REHASH, hasher.verify("password123", "password123"));
+    }
+}
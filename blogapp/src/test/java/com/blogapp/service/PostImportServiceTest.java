@@ -0,0 +1,235 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import com.blogapp.mapper.CategoryMapperImpl;
+import com.blogapp.payload.ImportResultDto;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:import;NON_KEYWORDS=USER",
+        "import.batch-size=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({PostImportService.class, CategoryCatalog.class, CategoryMapperImpl.class, PostSearchIndex.class,
+        PostImportServiceTest.Images.class})
+class PostImportServiceTest {
+
+    private static final String BUCKET_URL = "https://bucket.s3.amazonaws.com/";
+
+    @Autowired
+    private PostImportService postImportService;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private RecordingIngester imageIngester;
+
+    private User user;
+    private Category category;
+
+    @BeforeEach
+    void setUp() {
+        user = persistUser();
+        category = persistCategory("Technology");
+        entityManager.flush();
+        categoryCatalog.reload();
+        imageIngester.requests.clear();
+        imageIngester.pending.clear();
+        imageIngester.discarded.clear();
+    }
+
+    @Test
+    void ndjsonIsInsertedInBatchesAndBadLinesAreReported() throws IOException {
+        String body = String.join("\n",
+                line("First", "\"userName\":\"" + user.getUserName() + "\",\"categoryName\":\"Technology\""),
+                line("Second", "\"userId\":" + user.getId() + ",\"categoryId\":" + category.getId()),
+                line("Third", "\"userName\":\"nobody\",\"categoryName\":\"Technology\""),
+                line("Fourth", "\"userName\":\"" + user.getUserName() + "\",\"categoryName\":\"Missing\""),
+                line("Fifth", "\"userName\":\"" + user.getUserName() + "\",\"categoryId\":" + category.getId()));
+
+        ImportResultDto result = postImportService.importPosts(stream(body), PostImportService.NDJSON);
+
+        assertEquals(5, result.getRead());
+        assertEquals(3, result.getImported());
+        assertEquals(2, result.getFailed());
+        assertTrue(result.getErrors().get(0).startsWith("line 3: user not found"), result.getErrors().toString());
+        assertTrue(result.getErrors().get(1).startsWith("line 4: category not found"), result.getErrors().toString());
+
+        List<Post> posts = posts();
+        assertEquals(List.of("First", "Second", "Fifth"), posts.stream().map(Post::getTitle).toList());
+        Post first = posts.get(0);
+        assertEquals(user.getId(), first.getUser().getId());
+        assertEquals(category.getId(), first.getCategory().getId());
+        assertEquals(LocalDateTime.of(2021, 3, 4, 5, 6, 7), first.getCreateAt());
+        assertEquals(first.getCreateAt(), first.getUpdateAt());
+        assertEquals(0, first.getViewCount());
+    }
+
+    @Test
+    void csvRowsAreMappedByHeaderAndOnlyForeignImagesAreCopied() throws IOException {
+        String body = "title,description,userName,categoryName,imageUrls\n" +
+                "Kept,\"Already, in the bucket\"," + user.getUserName() + ",Technology," + BUCKET_URL + "a.jpg\n" +
+                "Copied,From the old site," + user.getUserName() + ",Technology,https://old.example.com/b.png|" + BUCKET_URL + "c.gif\n" +
+                "Untitled,,\"" + user.getUserName() + "\",Technology,\n";
+
+        ImportResultDto result = postImportService.importPosts(stream(body), PostImportService.CSV);
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertTrue(result.getErrors().get(0).startsWith("line 3: description is required"), result.getErrors().toString());
+        assertEquals(1, result.getImagesQueued());
+        assertEquals(List.of(List.of("https://old.example.com/b.png", BUCKET_URL + "c.gif")), imageIngester.requests);
+
+        List<Post> posts = posts();
+        assertEquals(List.of(BUCKET_URL + "a.jpg"), posts.get(0).getPostImagesPath());
+        assertEquals("Already, in the bucket", posts.get(0).getDescription());
+        assertEquals(List.of("https://old.example.com/b.png", BUCKET_URL + "c.gif"), posts.get(1).getPostImagesPath());
+    }
+
+    @Test
+    void tooManyImagesIsRejected() throws IOException {
+        String images = "\"imageUrls\":[\"" + BUCKET_URL + "1.jpg\",\"" + BUCKET_URL + "2.jpg\",\"" + BUCKET_URL +
+                "3.jpg\",\"" + BUCKET_URL + "4.jpg\"]";
+        String body = line("Gallery", "\"userId\":" + user.getId() + ",\"categoryId\":" + category.getId() + "," + images);
+
+        ImportResultDto result = postImportService.importPosts(stream(body), PostImportService.NDJSON);
+
+        assertEquals(0, result.getImported());
+        assertEquals(1, result.getFailed());
+        assertTrue(posts().isEmpty());
+    }
+
+    @Test
+    void copiedImagesReplaceOnlyTheImagesThePostWasImportedWith() throws IOException {
+        String foreign = ",\"imageUrls\":[\"https://old.example.com/a.jpg\"]";
+        String references = "\"userId\":" + user.getId() + ",\"categoryId\":" + category.getId() + foreign;
+        postImportService.importPosts(stream(line("Untouched", references) + "\n" + line("Edited", references)),
+                PostImportService.NDJSON);
+        List<Post> imported = posts();
+        Post edited = entityManager.find(Post.class, imported.get(1).getId());
+        edited.setPostImagesPath(new ArrayList<>(List.of(BUCKET_URL + "chosen-by-author.jpg")));
+        entityManager.flush();
+
+        imageIngester.pending.get(0).complete(List.of(BUCKET_URL + "copy-1.jpg"));
+        imageIngester.pending.get(1).complete(List.of(BUCKET_URL + "copy-2.jpg"));
+
+        List<Post> posts = posts();
+        assertEquals(List.of(BUCKET_URL + "copy-1.jpg"), posts.get(0).getPostImagesPath());
+        assertTrue(posts.get(0).getUpdateAt().isAfter(posts.get(0).getCreateAt()));
+        // the author's edit stands and the copy made for the old images is removed again
+        assertEquals(List.of(BUCKET_URL + "chosen-by-author.jpg"), posts.get(1).getPostImagesPath());
+        assertEquals(List.of(BUCKET_URL + "copy-2.jpg"), imageIngester.discarded);
+    }
+
+    private List<Post> posts() {
+        entityManager.clear();
+        return entityManager.createQuery("select p from Post p order by p.id", Post.class).getResultList();
+    }
+
+    private static String line(String title, String references) {
+        return "{\"title\":\"" + title + "\",\"description\":\"Imported " + title + "\",\"createAt\":\"2021-03-04T05:06:07\"," +
+                references + "}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private User persistUser() {
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath("https://bucket/profile.jpg");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        category.setDescription(name + " posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+
+    // records what would be copied instead of downloading anything
+    static class RecordingIngester extends ImageIngester {
+        final List<List<String>> requests = new ArrayList<>();
+        final List<CompletableFuture<List<String>>> pending = new ArrayList<>();
+        final List<String> discarded = new ArrayList<>();
+
+        RecordingIngester() {
+            super(new AbstractAmazonS3() {
+                @Override
+                public URL getUrl(String bucketName, String key) {
+                    try {
+                        return new URL(BUCKET_URL + key);
+                    } catch (MalformedURLException e) {
+                        throw new IllegalArgumentException(e);
+                    }
+                }
+            }, Executors.newSingleThreadExecutor(), "bucket", 1_000, 1_024, 1);
+        }
+
+        @Override
+        public CompletableFuture<List<String>> ingest(List<String> imageUrls) {
+            requests.add(imageUrls);
+            CompletableFuture<List<String>> copy = new CompletableFuture<>();
+            pending.add(copy);
+            return copy;
+        }
+
+        @Override
+        public void discard(List<String> imageUrls) {
+            discarded.addAll(imageUrls);
+        }
+    }
+
+    @TestConfiguration
+    static class Images {
+        @Bean
+        RecordingIngester imageIngester() {
+            return new RecordingIngester();
+        }
+    }
+}
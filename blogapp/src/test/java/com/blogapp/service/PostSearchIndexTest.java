@@ -0,0 +1,234 @@
+package com.blogapp.service;
+
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.User;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:search;NON_KEYWORDS=USER")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostSearchIndex.class, PostSearchIndexTest.Scan.class})
+class PostSearchIndexTest {
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private InterleavingJdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void rebuildIndexesEveryPostAndRanksTitleMatchesFirst() throws Exception {
+        User user = persistUser();
+        Category technology = persistCategory("Technology");
+        Category travel = persistCategory("Travel");
+        Post inDescription = persistPost(user, technology, "Weekly notes", "Some thoughts about caching in services");
+        Post inTitle = persistPost(user, technology, "Caching with Caffeine", "How we cut read latency");
+        persistPost(user, travel, "Lisbon in spring", "Trams, tiles and coffee");
+        entityManager.flush();
+
+        assertEquals(3, postSearchIndex.rebuild());
+
+        assertEquals(List.of(inTitle.getId(), inDescription.getId()), postSearchIndex.search("caching", 0, 10).getPostIds());
+        // stemmed, so another form of the word finds the same posts
+        assertEquals(2, postSearchIndex.search("caches", 0, 10).getTotalHits());
+        assertEquals(2, postSearchIndex.search("technology", 0, 10).getTotalHits());
+        assertEquals(List.of(inTitle.getId()), postSearchIndex.search("caching latency", 0, 10).getPostIds());
+    }
+
+    @Test
+    void writesShowUpAfterTheNextRefresh() throws Exception {
+        User user = persistUser();
+        Category category = persistCategory("Technology");
+        Post post = persistPost(user, category, "Kotlin coroutines", "Structured concurrency explained");
+        entityManager.flush();
+        postSearchIndex.rebuild();
+
+        post.setTitle("Java virtual threads");
+        postSearchIndex.index(post);
+        postSearchIndex.refresh();
+        assertEquals(0, postSearchIndex.search("kotlin", 0, 10).getTotalHits());
+        assertEquals(List.of(post.getId()), postSearchIndex.search("virtual threads", 0, 10).getPostIds());
+
+        postSearchIndex.delete(post.getId());
+        postSearchIndex.refresh();
+        assertEquals(0, postSearchIndex.search("concurrency", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void resultsArePagedWithoutGapsOrRepeats() throws Exception {
+        User user = persistUser();
+        Category category = persistCategory("Technology");
+        for (int i = 0; i < 25; i++) {
+            persistPost(user, category, "Search post " + i, "Lucene ".repeat(i + 1));
+        }
+        entityManager.flush();
+        postSearchIndex.rebuild();
+
+        Set<Long> seen = new HashSet<>();
+        List<Long> all = new ArrayList<>();
+        for (int page = 0; page < 3; page++) {
+            PostSearchIndex.Hits hits = postSearchIndex.search("lucene", page, 10);
+            assertEquals(25, hits.getTotalHits());
+            all.addAll(hits.getPostIds());
+        }
+        all.forEach(id -> assertTrue(seen.add(id), "post " + id + " came back twice"));
+        assertEquals(25, seen.size());
+        assertTrue(postSearchIndex.search("lucene", 3, 10).getPostIds().isEmpty());
+    }
+
+    @Test
+    void writesDuringARebuildAreNeitherDuplicatedNorUndone() throws Exception {
+        User user = persistUser();
+        Category category = persistCategory("Technology");
+        Post first = persistPost(user, category, "Gradle builds", "Incremental compilation");
+        Post edited = persistPost(user, category, "Maven builds", "Reproducible plugins");
+        Post deleted = persistPost(user, category, "Ant builds", "Legacy targets");
+        entityManager.flush();
+        // indexed once, its row gone since: a rebuild must drop it
+        Post gone = new Post();
+        gone.setId(Long.MAX_VALUE);
+        gone.setTitle("Orphaned document");
+        postSearchIndex.index(gone);
+
+        // the scan has read the first row when the other two are edited and deleted by requests
+        jdbcTemplate.onFirstRow = () -> {
+            edited.setTitle("Maven releases");
+            postSearchIndex.index(edited);
+            postSearchIndex.delete(deleted.getId());
+        };
+        try {
+            postSearchIndex.rebuild();
+        } finally {
+            jdbcTemplate.onFirstRow = null;
+        }
+
+        assertEquals(List.of(first.getId()), postSearchIndex.search("gradle", 0, 10).getPostIds());
+        assertEquals(List.of(edited.getId()), postSearchIndex.search("releases", 0, 10).getPostIds());
+        assertEquals(1, postSearchIndex.search("reproducible", 0, 10).getTotalHits());
+        assertEquals(0, postSearchIndex.search("legacy", 0, 10).getTotalHits());
+        assertEquals(0, postSearchIndex.search("orphaned", 0, 10).getTotalHits());
+        assertEquals(2, postSearchIndex.search("builds | releases", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void reindexingACategoryRenamesItInItsPostsOnly() throws Exception {
+        User user = persistUser();
+        Category technology = persistCategory("Technology");
+        Category travel = persistCategory("Travel");
+        persistPost(user, technology, "Gradle builds", "Incremental compilation");
+        Post edited = persistPost(user, technology, "Maven builds", "Reproducible plugins");
+        Post elsewhere = persistPost(user, travel, "Lisbon in spring", "Trams, tiles and coffee");
+        entityManager.flush();
+        postSearchIndex.rebuild();
+
+        // a request edits a post of the category while its scan is under way
+        jdbcTemplate.onFirstRow = () -> {
+            edited.setTitle("Maven releases");
+            edited.getCategory().setCategoryName("Engineering");
+            postSearchIndex.index(edited);
+        };
+        try {
+            postSearchIndex.reindexCategory(technology.getId(), "Engineering");
+        } finally {
+            jdbcTemplate.onFirstRow = null;
+        }
+        postSearchIndex.refresh();
+
+        assertEquals(0, postSearchIndex.search("technology", 0, 10).getTotalHits());
+        assertEquals(2, postSearchIndex.search("engineering", 0, 10).getTotalHits());
+        assertEquals(List.of(edited.getId()), postSearchIndex.search("releases", 0, 10).getPostIds());
+        assertEquals(List.of(elsewhere.getId()), postSearchIndex.search("travel", 0, 10).getPostIds());
+    }
+
+    private Post persistPost(User user, Category category, String title, String description) {
+        Post post = new Post();
+        post.setTitle(title);
+        post.setDescription(description);
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of("https://bucket/image.jpg")));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private User persistUser() {
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath("https://bucket/profile.jpg");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory(String name) {
+        Category category = new Category();
+        category.setCategoryName(name);
+        category.setDescription(name + " posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+
+    // runs a callback once the first row of a streamed query has been handled
+    static class InterleavingJdbcTemplate extends JdbcTemplate {
+        volatile Runnable onFirstRow;
+
+        InterleavingJdbcTemplate(DataSource dataSource) {
+            super(dataSource);
+        }
+
+        @Override
+        public void query(PreparedStatementCreator psc, RowCallbackHandler rch) throws DataAccessException {
+            Runnable callback = onFirstRow;
+            AtomicBoolean first = new AtomicBoolean(true);
+            super.query(psc, rs -> {
+                rch.processRow(rs);
+                if (callback != null && first.getAndSet(false)) {
+                    callback.run();
+                }
+            });
+        }
+    }
+
+    @TestConfiguration
+    static class Scan {
+        @Bean
+        InterleavingJdbcTemplate jdbcTemplate(DataSource dataSource) {
+            return new InterleavingJdbcTemplate(dataSource);
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.blogapp.config.CacheConfig;
+import com.blogapp.config.UploadExecutorConfig;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.Reaction;
+import com.blogapp.entity.User;
+import com.blogapp.mapper.CategoryMapperImpl;
+import com.blogapp.mapper.PostMapperImpl;
+import com.blogapp.payload.CategoryDto;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.PostDto;
+import com.blogapp.util.EmailOutboxService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:postservice;NON_KEYWORDS=USER",
+        "aws.s3.bucket=bucket",
+        "file.upload-dir=target/uploads"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PostServiceImpl.class, CategoryServiceImpl.class, CacheConfig.class, CategoryCatalog.class,
+        CategoryMapperImpl.class, PostMapperImpl.class, AwsS3Service.class, ParallelImageUploader.class,
+        UploadExecutorConfig.class, EmailOutboxService.class, PostViewCounter.class, TrendingService.class,
+        PostSearchIndex.class, ReactionCleaner.class, PostServiceImplTest.Storage.class})
+class PostServiceImplTest {
+
+    private static final String BUCKET_URL = "https://bucket.s3.amazonaws.com/";
+
+    @Autowired
+    private PostServiceImpl postService;
+
+    @Autowired
+    private CategoryServiceImpl categoryService;
+
+    @Autowired
+    private CategoryCatalog categoryCatalog;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+    private Category category;
+    private Post post;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.POSTS).clear();
+        user = persistUser();
+        category = persistCategory();
+        post = persistPost();
+        entityManager.flush();
+        categoryCatalog.reload();
+    }
+
+    @Test
+    void postReadsAreServedFromTheCacheUntilThePostIsUpdated() {
+        assertEquals("Original", postService.findByPostId(post.getId()).getTitle());
+        // written behind the service's back: the cached copy keeps being served
+        jdbcTemplate.update("update post set title = ? where id = ?", "Changed directly", post.getId());
+        assertEquals("Original", postService.findByPostId(post.getId()).getTitle());
+
+        postService.updatePost(post.getId(), postDto("Updated"), null);
+
+        assertNull(cachedPost(post.getId()));
+        assertEquals("Updated", postService.findByPostId(post.getId()).getTitle());
+    }
+
+    @Test
+    void deletingAPostEvictsIt() {
+        assertNotNull(postService.findByPostId(post.getId()));
+        assertNotNull(cachedPost(post.getId()));
+
+        postService.deletePostDetails(post.getId());
+
+        assertNull(cachedPost(post.getId()));
+        assertNull(postService.findByPostId(post.getId()));
+    }
+
+    @Test
+    void authorOfAPostIsFoundWithoutLoadingIt() {
+        assertEquals(user.getId(), postService.findPostAuthorId(post.getId()));
+        assertNull(postService.findPostAuthorId(Long.MAX_VALUE));
+        assertNull(cachedPost(post.getId()));
+    }
+
+    @Test
+    void deletingAPostTakesTheLikesOnIt() {
+        Post other = persistPost();
+        entityManager.flush();
+        like(post.getId());
+        like(other.getId());
+
+        postService.deletePostDetails(post.getId());
+        entityManager.clear();
+
+        assertEquals(List.of(other.getId()), entityManager.createQuery(
+                "select r.targetId from Reaction r", Long.class).getResultList());
+    }
+
+    @Test
+    void updatingACategoryEvictsEveryCachedPostThatCarriesItsName() {
+        Post other = persistPost();
+        entityManager.flush();
+        postService.findByPostId(post.getId());
+        postService.findByPostId(other.getId());
+
+        CategoryDto renamed = new CategoryDto();
+        renamed.setCategoryName("Science");
+        renamed.setDescription("Science posts");
+        categoryService.updateCategory(category.getId(), renamed);
+
+        assertNull(cachedPost(post.getId()));
+        assertNull(cachedPost(other.getId()));
+        assertEquals("Science", postService.findByPostId(other.getId()).getCategoryName());
+    }
+
+    @Test
+    void renamingACategoryMakesItsPostsSearchableByTheNewName() throws Exception {
+        postSearchIndex.rebuild();
+        assertEquals(List.of(post.getId()), postSearchIndex.search("technology", 0, 10).getPostIds());
+
+        CategoryDto renamed = new CategoryDto();
+        renamed.setCategoryName("Science");
+        renamed.setDescription("Science posts");
+        categoryService.updateCategory(category.getId(), renamed);
+        postSearchIndex.refresh();
+
+        assertEquals(0, postSearchIndex.search("technology", 0, 10).getTotalHits());
+        assertEquals(List.of(post.getId()), postSearchIndex.search("science", 0, 10).getPostIds());
+    }
+
+    private PostDetailsDto cachedPost(Long postId) {
+        Cache cache = cacheManager.getCache(CacheConfig.POSTS);
+        return cache.get(postId, PostDetailsDto.class);
+    }
+
+    private PostDto postDto(String title) {
+        PostDto postDto = new PostDto();
+        postDto.setTitle(title);
+        postDto.setDescription("Post description");
+        postDto.setUserId(user.getId());
+        postDto.setCategoryId(category.getId());
+        return postDto;
+    }
+
+    private void like(Long postId) {
+        Reaction reaction = new Reaction();
+        reaction.setUserId(user.getId());
+        reaction.setTargetType(Reaction.TargetType.POST);
+        reaction.setTargetId(postId);
+        reaction.setCreateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(reaction);
+        entityManager.flush();
+    }
+
+    private Post persistPost() {
+        Post post = new Post();
+        post.setTitle("Original");
+        post.setDescription("Post description");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>(List.of(BUCKET_URL + "a.jpg")));
+        post.setUser(user);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private User persistUser() {
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath(BUCKET_URL + "profile.jpg");
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setCategoryName("Technology");
+        category.setDescription("Technology posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+
+    static class AcceptingS3 extends AbstractAmazonS3 {
+        @Override
+        public URL getUrl(String bucketName, String key) {
+            try {
+                return new URL(BUCKET_URL + key);
+            } catch (MalformedURLException e) {
+                throw new IllegalArgumentException(e);
+            }
+        }
+
+        @Override
+        public DeleteObjectsResult deleteObjects(DeleteObjectsRequest request) {
+            return new DeleteObjectsResult(List.of());
+        }
+    }
+
+    @TestConfiguration
+    static class Storage {
+        @Bean
+        AcceptingS3 amazonS3() {
+            return new AcceptingS3();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.blogapp.service;
+
+import com.amazonaws.services.s3.AbstractAmazonS3;
+import com.amazonaws.services.s3.model.DeleteObjectRequest;
+import com.blogapp.config.CacheConfig;
+import com.blogapp.config.PasswordHashConfig;
+import com.blogapp.entity.Address;
+import com.blogapp.entity.Category;
+import com.blogapp.entity.Post;
+import com.blogapp.entity.Reaction;
+import com.blogapp.entity.User;
+import com.blogapp.exception.UserNotFoundException;
+import com.blogapp.mapper.CategoryMapperImpl;
+import com.blogapp.mapper.UserMapperImpl;
+import com.blogapp.payload.PostDetailsDto;
+import com.blogapp.payload.UserDto;
+import com.blogapp.security.RevocationList;
+import com.blogapp.security.TokenService;
+import com.blogapp.util.EmailOutboxService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:userservice;NON_KEYWORDS=USER",
+        "aws.s3.bucket=bucket",
+        "token.secret=test-secret-test-secret-test-secret"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({UserServiceImpl.class, CacheConfig.class, UserMapperImpl.class, AwsS3Service.class, EmailOutboxService.class,
+        AutocompleteService.class, CategoryCatalog.class, CategoryMapperImpl.class, PasswordHasher.class,
+        PasswordHashConfig.class, TokenService.class, RevocationList.class, ReactionCleaner.class,
+        UserServiceImplTest.Storage.class})
+class UserServiceImplTest {
+
+    @Autowired
+    private UserServiceImpl userService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.USERS).clear();
+        cacheManager.getCache(CacheConfig.POSTS).clear();
+        user = persistUser();
+        entityManager.flush();
+    }
+
+    @Test
+    void userReadsAreServedFromTheCacheUntilTheUserIsUpdated() {
+        String original = user.getUserName();
+        assertEquals(original, userService.getUserById(user.getId()).getUserName());
+        // written behind the service's back: the cached copy keeps being served
+        jdbcTemplate.update("update user set user_name = ? where id = ?", "changed", user.getId());
+        assertEquals(original, userService.getUserById(user.getId()).getUserName());
+
+        // cached posts carry the author name, so they must go as well
+        cacheManager.getCache(CacheConfig.POSTS).put(1L, new PostDetailsDto());
+        UserDto userDto = new UserDto();
+        userDto.setUserName("renamed");
+        userDto.setMobile(user.getMobile());
+        userService.updateUserDetails(user.getId(), userDto, null);
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get(user.getId()));
+        assertNull(cacheManager.getCache(CacheConfig.POSTS).get(1L));
+        assertEquals("renamed", userService.getUserById(user.getId()).getUserName());
+    }
+
+    @Test
+    void deletingAUserEvictsIt() {
+        assertNotNull(userService.getUserById(user.getId()));
+        assertNotNull(cacheManager.getCache(CacheConfig.USERS).get(user.getId()));
+
+        userService.deleteUserDetails(user.getId());
+
+        assertNull(cacheManager.getCache(CacheConfig.USERS).get(user.getId()));
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(user.getId()));
+    }
+
+    @Test
+    void deletingAUserTakesTheirLikesOffWhatRemainsAndTheLikesOnTheirPosts() {
+        Category category = persistCategory();
+        User other = persistUser();
+        Post ownPost = persistPost(user, category);
+        Post otherPost = persistPost(other, category);
+        like(user, otherPost.getId());
+        like(other, ownPost.getId());
+        like(other, otherPost.getId());
+        entityManager.flush();
+        entityManager.createNativeQuery("update post set like_count = 2 where id = ?")
+                .setParameter(1, otherPost.getId()).executeUpdate();
+        entityManager.clear();
+
+        userService.deleteUserDetails(user.getId());
+        entityManager.flush();
+        entityManager.clear();
+
+        assertNull(entityManager.find(Post.class, ownPost.getId()));
+        assertEquals(1, entityManager.find(Post.class, otherPost.getId()).getLikeCount());
+        assertEquals(List.of(other.getId()), entityManager.createQuery(
+                "select r.userId from Reaction r", Long.class).getResultList());
+    }
+
+    private void like(User liker, Long postId) {
+        Reaction reaction = new Reaction();
+        reaction.setUserId(liker.getId());
+        reaction.setTargetType(Reaction.TargetType.POST);
+        reaction.setTargetId(postId);
+        reaction.setCreateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(reaction);
+    }
+
+    private Post persistPost(User author, Category category) {
+        Post post = new Post();
+        post.setTitle("Post title " + author.getId());
+        post.setDescription("Post description");
+        post.setCreateAt(LocalDateTime.now().withNano(0));
+        post.setUpdateAt(LocalDateTime.now().withNano(0));
+        post.setPostImagesPath(new ArrayList<>());
+        post.setUser(author);
+        post.setCategory(category);
+        entityManager.persist(post);
+        return post;
+    }
+
+    private Category persistCategory() {
+        Category category = new Category();
+        category.setCategoryName("Technology");
+        category.setDescription("Technology posts");
+        category.setCreateAt(LocalDateTime.now().withNano(0));
+        category.setUpdateAt(LocalDateTime.now().withNano(0));
+        entityManager.persist(category);
+        return category;
+    }
+
+    private User persistUser() {
+        Address address = new Address();
+        address.setAreaName("Shivaji Nagar");
+        address.setCityName("Pune");
+        address.setPinCode(411005);
+        address.setStateName("Maharashtra");
+        address.setCountryName("India");
+        User user = new User();
+        String suffix = String.valueOf(System.nanoTime() % 10_000_000_000L);
+        user.setUserName("user" + suffix);
+        user.setEmail("user" + suffix + "@blogapp.com");
+        user.setMobile(String.format("%010d", Long.parseLong(suffix)));
+        user.setPassword("password");
+        user.setRole("ROLE_USER");
+        user.setCreateAt(LocalDateTime.now().withNano(0));
+        user.setUpdateAt(LocalDateTime.now().withNano(0));
+        user.setProfileImagePath("https://old.example.com/profile.jpg");
+        user.setAddress(address);
+        entityManager.persist(user);
+        return user;
+    }
+
+    @TestConfiguration
+    static class Storage {
+        @Bean
+        AbstractAmazonS3 amazonS3() {
+            return new AbstractAmazonS3() {
+                @Override
+                public void deleteObject(DeleteObjectRequest request) {
+                }
+            };
+        }
+    }
+}
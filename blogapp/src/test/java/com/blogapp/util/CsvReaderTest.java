@@ -0,0 +1,33 @@
+package com.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainAndQuotedFieldsOneRecordAtATime() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "title,description\r\n\"Hello, world\",\"She said \"\"hi\"\"\"\nplain,\n"));
+
+        assertEquals(List.of("title", "description"), reader.next());
+        assertEquals(List.of("Hello, world", "She said \"hi\""), reader.next());
+        assertEquals(List.of("plain", ""), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void quotedFieldsMaySpanLinesAndBlankLinesAreSkipped() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("\n\"first\nsecond\",x\n\n\nlast,y"));
+
+        assertEquals(List.of("first\nsecond", "x"), reader.next());
+        assertEquals(List.of("last", "y"), reader.next());
+        assertNull(reader.next());
+    }
+}
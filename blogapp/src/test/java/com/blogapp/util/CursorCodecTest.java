@@ -0,0 +1,48 @@
+package com.blogapp.util;
+
+import com.blogapp.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CursorCodecTest {
+
+    @Test
+    void positionSurvivesTheRoundTripAndTheTokenIsUrlSafe() {
+        LocalDateTime time = LocalDateTime.of(2022, 12, 31, 23, 59, 58);
+
+        String cursor = CursorCodec.encode(time, 12345L);
+        CursorCodec.Position position = CursorCodec.decode(cursor);
+
+        assertEquals(time, position.getTime());
+        assertEquals(12345L, position.getId());
+        assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="), cursor);
+    }
+
+    @Test
+    void wholeSecondTimestampsRoundTripToo() {
+        // LocalDateTime.toString drops a zero seconds field, which parse must still accept
+        LocalDateTime time = LocalDateTime.of(2022, 1, 1, 10, 0);
+
+        assertEquals(time, CursorCodec.decode(CursorCodec.encode(time, 1L)).getTime());
+    }
+
+    @Test
+    void malformedCursorsAreRejected() {
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode("not base64!"));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(encode("no separator")));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(encode("2022-01-01T10:00|abc")));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(encode("yesterday|5")));
+        assertThrows(InvalidCursorException.class, () -> CursorCodec.decode(""));
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DecayingTopKTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @Test
+    void olderActivityDecaysBehindNewerActivity() {
+        DecayingTopK<Long> ranking = new DecayingTopK<>(3, 10, Duration.ofHours(1), 0);
+        ranking.record(1L, 100, 0);
+        ranking.record(2L, 30, 2 * HOUR);
+        ranking.record(3L, 20, 2 * HOUR);
+
+        // at 2h post 1 is worth 100 / 4 = 25
+        assertEquals(List.of(2L, 1L, 3L), keys(ranking.top(2 * HOUR)));
+        assertEquals(25.0, ranking.top(2 * HOUR).get(1).getScore(), 1e-9);
+        // one more half-life halves everyone, the order stays
+        assertEquals(12.5, ranking.top(3 * HOUR).get(1).getScore(), 1e-9);
+    }
+
+    @Test
+    void keepsOnlyTheBestCapacityKeys() {
+        DecayingTopK<Long> ranking = new DecayingTopK<>(2, 10, Duration.ofHours(1), 0);
+        ranking.record(1L, 1, 0);
+        ranking.record(2L, 2, 0);
+        ranking.record(3L, 3, 0);
+        assertEquals(List.of(3L, 2L), keys(ranking.top(0)));
+
+        // an outsider climbs in as soon as it passes the last member
+        ranking.record(1L, 5, 0);
+        assertEquals(List.of(1L, 3L), keys(ranking.top(0)));
+    }
+
+    @Test
+    void losingScoreOrBeingRemovedLetsTheNextKeyIn() {
+        DecayingTopK<Long> ranking = new DecayingTopK<>(2, 10, Duration.ofHours(1), 0);
+        ranking.record(1L, 10, 0);
+        ranking.record(2L, 8, 0);
+        ranking.record(3L, 6, 0);
+
+        ranking.record(1L, -5, 0);
+        assertEquals(List.of(2L, 3L), keys(ranking.top(0)));
+
+        ranking.remove(2L);
+        assertEquals(List.of(3L, 1L), keys(ranking.top(0)));
+    }
+
+    @Test
+    void maintainTrimsTrackedKeysAndRebasesWithoutChangingTheOrder() {
+        DecayingTopK<Long> ranking = new DecayingTopK<>(2, 3, Duration.ofMinutes(1), 0);
+        for (long key = 1; key <= 6; key++) {
+            ranking.record(key, key, 0);
+        }
+        ranking.maintain(0);
+        assertEquals(3, ranking.tracked());
+
+        // 200 half-lives later the raw scores would be around 2^200 without a rebase
+        long later = Duration.ofMinutes(200).toMillis();
+        ranking.record(4L, 1e-62, later);
+        ranking.maintain(later);
+        assertEquals(List.of(6L, 5L), keys(ranking.top(later)));
+        assertTrue(ranking.top(later).get(0).getScore() > 0);
+    }
+
+    @Test
+    void incrementalRankingMatchesFullRecomputation() {
+        DecayingTopK<Long> ranking = new DecayingTopK<>(20, 1_000, Duration.ofHours(6), 0);
+        Map<Long, List<double[]>> events = new HashMap<>();
+        Random random = new Random(42);
+        long now = 0;
+        for (int i = 0; i < 50_000; i++) {
+            now += random.nextInt(2_000);
+            long key = (long) Math.abs(random.nextGaussian() * 100);
+            double weight = random.nextInt(10) == 0 ? 5 : 1;
+            ranking.record(key, weight, now);
+            events.computeIfAbsent(key, k -> new ArrayList<>()).add(new double[]{weight, now});
+        }
+
+        double lambda = Math.log(2) / Duration.ofHours(6).toMillis();
+        long at = now;
+        List<Long> expected = events.entrySet().stream()
+                .sorted(Comparator.comparingDouble((Map.Entry<Long, List<double[]>> e) -> -e.getValue().stream()
+                        .mapToDouble(ev -> ev[0] * Math.exp(-lambda * (at - ev[1]))).sum()))
+                .limit(20)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        assertEquals(expected, keys(ranking.top(now)));
+    }
+
+    private static List<Long> keys(List<DecayingTopK.Ranked<Long>> ranked) {
+        return ranked.stream().map(DecayingTopK.Ranked::getKey).collect(Collectors.toList());
+    }
+}
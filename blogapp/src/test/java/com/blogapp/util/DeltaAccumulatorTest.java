@@ -0,0 +1,74 @@
+package com.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaAccumulatorTest {
+
+    private static final int THREADS = 8;
+    private static final int INCREMENTS_PER_THREAD = 200_000;
+    private static final int KEYS = 64;
+
+    @Test
+    void concurrentDrainsNeverLoseOrDuplicateIncrements() throws Exception {
+        DeltaAccumulator<Long> accumulator = new DeltaAccumulator<>();
+        Map<Long, Long> flushed = new HashMap<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        for (int t = 0; t < THREADS; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < INCREMENTS_PER_THREAD; i++) {
+                    // a skewed key pattern leaves some keys idle between drains, exercising removal
+                    accumulator.increment((long) (i % (i % 3 == 0 ? KEYS : 4)));
+                }
+                return null;
+            });
+        }
+        Thread drainer = new Thread(() -> {
+            while (writing.get()) {
+                accumulator.drain().forEach((key, delta) -> flushed.merge(key, delta, Long::sum));
+            }
+        });
+        drainer.start();
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+        writing.set(false);
+        drainer.join();
+        accumulator.drain().forEach((key, delta) -> flushed.merge(key, delta, Long::sum));
+
+        long total = flushed.values().stream().mapToLong(Long::longValue).sum();
+        assertEquals((long) THREADS * INCREMENTS_PER_THREAD, total);
+        assertEquals(0, accumulator.drain().size());
+    }
+
+    @Test
+    void pendingReflectsUndrainedIncrementsOnly() {
+        DeltaAccumulator<Long> accumulator = new DeltaAccumulator<>();
+        accumulator.increment(7L);
+        accumulator.increment(7L);
+        accumulator.add(9L, 5);
+        assertEquals(2, accumulator.pending(7L));
+
+        Map<Long, Long> drained = accumulator.drain();
+        assertEquals(Map.of(7L, 2L, 9L, 5L), drained);
+        assertEquals(0, accumulator.pending(7L));
+
+        // idle keys are dropped on the next drain
+        accumulator.drain();
+        assertEquals(0, accumulator.size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.blogapp.util;
+
+import com.blogapp.entity.EmailOutbox;
+import com.blogapp.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.GreenMailUtil;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:outbox;NON_KEYWORDS=USER",
+        "mail.outbox.batch-size=2",
+        "mail.outbox.max-attempts=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({EmailOutboxService.class, EmailOutboxDispatcher.class, EmailOutboxDispatcherTest.SmtpConfig.class})
+class EmailOutboxDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Autowired
+    private EmailOutboxService emailOutboxService;
+
+    @Autowired
+    private EmailOutboxDispatcher emailOutboxDispatcher;
+
+    @Autowired
+    private EmailOutboxRepository emailOutboxRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObservingMailSender mailSender;
+
+    @BeforeEach
+    void clearOutbox() {
+        emailOutboxRepository.deleteAll();
+        mailSender.transactionActive.clear();
+        mailSender.rowsDuringSend.clear();
+    }
+
+    @Test
+    void drainsOutboxInBatches() throws Exception {
+        transactionTemplate.executeWithoutResult(status -> {
+            emailOutboxService.enqueue("a@blogapp.com", "Post created", "plain body", false);
+            emailOutboxService.enqueue("b@blogapp.com", "Email Verification", "<p>html body</p>", true);
+            emailOutboxService.enqueue("c@blogapp.com", "Post created", "plain body", false);
+        });
+
+        emailOutboxDispatcher.drain();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertEquals(3, received.length);
+        assertTrue(GreenMailUtil.getBody(received[1]).contains("html body"));
+        List<EmailOutbox> rows = emailOutboxRepository.findAll();
+        assertTrue(rows.stream().allMatch(row -> row.getStatus() == EmailOutbox.Status.SENT));
+    }
+
+    @Test
+    void failedSendIsRetriedWithBackoffThenDeadLettered() {
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueue("a@blogapp.com", "Post created", "plain body", false));
+        greenMail.stop();
+
+        emailOutboxDispatcher.dispatchBatch();
+
+        EmailOutbox row = emailOutboxRepository.findAll().get(0);
+        assertEquals(EmailOutbox.Status.PENDING, row.getStatus());
+        assertEquals(1, row.getAttempts());
+        assertTrue(row.getNextAttemptAt().isAfter(LocalDateTime.now()));
+
+        // nothing is due until the backoff expires
+        assertEquals(0, emailOutboxDispatcher.dispatchBatch());
+
+        row.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(row);
+        emailOutboxDispatcher.dispatchBatch();
+
+        row = emailOutboxRepository.findAll().get(0);
+        assertEquals(EmailOutbox.Status.DEAD, row.getStatus());
+        assertEquals(2, row.getAttempts());
+    }
+
+    @Test
+    void mailsAreSentOutsideTheClaimTransactionUnderALease() {
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueue("a@blogapp.com", "Post created", "plain body", false));
+
+        emailOutboxDispatcher.dispatchBatch();
+
+        assertEquals(List.of(false), mailSender.transactionActive);
+        EmailOutbox during = mailSender.rowsDuringSend.get(0).get(0);
+        assertEquals(EmailOutbox.Status.SENDING, during.getStatus());
+        assertTrue(during.getNextAttemptAt().isAfter(LocalDateTime.now().plusMinutes(4)));
+        assertEquals(EmailOutbox.Status.SENT, emailOutboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void mailLeftBehindByADeadDispatcherIsClaimedAgainOnceItsLeaseRunsOut() {
+        transactionTemplate.executeWithoutResult(status ->
+                emailOutboxService.enqueue("a@blogapp.com", "Post created", "plain body", false));
+        EmailOutbox row = emailOutboxRepository.findAll().get(0);
+        row.setStatus(EmailOutbox.Status.SENDING);
+        row.setNextAttemptAt(LocalDateTime.now().plusMinutes(5));
+        emailOutboxRepository.save(row);
+
+        // still leased to the other dispatcher
+        assertEquals(0, emailOutboxDispatcher.dispatchBatch());
+
+        row.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        emailOutboxRepository.save(row);
+        assertEquals(1, emailOutboxDispatcher.dispatchBatch());
+
+        assertEquals(1, greenMail.getReceivedMessages().length);
+        assertEquals(EmailOutbox.Status.SENT, emailOutboxRepository.findAll().get(0).getStatus());
+    }
+
+    @Test
+    void enqueueRequiresTheCallersTransaction() {
+        assertThrows(IllegalTransactionStateException.class,
+                () -> emailOutboxService.enqueue("a@blogapp.com", "Post created", "plain body", false));
+    }
+
+    // records what the outbox looks like, and whether a transaction is open, at the moment mail goes out
+    static class ObservingMailSender extends JavaMailSenderImpl {
+        final List<Boolean> transactionActive = new ArrayList<>();
+        final List<List<EmailOutbox>> rowsDuringSend = new ArrayList<>();
+        EmailOutboxRepository emailOutboxRepository;
+
+        @Override
+        public void send(MimeMessage... mimeMessages) {
+            transactionActive.add(TransactionSynchronizationManager.isActualTransactionActive());
+            rowsDuringSend.add(emailOutboxRepository.findAll());
+            super.send(mimeMessages);
+        }
+    }
+
+    @TestConfiguration
+    static class SmtpConfig {
+        @Bean
+        ObservingMailSender javaMailSender(EmailOutboxRepository emailOutboxRepository) {
+            ObservingMailSender mailSender = new ObservingMailSender();
+            mailSender.emailOutboxRepository = emailOutboxRepository;
+            mailSender.setHost("localhost");
+            mailSender.setPort(ServerSetupTest.SMTP.getPort());
+            mailSender.getJavaMailProperties().put("mail.smtp.connectiontimeout", "2000");
+            return mailSender;
+        }
+    }
+}
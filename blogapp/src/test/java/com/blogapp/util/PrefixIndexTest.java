@@ -0,0 +1,76 @@
+package com.blogapp.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PrefixIndexTest {
+
+    @Test
+    void matchesPrefixIgnoringCaseInAlphabeticalOrder() {
+        PrefixIndex index = PrefixIndex.of(Map.of(
+                1L, "anna", 2L, "Annabel", 3L, "ann", 4L, "bob", 5L, "Anton", 6L, "an"
+        ));
+
+        assertEquals(List.of("an", "ann", "anna", "Annabel", "Anton"), names(index.complete("AN", 10)));
+        assertEquals(List.of("ann", "anna"), names(index.complete("ann", 2)));
+        assertEquals(List.of("bob"), names(index.complete("b", 10)));
+        assertTrue(index.complete("c", 10).isEmpty());
+        assertTrue(index.complete("annabelle", 10).isEmpty());
+    }
+
+    @Test
+    void changesReturnANewIndexAndLeaveTheOldOneAlone() {
+        PrefixIndex original = PrefixIndex.of(Map.of(1L, "alice", 2L, "bob"));
+
+        PrefixIndex renamed = original.with(1L, "carol");
+        assertEquals(List.of("carol"), names(renamed.complete("c", 10)));
+        assertTrue(renamed.complete("alice", 10).isEmpty());
+        assertEquals(2, renamed.size());
+
+        PrefixIndex added = renamed.with(3L, "Carl");
+        assertEquals(List.of(3L, 1L), added.complete("car", 10).stream().map(PrefixIndex.Match::getId).collect(Collectors.toList()));
+
+        PrefixIndex removed = added.without(1L);
+        assertEquals(List.of("Carl"), names(removed.complete("car", 10)));
+        assertEquals(removed, removed.without(42L));
+
+        assertEquals(List.of("alice"), names(original.complete("a", 10)));
+        assertEquals(2, original.size());
+    }
+
+    @Test
+    void lookupCostDoesNotDependOnTheNumberOfNames() {
+        Map<Long, String> namesById = new HashMap<>();
+        for (long id = 0; id < 500_000; id++) {
+            namesById.put(id, "user" + Long.toString(id * 7919, 36));
+        }
+        PrefixIndex index = PrefixIndex.of(namesById);
+
+        String[] prefixes = {"user1", "userz", "usera9", "user", "userq0"};
+        for (int i = 0; i < 20_000; i++) {
+            index.complete(prefixes[i % prefixes.length], 10);
+        }
+        int lookups = 100_000;
+        long start = System.nanoTime();
+        int found = 0;
+        for (int i = 0; i < lookups; i++) {
+            found += index.complete(prefixes[i % prefixes.length], 10).size();
+        }
+        long perLookup = (System.nanoTime() - start) / lookups;
+
+        assertEquals(lookups * 10, found);
+        assertTrue(perLookup < TimeUnit.MICROSECONDS.toNanos(50), "lookup took " + perLookup + "ns");
+    }
+
+    private static List<String> names(List<PrefixIndex.Match> matches) {
+        return matches.stream().map(PrefixIndex.Match::getName).collect(Collectors.toList());
+    }
+}